@@ -1,6 +1,7 @@
 package com.d104.yogaapp.features.multi.play
 
 import android.graphics.Bitmap
+import com.d104.domain.model.LeaderboardMessage
 import com.d104.domain.model.MultiBestPhoto
 import com.d104.domain.model.MultiPhoto
 import com.d104.domain.model.PeerUser
@@ -31,6 +32,7 @@ sealed class MultiPlayIntent {
     data class AllPose(val it: List<MultiPhoto>) : MultiPlayIntent()
     data class SetBestImage(val bitmap: Bitmap) : MultiPlayIntent()
     data class UpdateTotalScore(val peerId: String,val score: Int) : MultiPlayIntent()
+    data class UpdateLeaderboard(val leaderboard: LeaderboardMessage) : MultiPlayIntent()
     data class SetErrorMessage(val e: String) : MultiPlayIntent()
 
     data object ExitRoom: MultiPlayIntent()
@@ -280,6 +280,22 @@ class MultiPlayReducer @Inject constructor() {
                 }
             }
 
+            is MultiPlayIntent.UpdateLeaderboard -> {
+                // 서버 점수판이 기준. 이전 라운드의 늦은 snapshot 은 무시
+                val leaderboard = intent.leaderboard
+                if (leaderboard.round != currentState.roundIndex) {
+                    currentState
+                } else {
+                    currentState.copy(
+                        userList = currentState.userList.mapValues { (id, user) ->
+                            leaderboard.ranks.firstOrNull { it.id == id }?.let {
+                                user.copy(roundScore = it.time, totalScore = it.total)
+                            } ?: user
+                        }
+                    )
+                }
+            }
+
             is MultiPlayIntent.UpdateScore -> {
                 Timber.d("Reducer: Handling UpdateScore with ${intent.scoreUpdateMessage}")
                 val score = intent.scoreUpdateMessage.time
@@ -11,6 +11,7 @@ import com.d104.domain.model.ChunkReRequest
 import com.d104.domain.model.GameStateMessage
 import com.d104.domain.model.IceCandidateMessage
 import com.d104.domain.model.ImageChunkMessage
+import com.d104.domain.model.LeaderboardMessage
 import com.d104.domain.model.PeerUser
 import com.d104.domain.model.RequestPhotoMessage
 import com.d104.domain.model.ScoreUpdateMessage
@@ -36,7 +37,6 @@ import com.d104.domain.usecase.ResendChunkMessageUseCase
 import com.d104.domain.usecase.SendImageUseCase
 import com.d104.domain.usecase.SendRoomRecordUseCase
 import com.d104.domain.usecase.SendSignalingMessageUseCase
-import com.d104.domain.usecase.SendWebRTCUseCase
 import com.d104.domain.usecase.SendChunkReRequestUseCase
 import com.d104.domain.utils.StompConnectionState
 import com.d104.yogaapp.R
@@ -73,7 +73,6 @@ class MultiPlayViewModel @Inject constructor(
     private val closeWebRTCUseCase: CloseWebRTCUseCase,
     private val observeWebRTCMessageUseCase: ObserveWebRTCMessageUseCase,
     private val handleSignalingMessage: HandleSignalingMessage,
-    private val sendWebRTCUseCase: SendWebRTCUseCase,
     private val observeWebSocketConnectionStateUseCase: ObserveWebSocketConnectionStateUseCase,
     private val initiateConnectionUseCase: InitiateConnectionUseCase,
     private val sendSignalingMessageUseCase: SendSignalingMessageUseCase,
@@ -151,6 +150,10 @@ class MultiPlayViewModel @Inject constructor(
                     val score = totalScoreMessage.score
                     processIntent(MultiPlayIntent.UpdateTotalScore(peerId, score))
                 }
+                if (intent.message is LeaderboardMessage) {
+                    // 점수/순위는 서버 점수판 snapshot 을 그대로 반영
+                    processIntent(MultiPlayIntent.UpdateLeaderboard(intent.message))
+                }
                 if (intent.message.type == "round_end") {
 
                     processIntent(MultiPlayIntent.RoundEnded)
@@ -622,15 +625,7 @@ class MultiPlayViewModel @Inject constructor(
                 } else {
                     Timber.w("Host could not determine top scorer for photo request.")
                 }
-                val descendingScores = userListForPhoto.entries.sortedWith(
-                    compareByDescending<Map.Entry<String, PeerUser>> { it.value.roundScore }
-                        .thenBy { it.value.id }
-                )
-                descendingScores.forEachIndexed() { index, it ->
-                    // total score 업데이트 명령
-                    sendTotalScoreMessage(it.value.id, 10 - index * 3)
-                    Timber.i("User: ${it.key}, Score: ${it.value.roundScore}")
-                }
+                // 누적 점수는 서버가 round_end 후 정산해 leaderboard 로 보냄
             } else {
                 Timber.w("User list empty, skipping photo request.")
             }
@@ -663,19 +658,6 @@ class MultiPlayViewModel @Inject constructor(
         }
     }
 
-    private fun sendTotalScoreMessage(toPeerId: String, score: Int) {
-        viewModelScope.launch {
-            val id = getUserIdUseCase()
-            sendSignalingMessageUseCase(
-                fromPeerId = id,
-                destination = uiState.value.currentRoom!!.roomId.toString(),
-                8,
-                toPeerId = toPeerId,
-                score = score
-            )
-        }
-    }
-
     private fun sendNextRoundMessage(nextRoundIndex: Int) {
         viewModelScope.launch {
             val id = getUserIdUseCase()
@@ -784,16 +766,20 @@ class MultiPlayViewModel @Inject constructor(
                 )
             )
         )
+        // 다른 참가자에게 직접 보내지 않고 서버 점수판으로만 보냄 (서버가 leaderboard 로 방 전체에 알림)
         viewModelScope.launch {
-            sendWebRTCUseCase(
-                message = ScoreUpdateMessage(
-                    score = uiState.value.accuracy,
-                    time = uiState.value.time
-                )
+            val id = getUserIdUseCase()
+            sendSignalingMessageUseCase(
+                fromPeerId = id,
+                destination = uiState.value.currentRoom!!.roomId.toString(),
+                type = 9,
+                round = uiState.value.roundIndex,
+                time = uiState.value.time,
+                accuracy = uiState.value.accuracy
             )
         }
 
-        Timber.d("Sending score via WebRTC...${uiState.value.time}")
+        Timber.d("Sending score to server...${uiState.value.time}")
     }
 
     private fun requestPhoto(toPeerId: String) {
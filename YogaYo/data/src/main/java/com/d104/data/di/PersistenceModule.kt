@@ -13,8 +13,10 @@ import com.d104.domain.model.ChunkReRequest
 import com.d104.domain.model.DataChannelMessage
 import com.d104.domain.model.IceCandidateMessage
 import com.d104.domain.model.ImageChunkMessage
+import com.d104.domain.model.LeaderboardMessage
 import com.d104.domain.model.OfferMessage
 import com.d104.domain.model.RoomPeersMessage
+import com.d104.domain.model.ScoreReportMessage
 import com.d104.domain.model.ScoreUpdateMessage
 import com.d104.domain.model.SignalingMessage
 import com.d104.domain.model.TotalScoreMessage
@@ -77,6 +79,8 @@ object PersistenceModule {
                 subclass(RoomPeersMessage::class)
                 subclass(UserReadyMessage::class)
                 subclass(TotalScoreMessage::class)
+                subclass(ScoreReportMessage::class)
+                subclass(LeaderboardMessage::class)
                 // ... 기타 SignalingMessage 하위 클래스들 ...
             }
             // 다른 sealed class 나 interface 에 대한 다형성 설정도 필요하다면 추가
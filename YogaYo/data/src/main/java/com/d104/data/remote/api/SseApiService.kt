@@ -1,9 +1,13 @@
 package com.d104.data.remote.api
 
+import okhttp3.sse.EventSource
 import okhttp3.sse.EventSourceListener
 
 interface SseApiService  {
-    fun startSse(searchText: String, page: Int, listener: EventSourceListener)
+    fun startSse(searchText: String, cursor: String?, lastEventId: String?, listener: EventSourceListener)
 
     fun stopSse()
+
+    // 현재 열려 있는 연결인지 (이전 연결의 종료 콜백을 구분하기 위함)
+    fun isCurrent(eventSource: EventSource): Boolean
 }
\ No newline at end of file
@@ -13,9 +13,10 @@ class SseApiServiceImpl @Inject constructor(
     private val client: OkHttpClient
 ) : SseApiService {
     private var eventSource: EventSource? = null
-    override fun startSse(searchText: String, page: Int, listener: EventSourceListener) {
+    override fun startSse(searchText: String, cursor: String?, lastEventId: String?, listener: EventSourceListener) {
+        eventSource?.cancel()
 
-        val url = HttpUrl.Builder()
+        val urlBuilder = HttpUrl.Builder()
             .scheme("http")
             .host("j12d104.p.ssafy.io")
             .port(8080)
@@ -23,20 +24,26 @@ class SseApiServiceImpl @Inject constructor(
             .addPathSegment("multi")
             .addPathSegment("lobby")
             .addQueryParameter("roomName", searchText)
-            .addQueryParameter("page", page.toString())
-            .build()
+        // 첫 페이지가 아니면 이전 페이지 마지막 방 다음부터 조회
+        cursor?.let { urlBuilder.addQueryParameter("cursor", it) }
+        val url = urlBuilder.build()
 
-        val request = Request.Builder()
+        val requestBuilder = Request.Builder()
             .url(url)
-            .build()
+        // 재접속이면 마지막으로 받은 이벤트 이후의 delta 만 요청
+        lastEventId?.let { requestBuilder.header("Last-Event-ID", it) }
+        val request = requestBuilder.build()
         val factory = createFactory(client)
         eventSource = factory.newEventSource(request,listener)
     }
 
     override fun stopSse() {
-        eventSource?.cancel()
+        val current = eventSource
         eventSource = null
+        current?.cancel()
     }
 
+    override fun isCurrent(eventSource: EventSource): Boolean = this.eventSource === eventSource
+
 
 }
\ No newline at end of file
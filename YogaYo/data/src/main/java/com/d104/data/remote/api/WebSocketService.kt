@@ -6,4 +6,6 @@ interface WebSocketService {
     fun connect(url:String,listener: WebSocketListener)
     fun disconnect()
     fun send(message: String):Boolean
+    // 바이너리 WebSocket 프레임 전송 (CBOR 본문 STOMP 프레임)
+    fun send(bytes: ByteArray):Boolean
 }
\ No newline at end of file
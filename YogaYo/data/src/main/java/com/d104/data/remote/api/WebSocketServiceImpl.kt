@@ -5,6 +5,7 @@ import okhttp3.OkHttpClient
 import okhttp3.Request
 import okhttp3.WebSocket
 import okhttp3.WebSocketListener
+import okio.ByteString.Companion.toByteString
 import javax.inject.Inject
 
 class WebSocketServiceImpl @Inject constructor(
@@ -62,4 +63,14 @@ class WebSocketServiceImpl @Inject constructor(
         }
         return sent
     }
-}
\ No newline at end of file
+
+    override fun send(bytes: ByteArray): Boolean {
+        val sent = webSocket?.send(bytes.toByteString()) ?: false
+        if (sent) {
+            Log.d("WebSocketService", "바이너리 메시지 전송 성공: ${bytes.size} bytes")
+        } else {
+            Log.w("WebSocketService", "바이너리 메시지 전송 실패 (연결되지 않음?): ${bytes.size} bytes")
+        }
+        return sent
+    }
+}
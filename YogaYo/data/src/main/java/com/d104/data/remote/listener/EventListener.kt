@@ -5,25 +5,94 @@ import kotlinx.coroutines.flow.StateFlow
 import okhttp3.Response
 import okhttp3.sse.EventSource
 import okhttp3.sse.EventSourceListener
+import org.json.JSONArray
+import org.json.JSONException
+import org.json.JSONObject
 import javax.inject.Inject
 
 class EventListener @Inject constructor(): EventSourceListener() {
     private val _sseEvents = MutableStateFlow<String>("")
     val sseEvents: StateFlow<String> = _sseEvents
+
+    // snapshot + delta(room_added / room_updated / room_removed)를 적용한 현재 방 목록
+    private val rooms = LinkedHashMap<Long, JSONObject>()
+    private var searchText: String? = null
+    private var page: Int = 0
+    private var lastEventId: String? = null
+
+    // 연결이 닫히거나 끊겼을 때 호출 (재접속 예약용)
+    var onDisconnected: ((EventSource) -> Unit)? = null
+
+    // 페이지별 시작 커서 (서버 snapshot 의 nextCursor). 0 페이지는 처음부터이므로 null
+    private val pageCursors = mutableListOf<String?>(null)
+
+    // 같은 검색어, 같은 페이지로 재접속하면 마지막 이벤트 id 를 돌려줘 놓친 delta 만 받도록 함
+    @Synchronized
+    fun prepare(searchText: String, page: Int): String? {
+        if (this.searchText != searchText) {
+            pageCursors.clear()
+            pageCursors.add(null)
+        }
+        if (this.searchText != searchText || this.page != page) {
+            this.searchText = searchText
+            this.page = page
+            lastEventId = null
+            rooms.clear()
+        }
+        return lastEventId
+    }
+
+    // 아직 받아보지 않은 페이지면 알고 있는 마지막 커서부터 조회
+    @Synchronized
+    fun cursorFor(page: Int): String? = pageCursors.getOrNull(page) ?: pageCursors.last()
+
     override fun onOpen(eventSource: EventSource, response: Response) {
         println("SSE Connection Opened")
     }
 
+    @Synchronized
     override fun onEvent(eventSource: EventSource, id: String?, type: String?, data: String) {
         println("Event Data: $data")
-        _sseEvents.value = data
+        try {
+            when (type) {
+                "snapshot" -> {
+                    rooms.clear()
+                    val snapshot = JSONObject(data)
+                    val array = snapshot.getJSONArray("rooms")
+                    for (i in 0 until array.length()) {
+                        val room = array.getJSONObject(i)
+                        rooms[room.getLong("roomId")] = room
+                    }
+                    val nextCursor = snapshot.optString("nextCursor").takeIf { it.isNotEmpty() }
+                    if (nextCursor != null) {
+                        while (pageCursors.size <= page + 1) pageCursors.add(null)
+                        pageCursors[page + 1] = nextCursor
+                    }
+                }
+                "room_added", "room_updated" -> {
+                    val room = JSONObject(data).getJSONObject("room")
+                    rooms[room.getLong("roomId")] = room
+                }
+                "room_removed" -> rooms.remove(JSONObject(data).getLong("roomId"))
+                else -> return
+            }
+        } catch (e: JSONException) {
+            println("SSE Event parse error: $e")
+            return
+        }
+        if (id != null) {
+            lastEventId = id
+        }
+        _sseEvents.value = JSONArray(rooms.values).toString()
     }
 
     override fun onClosed(eventSource: EventSource) {
         println("SSE Connection Closed")
+        onDisconnected?.invoke(eventSource)
     }
 
     override fun onFailure(eventSource: EventSource, t: Throwable?, response: Response?) {
         println("SSE Error occurred: $t")
+        onDisconnected?.invoke(eventSource)
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,213 @@
+package com.d104.data.remote.utils
+
+import kotlinx.serialization.json.JsonArray
+import kotlinx.serialization.json.JsonElement
+import kotlinx.serialization.json.JsonNull
+import kotlinx.serialization.json.JsonObject
+import kotlinx.serialization.json.JsonPrimitive
+import kotlinx.serialization.json.booleanOrNull
+import kotlinx.serialization.json.doubleOrNull
+import kotlinx.serialization.json.longOrNull
+import java.io.ByteArrayOutputStream
+
+/**
+ * 방 메시지용 CBOR(RFC 8949) 인코더/디코더.
+ * 메시지는 앱 안에서 JSON 문자열로 다루고, 전송 구간에서만 JsonElement <-> CBOR 로 바꿉니다.
+ * (map/array/text/정수/실수/bool/null 만 사용. 서버(Jackson) 가 쓰는 길이 미지정 map/array/string 도 읽음)
+ */
+object CborCodec {
+
+    const val CONTENT_TYPE = "application/cbor"
+
+    private const val MAJOR_UNSIGNED = 0
+    private const val MAJOR_NEGATIVE = 1
+    private const val MAJOR_BYTES = 2
+    private const val MAJOR_TEXT = 3
+    private const val MAJOR_ARRAY = 4
+    private const val MAJOR_MAP = 5
+    private const val MAJOR_TAG = 6
+    private const val MAJOR_SIMPLE = 7
+    private const val INDEFINITE = 31
+    private const val BREAK = 0xFF
+
+    fun encode(element: JsonElement): ByteArray {
+        val out = ByteArrayOutputStream()
+        write(out, element)
+        return out.toByteArray()
+    }
+
+    fun decode(bytes: ByteArray): JsonElement = Reader(bytes).read()
+
+    private fun write(out: ByteArrayOutputStream, element: JsonElement) {
+        when (element) {
+            is JsonNull -> out.write(0xF6)
+            is JsonObject -> {
+                writeHead(out, MAJOR_MAP, element.size.toLong())
+                element.forEach { (key, value) ->
+                    writeText(out, key)
+                    write(out, value)
+                }
+            }
+            is JsonArray -> {
+                writeHead(out, MAJOR_ARRAY, element.size.toLong())
+                element.forEach { write(out, it) }
+            }
+            is JsonPrimitive -> writePrimitive(out, element)
+        }
+    }
+
+    private fun writePrimitive(out: ByteArrayOutputStream, primitive: JsonPrimitive) {
+        if (primitive.isString) {
+            writeText(out, primitive.content)
+            return
+        }
+        primitive.booleanOrNull?.let {
+            out.write(if (it) 0xF5 else 0xF4)
+            return
+        }
+        primitive.longOrNull?.let {
+            if (it >= 0) writeHead(out, MAJOR_UNSIGNED, it) else writeHead(out, MAJOR_NEGATIVE, -1 - it)
+            return
+        }
+        val number = primitive.doubleOrNull ?: throw IllegalArgumentException("Unsupported JSON value: $primitive")
+        out.write(0xFB)
+        val bits = java.lang.Double.doubleToLongBits(number)
+        for (shift in 56 downTo 0 step 8) out.write((bits ushr shift).toInt() and 0xFF)
+    }
+
+    private fun writeText(out: ByteArrayOutputStream, text: String) {
+        val bytes = text.toByteArray(Charsets.UTF_8)
+        writeHead(out, MAJOR_TEXT, bytes.size.toLong())
+        out.write(bytes)
+    }
+
+    private fun writeHead(out: ByteArrayOutputStream, major: Int, value: Long) {
+        val type = major shl 5
+        when {
+            value < 24 -> out.write(type or value.toInt())
+            value < 0x100 -> {
+                out.write(type or 24)
+                out.write(value.toInt())
+            }
+            value < 0x10000 -> {
+                out.write(type or 25)
+                for (shift in 8 downTo 0 step 8) out.write((value ushr shift).toInt() and 0xFF)
+            }
+            value < 0x100000000L -> {
+                out.write(type or 26)
+                for (shift in 24 downTo 0 step 8) out.write((value ushr shift).toInt() and 0xFF)
+            }
+            else -> {
+                out.write(type or 27)
+                for (shift in 56 downTo 0 step 8) out.write((value ushr shift).toInt() and 0xFF)
+            }
+        }
+    }
+
+    private class Reader(private val bytes: ByteArray) {
+        private var pos = 0
+
+        fun read(): JsonElement {
+            val initial = next()
+            val major = initial ushr 5
+            val info = initial and 0x1F
+            return when (major) {
+                MAJOR_UNSIGNED -> JsonPrimitive(argument(info))
+                MAJOR_NEGATIVE -> JsonPrimitive(-1 - argument(info))
+                MAJOR_BYTES, MAJOR_TEXT -> JsonPrimitive(readString(info))
+                MAJOR_ARRAY -> {
+                    val items = mutableListOf<JsonElement>()
+                    if (info == INDEFINITE) {
+                        while (peek() != BREAK) items += read()
+                        pos++
+                    } else {
+                        repeat(argument(info).toInt()) { items += read() }
+                    }
+                    JsonArray(items)
+                }
+                MAJOR_MAP -> {
+                    val entries = LinkedHashMap<String, JsonElement>()
+                    if (info == INDEFINITE) {
+                        while (peek() != BREAK) entries[readKey()] = read()
+                        pos++
+                    } else {
+                        repeat(argument(info).toInt()) { entries[readKey()] = read() }
+                    }
+                    JsonObject(entries)
+                }
+                MAJOR_TAG -> {
+                    argument(info) // 태그는 무시하고 값만 사용
+                    read()
+                }
+                else -> readSimple(info)
+            }
+        }
+
+        private fun readKey(): String = when (val key = read()) {
+            is JsonPrimitive -> key.content
+            else -> key.toString()
+        }
+
+        private fun readSimple(info: Int): JsonElement = when (info) {
+            20 -> JsonPrimitive(false)
+            21 -> JsonPrimitive(true)
+            22, 23 -> JsonNull
+            25 -> JsonPrimitive(halfToDouble(readBits(2).toInt()))
+            26 -> JsonPrimitive(java.lang.Float.intBitsToFloat(readBits(4).toInt()).toDouble())
+            27 -> JsonPrimitive(java.lang.Double.longBitsToDouble(readBits(8)))
+            else -> throw IllegalArgumentException("Unsupported CBOR simple value: $info")
+        }
+
+        private fun readString(info: Int): String {
+            if (info != INDEFINITE) {
+                val length = argument(info).toInt()
+                val text = String(bytes, pos, length, Charsets.UTF_8)
+                pos += length
+                return text
+            }
+            // 길이 미지정 문자열: 조각들을 이어 붙임
+            val builder = StringBuilder()
+            while (peek() != BREAK) {
+                builder.append(readString(next() and 0x1F))
+            }
+            pos++
+            return builder.toString()
+        }
+
+        private fun argument(info: Int): Long = when {
+            info < 24 -> info.toLong()
+            info == 24 -> readBits(1)
+            info == 25 -> readBits(2)
+            info == 26 -> readBits(4)
+            info == 27 -> readBits(8)
+            else -> throw IllegalArgumentException("Invalid CBOR length: $info")
+        }
+
+        private fun readBits(count: Int): Long {
+            var value = 0L
+            repeat(count) { value = (value shl 8) or next().toLong() }
+            return value
+        }
+
+        private fun next(): Int {
+            if (pos >= bytes.size) throw IllegalArgumentException("Unexpected end of CBOR data")
+            return bytes[pos++].toInt() and 0xFF
+        }
+
+        private fun peek(): Int {
+            if (pos >= bytes.size) throw IllegalArgumentException("Unexpected end of CBOR data")
+            return bytes[pos].toInt() and 0xFF
+        }
+
+        private fun halfToDouble(half: Int): Double {
+            val exponent = (half shr 10) and 0x1F
+            val mantissa = half and 0x3FF
+            val value = when (exponent) {
+                0 -> mantissa * Math.pow(2.0, -24.0)
+                31 -> if (mantissa == 0) Double.POSITIVE_INFINITY else Double.NaN
+                else -> (mantissa + 1024) * Math.pow(2.0, exponent - 25.0)
+            }
+            return if (half and 0x8000 != 0) -value else value
+        }
+    }
+}
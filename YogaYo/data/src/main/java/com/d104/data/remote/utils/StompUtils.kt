@@ -8,13 +8,22 @@ object StompUtils {
     private const val EOL = "\n"      // Define newline for clarity
 
     // Reverted buildConnectFrame using raw string
-    fun buildConnectFrame(host: String, token: String, outgoingHeartbeat: Long = 300000, incomingHeartbeat: Long = 300000): String {
+    fun buildConnectFrame(
+        host: String,
+        token: String,
+        outgoingHeartbeat: Long = 300000,
+        incomingHeartbeat: Long = 300000,
+        acceptContentType: String? = null
+    ): String {
         val headers = mutableMapOf(
             "accept-version" to "1.2",
             "host" to host,
             "Authorization" to "Bearer $token"
         )
 
+        // 서버에 받을 수 있는 본문 인코딩 알림 (예: application/cbor). 모르는 서버는 무시하고 JSON 으로 보냄
+        acceptContentType?.let { headers["accept-content-type"] = it }
+
         // 하트비트 헤더 조건부 추가
         if (outgoingHeartbeat > 0 || incomingHeartbeat > 0) {
             headers["heart-beat"] = "$outgoingHeartbeat,$incomingHeartbeat"
@@ -43,12 +52,15 @@ object StompUtils {
      * The provided 'body' string will be wrapped inside a JSON object under the key "payload".
      * e.g., if body is '{"type":"user_joined", "data":"..."}', the actual frame body will be
      * '{"payload":{"type":"user_joined", "data":"..."}}'
+     * If 'target' is given it is added next to the payload ('{"target":"12","payload":{...}}')
+     * and the server delivers the payload only to that user's /user/queue/signal.
      *
      * @param destination The STOMP destination.
      * @param body The JSON string representing the inner payload content.
+     * @param target The receiving user id for point-to-point messages, or null to broadcast to the room.
      * @return The complete STOMP SEND frame as a String.
      */
-    fun buildSendFrame(destination: String, body: String): String {
+    fun buildSendFrame(destination: String, body: String, target: String? = null): String {
         // Define headers
         val headers = mapOf(
             "destination" to destination,
@@ -57,7 +69,12 @@ object StompUtils {
 
         // Wrap the original body string inside a "payload" JSON object
         // IMPORTANT: Assumes the input 'body' is already a valid JSON value representation (object, array, string, number, etc.)
-        val wrappedBody = """{"payload":$body}"""
+        // target 은 사용자 ID(숫자)이므로 별도 escape 없이 문자열로 넣음
+        val wrappedBody = if (target.isNullOrBlank()) {
+            """{"payload":$body}"""
+        } else {
+            """{"target":"$target","payload":$body}"""
+        }
 
         Log.d("StompUtils", "Original body for SEND: $body")
         Log.d("StompUtils", "Wrapped body for SEND: $wrappedBody")
@@ -66,6 +83,58 @@ object StompUtils {
         return buildFrame("SEND", headers, wrappedBody)
     }
 
+    /**
+     * Builds a SEND frame with a binary (CBOR) body, sent as a binary WebSocket message.
+     * content-length is required because a CBOR body may contain NULL bytes.
+     */
+    fun buildBinarySendFrame(destination: String, body: ByteArray, contentType: String): ByteArray {
+        val head = StringBuilder().apply {
+            append("SEND").append(EOL)
+            append("destination:").append(destination).append(EOL)
+            append("content-type:").append(contentType).append(EOL)
+            append("content-length:").append(body.size).append(EOL)
+            append(EOL)
+        }.toString().toByteArray(Charsets.UTF_8)
+        return head + body + byteArrayOf(0)
+    }
+
+    /**
+     * Parses a frame received as a binary WebSocket message.
+     * Headers are UTF-8 text; the body is sliced by content-length (or up to the first NULL if absent).
+     */
+    fun parseBinaryFrame(frame: ByteArray): Triple<String, Map<String, String>, ByteArray> {
+        var headerEnd = -1
+        for (i in 0 until frame.size - 1) {
+            if (frame[i] == '\n'.code.toByte() && frame[i + 1] == '\n'.code.toByte()) {
+                headerEnd = i
+                break
+            }
+        }
+        require(headerEnd >= 0) { "Binary frame without header terminator" }
+
+        val headerLines = String(frame, 0, headerEnd, Charsets.UTF_8).trimStart('\n').split(EOL)
+        val command = headerLines[0].trim()
+        val headers = mutableMapOf<String, String>()
+        for (i in 1 until headerLines.size) {
+            val headerParts = headerLines[i].split(":", limit = 2)
+            if (headerParts.size == 2) {
+                headers[headerParts[0].trim()] = headerParts[1].trim()
+            }
+        }
+
+        val bodyStart = headerEnd + 2
+        val length = headers["content-length"]?.toIntOrNull()
+            ?: (frame.indexOfFirstFrom(0, bodyStart).takeIf { it >= 0 } ?: frame.size) - bodyStart
+        return Triple(command, headers, frame.copyOfRange(bodyStart, bodyStart + length))
+    }
+
+    private fun ByteArray.indexOfFirstFrom(value: Byte, from: Int): Int {
+        for (i in from until size) {
+            if (this[i] == value) return i
+        }
+        return -1
+    }
+
     private fun buildFrame(
         command: String,
         headers: Map<String, String> = emptyMap(),
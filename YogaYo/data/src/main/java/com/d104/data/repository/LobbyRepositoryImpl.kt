@@ -20,14 +20,21 @@ import com.d104.domain.model.Room
 import com.d104.domain.model.UserCourse
 import com.d104.domain.model.YogaPose
 import com.d104.domain.repository.LobbyRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.distinctUntilChanged
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.launch
 import retrofit2.HttpException
 import retrofit2.Response
 import java.io.IOException
 import javax.inject.Inject
+import kotlin.random.Random
 
 class LobbyRepositoryImpl @Inject constructor(
     private val sseApiService: SseApiService,
@@ -39,11 +46,28 @@ class LobbyRepositoryImpl @Inject constructor(
     private val poseMapper: YogaPoseMapper
 ) : LobbyRepository {
     //    private val eventListener: EventListener = EventListener()
+    private val sseScope: CoroutineScope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+    private var reconnectJob: Job? = null
+
     private fun startSse(searchText: String, page: Int) {
-        sseApiService.startSse(searchText, page, eventListener)
+        reconnectJob?.cancel()
+        val lastEventId = eventListener.prepare(searchText, page)
+        // 서버가 연결을 닫거나(timeout) 네트워크가 끊기면 jitter 를 둔 지연 후 Last-Event-ID 로 재접속
+        eventListener.onDisconnected = { source ->
+            if (sseApiService.isCurrent(source)) {
+                reconnectJob?.cancel()
+                reconnectJob = sseScope.launch {
+                    delay(RECONNECT_BASE_MS + Random.nextLong(RECONNECT_JITTER_MS))
+                    startSse(searchText, page)
+                }
+            }
+        }
+        sseApiService.startSse(searchText, eventListener.cursorFor(page), lastEventId, eventListener)
     }
 
     override fun stopSse() {
+        reconnectJob?.cancel()
+        eventListener.onDisconnected = null
         sseApiService.stopSse()
     }
 
@@ -178,4 +202,10 @@ class LobbyRepositoryImpl @Inject constructor(
             }
         }.distinctUntilChanged()
     }
-}
\ No newline at end of file
+
+    companion object {
+        // OkHttp EventSource 는 SSE retry 필드를 쓰지 않으므로 서버 기본값(2초 + 0~8초)과 같은 정책을 둠
+        private const val RECONNECT_BASE_MS = 2_000L
+        private const val RECONNECT_JITTER_MS = 8_000L
+    }
+}
@@ -46,8 +46,9 @@ class WebRTCRepositoryImpl @Inject constructor(
                     val destination = determineSignalingDestination() // 메시지 타입과 수신자 ID 기반으로 목적지 결정
 
                     if (destination != null) {
-                        Log.d(TAG, "Sending signaling message of type ${signalingMessage::class.simpleName} to $destination")
-                        webSocketRepository.send(destination, messageJson)
+                        val target = determineSignalingTarget(signalingMessage)
+                        Log.d(TAG, "Sending signaling message of type ${signalingMessage::class.simpleName} to $destination (target: $target)")
+                        webSocketRepository.send(destination, messageJson, target)
                     } else {
                         Log.w(TAG, "Could not determine destination for signaling message: $signalingMessage")
                     }
@@ -221,21 +222,17 @@ class WebRTCRepositoryImpl @Inject constructor(
 
     private fun determineSignalingDestination(): String {
         val roomId = webSocketRepository.getCurrentRoomId() // 현재 방 ID 가져오기
-        val destinationBase = "$roomId"
-        return destinationBase
-        // 메시지 타입에 따라 수신자 ID 가 필요한 경우 toPeerId 를 경로에 추가
-//        return when (message) {
-//            is OfferMessage -> "$destinationBase/${message.toPeerId}"
-//            is AnswerMessage -> "$destinationBase/${message.toPeerId}"
-//            is IceCandidateMessage -> "$destinationBase/${message.toPeerId}"
-//            // 다른 타입의 메시지는 특정 대상이 없을 수 있으므로 기본 목적지 사용 (필요 시)
-//            // 예를 들어, 방 전체에 보내는 메시지가 있다면 다른 경로 사용
-//            else -> {
-//                Log.w(TAG, "Cannot determine specific destination for message type: ${message::class.simpleName}, using base destination $destinationBase")
-//                // 만약 특정 대상 없이 방 전체나 서버로 보내는 메시지라면 기본 목적지 반환 또는 null 반환
-//                null // 혹은 destinationBase 만 반환할 수도 있음 (서버 구현에 따라 다름)
-//            }
-//        }
+        return "$roomId"
+    }
+
+    // offer/answer/ICE 는 받는 피어가 정해져 있으므로 서버가 그 사용자에게만 전달하도록 target 지정
+    private fun determineSignalingTarget(message: SignalingMessage): String? {
+        return when (message) {
+            is OfferMessage -> message.toPeerId
+            is AnswerMessage -> message.toPeerId
+            is IceCandidateMessage -> message.toPeerId
+            else -> null // 방 전체에 보내는 메시지
+        }
     }
 
     private fun mapToDomainState(state: PeerConnection.IceConnectionState): WebRTCConnectionState {
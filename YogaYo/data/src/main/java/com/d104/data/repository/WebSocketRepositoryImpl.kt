@@ -3,6 +3,7 @@ package com.d104.data.repository
 import android.util.Log
 import com.d104.data.local.dao.PreferencesDao
 import com.d104.data.remote.api.WebSocketService
+import com.d104.data.remote.utils.CborCodec
 import com.d104.data.remote.utils.StompUtils
 import com.d104.domain.model.StompErrorException // Keep your exception class if needed
 import com.d104.domain.utils.StompConnectionState
@@ -10,10 +11,15 @@ import com.d104.domain.repository.WebSocketRepository
 import kotlinx.coroutines.*
 import kotlinx.coroutines.channels.awaitClose
 import kotlinx.coroutines.flow.*
+import kotlinx.serialization.json.Json
+import kotlinx.serialization.json.buildJsonObject
+import kotlinx.serialization.json.put
 import okhttp3.Response
 import okhttp3.WebSocket
 import okhttp3.WebSocketListener
+import okio.ByteString
 import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.atomic.AtomicLong // For thread-safe timestamp update
 import javax.inject.Inject
 import javax.inject.Singleton
@@ -27,6 +33,8 @@ class WebSocketRepositoryImpl @Inject constructor(
 
     private val webSocketUrl = "wss://j12d104.p.ssafy.io/ws"
     private val host = "j12d104.p.ssafy.io"
+    // 방마다 WebSocket 을 맡은 서버 주소 (서버가 421 + X-Room-Owner 로 알려 준 값)
+    private val roomOwnerUrls = ConcurrentHashMap<String, String>()
     // --- Heartbeat Configuration ---
     // Client wants 10s outgoing, 10s incoming
     private val CLIENT_OUTGOING_HEARTBEAT = 300000L
@@ -39,6 +47,10 @@ class WebSocketRepositoryImpl @Inject constructor(
     private var currentRoomId: String? = null
     private var currentTopic: String? = null
     private var currentSubscriptionId: String? = null
+    // 나에게만 오는 1:1 시그널링(offer/answer/ICE 등) 구독 ID
+    private var signalSubscriptionId: String? = null
+    // 서버가 CBOR 로 보내기 시작했으면 (CONNECT 협상 성공) 보내는 메시지도 CBOR 로 인코딩
+    @Volatile private var serverSendsCbor = false
 
     private var messageFlow: SharedFlow<String>? = null
     private var messageFlowJob: Job? = null
@@ -83,6 +95,8 @@ class WebSocketRepositoryImpl @Inject constructor(
         currentRoomId = topic
         currentTopic = "/topic/room/$topic"
         currentSubscriptionId = "sub-$topic-${UUID.randomUUID().toString().take(8)}"
+        signalSubscriptionId = "sub-signal-${UUID.randomUUID().toString().take(8)}"
+        serverSendsCbor = false
         messageFlowJob?.cancel() // Cancel previous flow observation job
         stopHeartbeatTimers() // Ensure any stray timers are stopped
 
@@ -91,6 +105,23 @@ class WebSocketRepositoryImpl @Inject constructor(
         // 3. Create channelFlow with internal listener
         val internalFlow = channelFlow<String> {
             val forwardingListener = object : WebSocketListener() {
+                private var redirects = 0
+                // 다른 서버로 옮기며 버린 소켓. 이후 오는 close/failure 콜백은 무시
+                private val retiredSockets = mutableSetOf<WebSocket>()
+
+                // 방 소유 서버로 다시 접속 (ownerUrl 이 없으면 기본 주소로 접속해 핸드셰이크에서 안내받음)
+                private fun reconnectToOwner(from: WebSocket, ownerUrl: String?): Boolean {
+                    if (redirects >= MAX_ROOM_REDIRECTS) return false
+                    redirects++
+                    retiredSockets += from
+                    if (ownerUrl.isNullOrBlank()) roomOwnerUrls.remove(topic) else roomOwnerUrls[topic] = ownerUrl
+                    val url = roomUrl(roomOwnerUrls[topic] ?: webSocketUrl, topic)
+                    Log.i("StompRepo", "Room $topic moved. Reconnecting to $url")
+                    stopHeartbeatTimers()
+                    _connectionState.value = StompConnectionState.CONNECTING
+                    webSocketService.connect(url, this)
+                    return true
+                }
 
                 override fun onOpen(webSocket: WebSocket, response: Response) {
                     Log.d("StompRepo", ">>> WebSocket Opened (forwardingListener). Preparing CONNECT frame...")
@@ -103,7 +134,8 @@ class WebSocketRepositoryImpl @Inject constructor(
                                     host,
                                     token,
                                     CLIENT_OUTGOING_HEARTBEAT, // Client wants to send every 10s
-                                    CLIENT_INCOMING_HEARTBEAT  // Client wants to receive every 10s
+                                    CLIENT_INCOMING_HEARTBEAT, // Client wants to receive every 10s
+                                    CborCodec.CONTENT_TYPE // 방 메시지를 CBOR 로 받겠다고 협상
                                 )
                                 Log.d("StompRepo", ">>> Sending CONNECT frame (Heartbeat requested: $CLIENT_OUTGOING_HEARTBEAT, $CLIENT_INCOMING_HEARTBEAT)")
                                 val sent = webSocketService.send(connectFrame)
@@ -138,38 +170,7 @@ class WebSocketRepositoryImpl @Inject constructor(
                     Log.d("StompRepo", ">>> Received STOMP Frame (forwardingListener): ${text.take(200)}...")
                     try {
                         val (command, headers, body) = StompUtils.parseFrame(text)
-                        Log.d("StompRepo", "Processing Frame: Command=$command, SubId=${headers["subscription"]}")
-
-                        when (command) {
-                            "CONNECTED" -> {
-                                Log.i("StompRepo", "STOMP CONNECTED received. Headers: $headers")
-                                // *** Parse Server Heartbeat Settings ***
-                                parseAndStartHeartbeats(headers["heart-beat"])
-                                _connectionState.value = StompConnectionState.CONNECTED
-                                lastServerPongTimestamp.set(System.currentTimeMillis()) // Initialize pong time on connect
-                                sendSubscriptionFrame(currentTopic!!, currentSubscriptionId!!)
-                            }
-                            "MESSAGE" -> {
-                                if (headers["subscription"] == currentSubscriptionId) {
-                                    Log.d("StompRepo", "Message for current subscription: ${body.take(100)}...")
-                                    // 여기까지 확인
-                                    trySend(body) // Emit message to the flow
-                                } else {
-                                    Log.w("StompRepo", "Ignoring message for other subscription: ${headers["subscription"]}")
-                                }
-                            }
-                            "ERROR" -> {
-                                val errorMessage = "STOMP ERROR: ${headers["message"]} - Body: $body"
-                                Log.e("StompRepo", errorMessage)
-                                // Decide if this error should terminate the flow/connection
-                                // For now, just log it. You might want to call handleConnectionFailure or close the flow.
-                                // close(StompErrorException(errorMessage)) // Optionally close flow on ERROR
-                            }
-                            // Add other command handling if needed (RECEIPT, etc.)
-                            else -> {
-                                Log.d("StompRepo", "Received unhandled STOMP command: $command")
-                            }
-                        }
+                        handleFrame(webSocket, command, headers, body)
                     } catch (e: Exception) {
                         Log.e("StompRepo", "Error parsing STOMP frame in onMessage", e)
                         // Don't close the flow immediately here, let onFailure handle underlying issues
@@ -177,20 +178,90 @@ class WebSocketRepositoryImpl @Inject constructor(
                     }
                 }
 
+                // CBOR 본문 프레임은 바이너리 WebSocket 메시지로 옴. 본문을 JSON 문자열로 바꿔 같은 흐름으로 처리
+                override fun onMessage(webSocket: WebSocket, bytes: ByteString) {
+                    try {
+                        val (command, headers, body) = StompUtils.parseBinaryFrame(bytes.toByteArray())
+                        val text = if (headers["content-type"]?.startsWith(CborCodec.CONTENT_TYPE) == true) {
+                            serverSendsCbor = true
+                            CborCodec.decode(body).toString()
+                        } else {
+                            body.toString(Charsets.UTF_8)
+                        }
+                        handleFrame(webSocket, command, headers, text)
+                    } catch (e: Exception) {
+                        Log.e("StompRepo", "Error parsing binary STOMP frame in onMessage", e)
+                    }
+                }
+
+                private fun handleFrame(webSocket: WebSocket, command: String, headers: Map<String, String>, body: String) {
+                    Log.d("StompRepo", "Processing Frame: Command=$command, SubId=${headers["subscription"]}")
+
+                    when (command) {
+                        "CONNECTED" -> {
+                            Log.i("StompRepo", "STOMP CONNECTED received. Headers: $headers")
+                            // *** Parse Server Heartbeat Settings ***
+                            parseAndStartHeartbeats(headers["heart-beat"])
+                            _connectionState.value = StompConnectionState.CONNECTED
+                            redirects = 0
+                            lastServerPongTimestamp.set(System.currentTimeMillis()) // Initialize pong time on connect
+                            sendSubscriptionFrame(currentTopic!!, currentSubscriptionId!!)
+                            sendSubscriptionFrame(SIGNAL_QUEUE, signalSubscriptionId!!)
+                        }
+                        "MESSAGE" -> {
+                            val subscription = headers["subscription"]
+                            if (subscription == currentSubscriptionId || subscription == signalSubscriptionId) {
+                                Log.d("StompRepo", "Message for current subscription: ${body.take(100)}...")
+                                // 여기까지 확인
+                                trySend(body) // Emit message to the flow
+                            } else {
+                                Log.w("StompRepo", "Ignoring message for other subscription: ${headers["subscription"]}")
+                            }
+                        }
+                        "ERROR" -> {
+                            val errorMessage = "STOMP ERROR: ${headers["message"]} - Body: $body"
+                            Log.e("StompRepo", errorMessage)
+                            // 방 구독이 소유 서버가 아니라서 거절된 경우 ("X-Room-Owner: <url>")
+                            val ownerUrl = headers["message"]
+                                ?.takeIf { it.startsWith("$ROOM_OWNER_HEADER:") }
+                                ?.substringAfter(':')
+                                ?.trim()
+                            if (ownerUrl != null && reconnectToOwner(webSocket, ownerUrl)) {
+                                return
+                            }
+                            // Decide if this error should terminate the flow/connection
+                            // For now, just log it. You might want to call handleConnectionFailure or close the flow.
+                            // close(StompErrorException(errorMessage)) // Optionally close flow on ERROR
+                        }
+                        // Add other command handling if needed (RECEIPT, etc.)
+                        else -> {
+                            Log.d("StompRepo", "Received unhandled STOMP command: $command")
+                        }
+                    }
+                }
+
                 override fun onClosing(webSocket: WebSocket, code: Int, reason: String) {
                     Log.w("StompRepo", ">>> WebSocket Closing (forwardingListener): Code=$code, Reason=$reason")
+                    if (webSocket in retiredSockets) return
+                    // 서버 구성이 바뀌어 방 소유 서버가 옮겨 감
+                    if (code == CLOSE_ROOM_MOVED && reconnectToOwner(webSocket, null)) return
                     handleDisconnect("WebSocket Closing in Flow")
                     close()
                 }
 
                 override fun onClosed(webSocket: WebSocket, code: Int, reason: String) {
                     Log.w("StompRepo", ">>> WebSocket Closed (forwardingListener): Code=$code, Reason=$reason")
+                    if (webSocket in retiredSockets) return
                     handleDisconnect("WebSocket Closed in Flow")
                     close() // Ensure flow is closed
                 }
 
                 override fun onFailure(webSocket: WebSocket, t: Throwable, response: Response?) {
                     Log.e("StompRepo", ">>> WebSocket Failure (forwardingListener)", t)
+                    if (webSocket in retiredSockets) return
+                    if (response?.code == HTTP_MISDIRECTED_REQUEST && reconnectToOwner(webSocket, response.header(ROOM_OWNER_HEADER))) {
+                        return
+                    }
                     handleConnectionFailure(t) // Centralized failure handling (stops timers)
                     close(t) // Close the flow with the error
                 }
@@ -198,7 +269,7 @@ class WebSocketRepositoryImpl @Inject constructor(
 
             // Start WebSocket connection using the internal listener
             Log.d("StompRepo", ">>> Calling webSocketService.connect() with forwardingListener...")
-            webSocketService.connect(webSocketUrl, forwardingListener)
+            webSocketService.connect(roomUrl(roomOwnerUrls[topic] ?: webSocketUrl, topic), forwardingListener)
 
             // Cleanup when the channelFlow is closed (cancelled or completed)
             awaitClose {
@@ -385,15 +456,26 @@ class WebSocketRepositoryImpl @Inject constructor(
 
     // --- Other Methods ---
 
-    override fun send(destination: String, message: String): Boolean {
+    override fun send(destination: String, message: String, target: String?): Boolean {
         if (_connectionState.value != StompConnectionState.CONNECTED) {
             Log.w("StompRepo", "Cannot send message, STOMP not connected.")
             return false
         }
         Log.d("StompRepo", "Sending message to /app/room/$destination: ${message.take(100)}...")
-        val sendFrame = StompUtils.buildSendFrame("/app/room/$destination", message)
-        Log.d("StompRepo", "Sending message to /app/room/$destination: $sendFrame")
-        val success = webSocketService.send(sendFrame)
+        val success = if (serverSendsCbor) {
+            // {"target":..,"payload":..} 을 CBOR 로 인코딩해 바이너리 프레임으로 전송
+            val envelope = buildJsonObject {
+                if (!target.isNullOrBlank()) put("target", target)
+                put("payload", Json.parseToJsonElement(message))
+            }
+            webSocketService.send(
+                StompUtils.buildBinarySendFrame("/app/room/$destination", CborCodec.encode(envelope), CborCodec.CONTENT_TYPE)
+            )
+        } else {
+            val sendFrame = StompUtils.buildSendFrame("/app/room/$destination", message, target)
+            Log.d("StompRepo", "Sending message to /app/room/$destination: $sendFrame")
+            webSocketService.send(sendFrame)
+        }
         if (!success) {
             Log.e("StompRepo", "Failed to send message frame via webSocketService to $destination")
             // Consider if send failure should trigger connection check/error state
@@ -456,6 +538,7 @@ class WebSocketRepositoryImpl @Inject constructor(
         currentRoomId = null
         currentTopic = null
         currentSubscriptionId = null
+        signalSubscriptionId = null
         Log.i("StompRepo", "Connection failure handling complete. State: ${_connectionState.value}")
     }
 
@@ -476,8 +559,22 @@ class WebSocketRepositoryImpl @Inject constructor(
         currentRoomId = null
         currentTopic = null
         currentSubscriptionId = null
+        signalSubscriptionId = null
         _connectionState.value = StompConnectionState.DISCONNECTED // Final state
 
         Log.i("StompRepo", "Disconnect handling complete. State is now DISCONNECTED.")
     }
-}
\ No newline at end of file
+
+    // 서버가 방 소유 서버인지 핸드셰이크에서 판단하도록 roomId 를 붙임
+    private fun roomUrl(baseUrl: String, roomId: String): String = "$baseUrl?roomId=$roomId"
+
+    companion object {
+        // 서버가 target 지정 메시지를 보내는 사용자별 queue
+        private const val SIGNAL_QUEUE = "/user/queue/signal"
+        private const val ROOM_OWNER_HEADER = "X-Room-Owner"
+        private const val HTTP_MISDIRECTED_REQUEST = 421
+        private const val MAX_ROOM_REDIRECTS = 2
+        // 1012 Service Restart: 서버가 방 소유권 이동으로 연결을 닫음
+        private const val CLOSE_ROOM_MOVED = 1012
+    }
+}
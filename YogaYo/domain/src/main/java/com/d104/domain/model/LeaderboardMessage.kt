@@ -0,0 +1,25 @@
+package com.d104.domain.model
+
+import kotlinx.serialization.SerialName
+import kotlinx.serialization.Serializable
+
+// 서버가 방 topic 으로 주기적으로 보내는 점수판 snapshot. ranks 는 라운드 순위 순서
+@Serializable
+@SerialName("leaderboard")
+data class LeaderboardMessage(
+    val round: Int,
+    val roundOver: Boolean = false,
+    val finished: Boolean = false,
+    val ranks: List<LeaderboardEntry> = emptyList(),
+    override val type: String = "leaderboard",
+    override val fromPeerId: String = "server"
+) : SignalingMessage()
+
+@Serializable
+data class LeaderboardEntry(
+    val id: String,
+    val time: Float,
+    val total: Int,
+    val rank: Int,
+    val totalRank: Int
+)
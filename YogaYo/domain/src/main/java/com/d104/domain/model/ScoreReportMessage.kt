@@ -0,0 +1,15 @@
+package com.d104.domain.model
+
+import kotlinx.serialization.SerialName
+import kotlinx.serialization.Serializable
+
+// 라운드 점수를 서버 점수판으로만 보냄 (서버가 방에 중계하지 않고 leaderboard 로 내보냄)
+@Serializable
+@SerialName("score_report")
+data class ScoreReportMessage(
+    val round: Int,
+    val time: Float,
+    val accuracy: Float,
+    override val type: String = "score_report",
+    override val fromPeerId: String
+) : SignalingMessage()
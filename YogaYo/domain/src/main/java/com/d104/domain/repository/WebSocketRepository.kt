@@ -9,6 +9,7 @@ interface WebSocketRepository {
     val connectionState: StateFlow<StompConnectionState>
     suspend fun connect(topic: String) : Flow<String>
     fun disconnect()
-    fun send(destination:String, message: String) : Boolean
+    // target 이 있으면 방 전체가 아니라 그 사용자에게만 전달됨 (서버가 /user/queue/signal 로 라우팅)
+    fun send(destination:String, message: String, target: String? = null) : Boolean
     fun getCurrentRoomId(): String?
 }
\ No newline at end of file
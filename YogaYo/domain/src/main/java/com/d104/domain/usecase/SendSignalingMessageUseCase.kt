@@ -3,6 +3,7 @@ package com.d104.domain.usecase
 import com.d104.domain.model.EndRoundMessage
 import com.d104.domain.model.GameStateMessage
 import com.d104.domain.model.RequestPhotoMessage
+import com.d104.domain.model.ScoreReportMessage
 import com.d104.domain.model.SignalingMessage
 import com.d104.domain.model.TotalScoreMessage
 import com.d104.domain.model.UserJoinedMessage
@@ -26,6 +27,8 @@ class SendSignalingMessageUseCase @Inject constructor(
         round: Int = -1,
         toPeerId: String = "",
         score: Int = 0,
+        time: Float = 0f,
+        accuracy: Float = 0f,
     ): Boolean { // 반환 타입을 Boolean으로 변경하여 성공 여부 전달
         return try {
             val user = dataStoreRepository.getUser().first() ?: run {
@@ -105,6 +108,15 @@ class SendSignalingMessageUseCase @Inject constructor(
                     )
                 }
 
+                9 -> { // 라운드 점수 (서버 점수판)
+                    messageToSend = ScoreReportMessage(
+                        round = round,
+                        time = time,
+                        accuracy = accuracy,
+                        fromPeerId = fromPeerId
+                    )
+                }
+
                 else -> {
                     // 알 수 없는 타입 처리
                     return false // 알 수 없는 타입이면 실패 반환
@@ -113,8 +125,10 @@ class SendSignalingMessageUseCase @Inject constructor(
 
             // 생성된 메시지 객체를 JSON으로 직렬화 (다형성 사용)
             val messageJson = json.encodeToString(SignalingMessage.serializer(), messageToSend)
+            // 사진 요청은 받는 사람에게만 전달. total_score 의 toPeerId 는 점수 주인이라 방 전체로 보냄
+            val target = if (messageToSend is RequestPhotoMessage) toPeerId else null
             // WebSocket으로 전송
-            val success = webSocketRepository.send(destination, messageJson)
+            val success = webSocketRepository.send(destination, messageJson, target)
             success // 최종 전송 성공 여부 반환
 
         } catch (e: Exception) {
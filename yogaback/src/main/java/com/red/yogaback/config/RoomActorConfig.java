@@ -0,0 +1,39 @@
+package com.red.yogaback.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class RoomActorConfig {
+
+    // 방 액터 메시지 처리 워커. 방마다 한 번에 하나의 워커만 사용하므로 방이 많을수록 코어 수만큼 병렬 처리
+    // 종료 시 의존하는 쪽이 먼저 정리되므로, 워커가 남은 메시지를 처리하고 멈춘 뒤에 RoomStateWriter 가 마지막 flush 를 한다
+    @Bean("roomActorExecutor")
+    @DependsOn("roomStateWriter")
+    public TaskExecutor roomActorExecutor(@Value("${room.actor.workers:0}") int workers) {
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("room-actor-");
+        // 처리 중인 drain 이 스냅샷을 write-behind 에 넘길 때까지 기다림
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    // write-behind 가 batch-size 에 도달했을 때 주기를 기다리지 않고 flush 하는 워커. flush 는 한 번에 하나만 실행됨
+    @Bean("roomFlushExecutor")
+    public TaskExecutor roomFlushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("room-flush-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
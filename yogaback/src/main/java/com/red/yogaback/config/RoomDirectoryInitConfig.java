@@ -0,0 +1,21 @@
+package com.red.yogaback.config;
+
+import com.red.yogaback.service.RoomService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Profile({"local", "prod"})
+public class RoomDirectoryInitConfig implements ApplicationRunner {
+
+    private final RoomService roomService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        roomService.rebuildRoomDirectory();
+    }
+}
@@ -0,0 +1,30 @@
+package com.red.yogaback.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class SchedulingConfig {
+
+    // @Scheduled 기본 스케줄러. TaskScheduler 빈이 여럿이면 이름이 taskScheduler 인 빈을 쓰고, 없으면 단일 스레드로 떨어져
+    // 보관(RoomArchiver)처럼 오래 걸리는 작업이 write-behind flush, 클러스터 heartbeat 같은 짧은 주기 작업을 막는다
+    @Bean("taskScheduler")
+    public TaskScheduler taskScheduler(@Value("${scheduling.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduled-");
+        return scheduler;
+    }
+
+    // 점수판 tick 전용. 200ms 주기라 다른 작업에 밀리면 점수판이 늦게 보임
+    @Bean("leaderboardTickScheduler")
+    public TaskScheduler leaderboardTickScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("leaderboard-tick-");
+        return scheduler;
+    }
+}
@@ -0,0 +1,35 @@
+package com.red.yogaback.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SseConfig {
+
+    // 로비 SSE 전송 전용 워커. 요청/STOMP 스레드는 큐에 넣기만 하고 실제 send 는 여기서 수행
+    @Bean("sseFanoutExecutor")
+    public TaskExecutor sseFanoutExecutor(@Value("${lobby.sse.fanout.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("sse-fanout-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // 로비 변경 coalescing 윈도우 만료 시 flush 를 실행하는 스케줄러
+    @Bean("lobbyCoalesceScheduler")
+    public TaskScheduler lobbyCoalesceScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("lobby-coalesce-");
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+}
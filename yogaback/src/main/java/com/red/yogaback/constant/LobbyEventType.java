@@ -0,0 +1,21 @@
+package com.red.yogaback.constant;
+
+import lombok.Getter;
+
+/**
+ * 로비 SSE 스트림으로 내려가는 이벤트 종류.
+ * eventName 은 SSE 의 event 필드로 그대로 사용된다.
+ */
+@Getter
+public enum LobbyEventType {
+    SNAPSHOT("snapshot"),          // 현재 활성 방 전체 목록
+    ROOM_ADDED("room_added"),      // 방 생성
+    ROOM_UPDATED("room_updated"),  // 인원 변경 등
+    ROOM_REMOVED("room_removed");  // 방 종료 (roomState 0)
+
+    private final String eventName;
+
+    LobbyEventType(String eventName) {
+        this.eventName = eventName;
+    }
+}
@@ -3,19 +3,23 @@ package com.red.yogaback.controller;
 
 import com.red.yogaback.dto.request.RoomEnterReq;
 import com.red.yogaback.dto.request.RoomRequest;
+import com.red.yogaback.dto.respond.RoomRoute;
 import com.red.yogaback.security.SecurityUtil;
+import com.red.yogaback.service.LobbyCursor;
 import com.red.yogaback.service.RoomService;
 import com.red.yogaback.service.SseEmitterService;
+import com.red.yogaback.websocket.service.RoomRouter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
-
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/multi")
@@ -25,6 +29,13 @@ public class RoomController {
 
     private final RoomService roomService;
     private final SseEmitterService sseEmitterService;
+    private final RoomRouter roomRouter;
+
+    @Value("${lobby.page-size.default:20}")
+    private int defaultPageSize;
+
+    @Value("${lobby.page-size.max:100}")
+    private int maxPageSize;
 
     @PostMapping("/lobby")
     @Operation(summary = "방 생성")
@@ -35,11 +46,26 @@ public class RoomController {
     }
 
     @GetMapping("/lobby")
-    @Operation(summary = "방 조회 / SSE 연결")
+    @Operation(summary = "방 조회 / SSE 연결", description = "cursor(createdAt_roomId) 이후 size 개 방의 snapshot 과 nextCursor 를 보내고, 이후 그 페이지에 해당하는 room_added / room_updated / room_removed delta 를 전송. Last-Event-ID 로 재접속 시 놓친 이벤트만 재전송")
     public SseEmitter getAllRooms(@RequestParam("roomName") String roomName,
-                                  @RequestParam("page") String page) {
-        List<RoomRequest> allRooms = roomService.getAllRooms(roomName);
-        return sseEmitterService.subscribe(allRooms);
+                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                  @RequestParam(value = "size", required = false) Integer size,
+                                  @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        LobbyCursor lobbyCursor;
+        try {
+            lobbyCursor = LobbyCursor.parse(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        return sseEmitterService.subscribe(roomName, lobbyCursor, pageSize, lastEventId,
+                () -> roomService.getLobbyPage(roomName, lobbyCursor, pageSize));
+    }
+
+    @GetMapping("/lobby/{roomId}/route")
+    @Operation(summary = "방 소유 서버 조회", description = "방의 WebSocket 연결을 맡은 서버(nodeId, wsUrl). 클라이언트는 wsUrl 로 접속")
+    public ResponseEntity<RoomRoute> getRoomRoute(@PathVariable("roomId") Long roomId) {
+        return ResponseEntity.ok(roomRouter.route(String.valueOf(roomId)));
     }
 
     @PostMapping("lobby/enter")
@@ -21,6 +21,7 @@ public class RoomRequest {
     private String userNickname;
     private String roomName;
     private String password;
+    private Long createdAt;
 
     @JsonProperty("hasPassword")
     private boolean hasPassword;
@@ -0,0 +1,25 @@
+package com.red.yogaback.dto.respond;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.red.yogaback.dto.request.RoomRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 로비 SSE 로 전송되는 단일 방 변경(delta) 이벤트.
+ * seq 는 단조 증가하며 SSE id 로도 내려가 Last-Event-ID 재접속에 사용된다.
+ * room_removed 이벤트는 room 없이 roomId 만 가진다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LobbyEvent {
+    private long seq;
+    private String type;
+    private Long roomId;
+    private RoomRequest room;
+}
@@ -0,0 +1,21 @@
+package com.red.yogaback.dto.respond;
+
+import com.red.yogaback.dto.request.RoomRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 로비 snapshot 이벤트 데이터. nextCursor 가 null 이면 마지막 페이지.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyPage {
+    private List<RoomRequest> rooms;
+    private String nextCursor;
+}
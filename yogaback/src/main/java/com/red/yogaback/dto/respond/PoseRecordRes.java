@@ -27,7 +27,7 @@ public class PoseRecordRes {
         return PoseRecordRes.builder()
                 .poseRecordId(entity.getPoseRecordId())
                 .poseId(entity.getPose().getPoseId())
-                .roomId(entity.getRoom() == null ? null : entity.getRoom().getRoomId())
+                .roomId(entity.getRoom() == null ? entity.getArchivedRoomId() : entity.getRoom().getRoomId())
                 .accuracy(entity.getAccuracy())
                 .ranking(entity.getRanking())
                 .poseTime(entity.getPoseTime())
@@ -0,0 +1,18 @@
+package com.red.yogaback.dto.respond;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 방을 맡은 서버. 클라이언트는 wsUrl 로 WebSocket 에 접속합니다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomRoute {
+    private String nodeId;
+    private String wsUrl;
+}
@@ -0,0 +1,23 @@
+package com.red.yogaback.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 살아 있는 서버 목록 (방 라우팅용). 각 서버가 주기적으로 lastSeenAt 을 갱신합니다.
+ */
+@Entity
+@Table(name = "ClusterNode")
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class ClusterNode {
+
+    @Id
+    private String nodeId;          // node_id
+
+    private String wsUrl;           // ws_url
+    private long lastSeenAt;        // last_seen_at
+}
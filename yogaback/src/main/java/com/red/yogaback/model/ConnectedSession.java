@@ -0,0 +1,47 @@
+package com.red.yogaback.model;
+
+import com.red.yogaback.websocket.service.SessionRecord;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 클러스터 공유 WebSocket 세션 (websocket.session.registry=shared 일 때 JpaSessionStore 가 사용).
+ */
+@Entity
+@Table(name = "ConnectedSession", indexes = {
+        @Index(name = "idx_connected_session_user", columnList = "user_id"),
+        @Index(name = "idx_connected_session_room", columnList = "room_id"),
+        @Index(name = "idx_connected_session_expires", columnList = "expires_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class ConnectedSession {
+
+    @Id
+    private String sessionId;       // session_id
+
+    private String nodeId;          // node_id
+    private String userId;          // user_id
+    private String roomId;          // room_id
+    private String userNickName;    // user_nick_name
+    private String userProfile;     // user_profile
+    private long expiresAt;         // expires_at
+
+    public static ConnectedSession from(SessionRecord record) {
+        return ConnectedSession.builder()
+                .sessionId(record.sessionId())
+                .nodeId(record.nodeId())
+                .userId(record.userId())
+                .roomId(record.roomId())
+                .userNickName(record.userNickName())
+                .userProfile(record.userProfile())
+                .expiresAt(record.expiresAt())
+                .build();
+    }
+
+    public SessionRecord toRecord() {
+        return new SessionRecord(sessionId, nodeId, userId, roomId, userNickName, userProfile, expiresAt);
+    }
+}
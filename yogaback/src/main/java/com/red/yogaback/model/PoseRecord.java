@@ -27,6 +27,9 @@ public class PoseRecord {
     @JoinColumn(name = "room_id", nullable = true)
     private Room room;
 
+    // 방이 RoomArchiver 로 보관되면 room 은 비우고 원래 room_id 를 여기에 남김
+    private Long archivedRoomId; // archived_room_id
+
     // 자세 기록은 반드시 하나의 Pose와 연관됨
     @ManyToOne
     @JoinColumn(name = "pose_id", nullable = false)
@@ -2,11 +2,15 @@ package com.red.yogaback.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 
 @Entity
-@Table(name = "Room")
+// (room_state, room_id): 기동 시 활성 방 재구성, RoomArchiver 의 보관 대상 keyset 조회
+@Table(name = "Room", indexes = @Index(name = "idx_room_state_id", columnList = "room_state, room_id"))
+// roomCount/roomState 는 조건부 UPDATE 로만 바뀌므로, 다른 필드 저장 시 오래된 값으로 덮어쓰지 않도록 변경된 컬럼만 UPDATE
+@DynamicUpdate
 @Getter
 @Setter
 @Builder
@@ -0,0 +1,33 @@
+package com.red.yogaback.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 닫힌 지 오래된 방의 보관용 사본. RoomArchiver 가 Room 에서 옮겨 오므로 id 는 원래 room_id 를 그대로 쓴다.
+ */
+@Entity
+@Table(name = "RoomArchive")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class RoomArchive {
+
+    @Id
+    private Long roomId;            // room_id
+
+    private String password;        // password
+    private int roomMax;            // room_max
+    private int roomCount;          // room_count
+    private String roomName;        // room_name
+
+    @Column(columnDefinition = "TINYINT(1)")
+    private Boolean hasPassword;    // has_password
+
+    private Long createdAt;         // created_at
+    private Long deletedAt;         // deleted_at
+    private Long roomState;         // room_state
+    private Long creatorId;         // creator_id
+    private Long archivedAt;        // archived_at
+}
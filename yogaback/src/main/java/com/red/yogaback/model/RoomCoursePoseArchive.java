@@ -0,0 +1,28 @@
+package com.red.yogaback.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 보관된 방(RoomArchive)의 코스 포즈 사본. FK 없이 id 만 들고 있다.
+ */
+@Entity
+@Table(name = "RoomCoursePoseArchive", indexes = @Index(name = "idx_room_course_pose_archive_room", columnList = "room_id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class RoomCoursePoseArchive {
+
+    @Id
+    private Long roomCoursePoseId;  // room_course_pose_id
+
+    private Long roomId;            // room_id
+    private Long poseId;            // pose_id
+
+    @Column(name = "room_order_Index")
+    private int roomOrderIndex;     // room_order_Index
+
+    private Long createdAt;         // created_at
+    private Long archivedAt;        // archived_at
+}
@@ -0,0 +1,34 @@
+package com.red.yogaback.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 게임이 끝난 방의 서버 집계 순위 (RoomRankWriter 가 저장).
+ * 점수판은 방 소유 노드의 메모리에만 있으므로, 다른 노드로 온 PoseRecord / RoomRecord 저장 요청은 여기서 순위를 읽습니다.
+ * roundIndex 가 TOTAL_ROUND 인 행은 최종 순위와 누적 점수, 나머지는 그 라운드 포즈의 순위입니다.
+ */
+@Entity
+@Table(name = "RoomRank", indexes = {
+        @Index(name = "idx_room_rank_room_user", columnList = "room_id, user_id")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class RoomRank {
+
+    public static final int TOTAL_ROUND = -1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long roomRankId;        // room_rank_id
+
+    private Long roomId;            // room_id
+    private Long userId;            // user_id
+    private int roundIndex;         // round_index
+    private Long poseId;            // pose_id (최종 순위 행은 null)
+    private Integer ranking;        // ranking
+    private Integer totalScore;     // total_score (최종 순위 행만)
+    private Long createdAt;         // created_at
+}
@@ -29,6 +29,8 @@ public class RoomRecord {
     private Integer totalRanking;   // total_ranking
     private Integer totalScore;     // total_score
     private Long createdAt;         // created_at
+    // 서버 집계 순위로 확정됐는지 (rank_confirmed). 확정될 때 한 번만 roomWin 에 반영
+    private Boolean rankConfirmed;
 
 //    // 한 방 기록에는 여러 PoseRecord가 있을 수 있음
 //    @OneToMany(mappedBy = "room")
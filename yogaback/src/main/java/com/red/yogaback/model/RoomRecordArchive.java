@@ -0,0 +1,30 @@
+package com.red.yogaback.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 보관된 방(RoomArchive)의 방 기록 사본. RoomRecord 는 room_id 가 NOT NULL FK 라 방과 함께 옮긴다. FK 없이 id 만 들고 있다.
+ */
+@Entity
+@Table(name = "RoomRecordArchive", indexes = {
+        @Index(name = "idx_room_record_archive_room", columnList = "room_id"),
+        @Index(name = "idx_room_record_archive_user", columnList = "user_id")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class RoomRecordArchive {
+
+    @Id
+    private Long roomRecordId;      // room_record_id
+
+    private Long userId;            // user_id
+    private Long roomId;            // room_id
+    private Integer totalRanking;   // total_ranking
+    private Integer totalScore;     // total_score
+    private Long createdAt;         // created_at
+    private Boolean rankConfirmed;  // rank_confirmed
+    private Long archivedAt;        // archived_at
+}
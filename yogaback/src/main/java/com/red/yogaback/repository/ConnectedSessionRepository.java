@@ -0,0 +1,44 @@
+package com.red.yogaback.repository;
+
+import com.red.yogaback.model.ConnectedSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ConnectedSessionRepository extends JpaRepository<ConnectedSession, String> {
+
+    @Modifying
+    @Query("delete from ConnectedSession s where s.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") String sessionId);
+
+    @Modifying
+    @Query("update ConnectedSession s set s.expiresAt = :expiresAt where s.sessionId = :sessionId")
+    int extend(@Param("sessionId") String sessionId, @Param("expiresAt") long expiresAt);
+
+    @Query("select s.sessionId from ConnectedSession s where s.userId = :userId and s.expiresAt > :now")
+    List<String> findLiveSessionIdsByUserId(@Param("userId") String userId, @Param("now") long now);
+
+    @Query("select s.sessionId from ConnectedSession s where s.roomId = :roomId and s.expiresAt > :now")
+    List<String> findLiveSessionIdsByRoomId(@Param("roomId") String roomId, @Param("now") long now);
+
+    @Query("select distinct s.roomId from ConnectedSession s where s.roomId is not null and s.roomId <> '' and s.expiresAt > :now")
+    List<String> findLiveRoomIds(@Param("now") long now);
+
+    @Query("select s.sessionId from ConnectedSession s where s.expiresAt <= :now order by s.expiresAt")
+    List<String> findExpiredSessionIds(@Param("now") long now, Pageable pageable);
+
+    // 아직 만료 상태일 때만 가져감 (동시에 여러 서버가 시도해도 1건만 성공)
+    @Modifying
+    @Query("update ConnectedSession s set s.expiresAt = :claimedUntil, s.nodeId = :nodeId "
+            + "where s.sessionId = :sessionId and s.expiresAt <= :now")
+    int claimExpired(@Param("sessionId") String sessionId,
+                     @Param("now") long now,
+                     @Param("claimedUntil") long claimedUntil,
+                     @Param("nodeId") String nodeId);
+}
@@ -1,12 +1,19 @@
 package com.red.yogaback.repository;
 
 import com.red.yogaback.model.RoomCoursePose;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface RoomCoursePoseRepository extends JpaRepository<RoomCoursePose, Long> {
     // roomId 기준으로 해당 RoomCoursePose들을 조회
+    @EntityGraph(attributePaths = {"pose", "room"})
     List<RoomCoursePose> findByRoom_RoomId(Long roomId);
+
+    // 로비 한 페이지의 방들 코스를 한 번에 조회
+    @EntityGraph(attributePaths = {"pose", "room"})
+    List<RoomCoursePose> findByRoom_RoomIdIn(Collection<Long> roomIds);
 }
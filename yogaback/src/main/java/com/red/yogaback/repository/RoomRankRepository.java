@@ -0,0 +1,16 @@
+package com.red.yogaback.repository;
+
+import com.red.yogaback.model.RoomRank;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RoomRankRepository extends JpaRepository<RoomRank, Long> {
+
+    Optional<RoomRank> findByRoomIdAndUserIdAndRoundIndex(Long roomId, Long userId, int roundIndex);
+
+    // 같은 포즈가 코스에 여러 번 있으면 마지막 라운드 기준 (점수판 조회와 같음)
+    Optional<RoomRank> findFirstByRoomIdAndUserIdAndPoseIdOrderByRoundIndexDesc(Long roomId, Long userId, Long poseId);
+}
@@ -3,7 +3,10 @@ package com.red.yogaback.repository;
 import com.red.yogaback.model.RoomRecord;
 import com.red.yogaback.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,4 +15,11 @@ public interface RoomRecordRepository extends JpaRepository<RoomRecord,Long> {
     List<RoomRecord> findByUser(User user);
 
     int countByUser(User user);
+
+    // 아직 확정되지 않은 기록만 서버 순위로 확정 (RoomRankWriter 가 먼저 확정했으면 0)
+    @Modifying
+    @Transactional
+    @Query("UPDATE RoomRecord r SET r.totalRanking = :totalRanking, r.totalScore = :totalScore, r.rankConfirmed = true " +
+            "WHERE r.roomRecordId = :roomRecordId AND (r.rankConfirmed IS NULL OR r.rankConfirmed = false)")
+    int confirmRank(Long roomRecordId, Integer totalRanking, Integer totalScore);
 }
@@ -3,7 +3,10 @@ package com.red.yogaback.repository;
 import com.red.yogaback.model.Room;
 import com.red.yogaback.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,5 +17,24 @@ public interface RoomRepository extends JpaRepository<Room,Long> {
 
     List<Room> findByRoomNameContaining(String name);
 
+    List<Room> findByRoomState(Long roomState);
+
     Room findByUsersContaining(User user);
+
+    // 자리가 남아 있는 열린 방일 때만 인원 +1 (0 이면 만석 또는 닫힌 방)
+    @Modifying
+    @Transactional
+    @Query("UPDATE Room r SET r.roomCount = r.roomCount + 1 WHERE r.roomId = :roomId AND r.roomCount < r.roomMax AND r.roomState = 1")
+    int incrementRoomCount(Long roomId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Room r SET r.roomCount = r.roomCount - 1 WHERE r.roomId = :roomId AND r.roomCount > 0")
+    int decrementRoomCount(Long roomId);
+
+    // 그 사이 다른 사람이 들어오지 않았을 때만 닫음
+    @Modifying
+    @Transactional
+    @Query("UPDATE Room r SET r.roomState = 0 WHERE r.roomId = :roomId AND r.roomCount = 0 AND r.roomState = 1")
+    int closeIfEmpty(Long roomId);
 }
@@ -0,0 +1,46 @@
+package com.red.yogaback.service;
+
+/**
+ * 로비 keyset 페이지네이션 커서. (createdAt, roomId) 순으로 정렬하며
+ * 문자열 형식은 "{createdAt}_{roomId}" 이다.
+ */
+public record LobbyCursor(long createdAt, long roomId) implements Comparable<LobbyCursor> {
+
+    public static LobbyCursor of(Long createdAt, Long roomId) {
+        return new LobbyCursor(createdAt == null ? 0L : createdAt, roomId);
+    }
+
+    // null 또는 빈 문자열이면 첫 페이지 (null)
+    public static LobbyCursor parse(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        int separator = cursor.indexOf('_');
+        if (separator < 0) {
+            throw new IllegalArgumentException("잘못된 커서 형식입니다: " + cursor);
+        }
+        try {
+            return new LobbyCursor(
+                    Long.parseLong(cursor.substring(0, separator)),
+                    Long.parseLong(cursor.substring(separator + 1))
+            );
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 커서 형식입니다: " + cursor, e);
+        }
+    }
+
+    public boolean isAfter(LobbyCursor other) {
+        return other == null || compareTo(other) > 0;
+    }
+
+    @Override
+    public int compareTo(LobbyCursor other) {
+        int byCreatedAt = Long.compare(createdAt, other.createdAt);
+        return byCreatedAt != 0 ? byCreatedAt : Long.compare(roomId, other.roomId);
+    }
+
+    @Override
+    public String toString() {
+        return createdAt + "_" + roomId;
+    }
+}
@@ -0,0 +1,174 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.constant.LobbyEventType;
+import com.red.yogaback.dto.request.RoomRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * 로비 변경을 짧은 윈도우 동안 모아 방마다 하나의 delta 로 합쳐 SseEmitterService 로 보낸다.
+ * 변경이 계속 들어오면 윈도우가 연장되지만, 첫 변경 이후 max-latency 를 넘기지는 않는다.
+ *
+ * 합치기 규칙 (같은 roomId)
+ *  - added → updated      : added (최신 상태)
+ *  - added → removed      : 전송 안 함 (로비에 보인 적 없음)
+ *  - updated → removed    : removed
+ *  - 그 외                 : 마지막 변경
+ */
+@Slf4j
+@Component
+public class LobbyUpdateCoalescer {
+
+    private final SseEmitterService sseEmitterService;
+    private final TaskScheduler scheduler;
+    private final long windowMillis;
+    private final long maxLatencyMillis;
+    private final LongSupplier clock;
+
+    private final Object lock = new Object();
+    private Map<Long, PendingChange> pending = new LinkedHashMap<>();
+    private long firstChangeAt;
+    private long flushAt;
+    private ScheduledFuture<?> flushTask;
+
+    private final Counter rawChangeCounter;
+    private final Counter emittedCounter;
+    private final DistributionSummary foldedSummary;
+
+    @Autowired
+    public LobbyUpdateCoalescer(SseEmitterService sseEmitterService,
+                                @Qualifier("lobbyCoalesceScheduler") TaskScheduler scheduler,
+                                MeterRegistry meterRegistry,
+                                @Value("${lobby.sse.coalesce.window-ms:100}") long windowMillis,
+                                @Value("${lobby.sse.coalesce.max-latency-ms:300}") long maxLatencyMillis) {
+        this(sseEmitterService, scheduler, meterRegistry, windowMillis, maxLatencyMillis, System::currentTimeMillis);
+    }
+
+    LobbyUpdateCoalescer(SseEmitterService sseEmitterService, TaskScheduler scheduler, MeterRegistry meterRegistry,
+                         long windowMillis, long maxLatencyMillis, LongSupplier clock) {
+        this.sseEmitterService = sseEmitterService;
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+        this.maxLatencyMillis = Math.max(windowMillis, maxLatencyMillis);
+        this.clock = clock;
+
+        this.rawChangeCounter = meterRegistry.counter("lobby.coalesce.changes");
+        this.emittedCounter = meterRegistry.counter("lobby.coalesce.emitted");
+        this.foldedSummary = DistributionSummary.builder("lobby.coalesce.folded")
+                .description("emit 된 delta 하나에 합쳐진 원본 변경 수")
+                .register(meterRegistry);
+    }
+
+    public void roomAdded(RoomRequest room) {
+        submit(room.getRoomId(), LobbyEventType.ROOM_ADDED, room);
+    }
+
+    public void roomUpdated(RoomRequest room) {
+        submit(room.getRoomId(), LobbyEventType.ROOM_UPDATED, room);
+    }
+
+    public void roomRemoved(Long roomId) {
+        submit(roomId, LobbyEventType.ROOM_REMOVED, null);
+    }
+
+    private void submit(Long roomId, LobbyEventType type, RoomRequest room) {
+        rawChangeCounter.increment();
+        if (windowMillis <= 0) {
+            emit(new PendingChange(roomId, type, room, 1));
+            return;
+        }
+        synchronized (lock) {
+            long now = clock.getAsLong();
+            if (pending.isEmpty()) {
+                firstChangeAt = now;
+            }
+            PendingChange merged = merge(pending.get(roomId), roomId, type, room);
+            if (merged == null) {
+                pending.remove(roomId);
+            } else {
+                pending.put(roomId, merged);
+            }
+            scheduleFlush(now);
+        }
+    }
+
+    private PendingChange merge(PendingChange previous, Long roomId, LobbyEventType type, RoomRequest room) {
+        if (previous == null) {
+            return new PendingChange(roomId, type, room, 1);
+        }
+        int folded = previous.folded() + 1;
+        if (previous.type() == LobbyEventType.ROOM_ADDED) {
+            if (type == LobbyEventType.ROOM_REMOVED) {
+                return null;
+            }
+            return new PendingChange(roomId, LobbyEventType.ROOM_ADDED, room, folded);
+        }
+        return new PendingChange(roomId, type, room, folded);
+    }
+
+    // lock 안에서 호출. 윈도우를 now + window 로 늦추되 firstChangeAt + maxLatency 는 넘기지 않음
+    private void scheduleFlush(long now) {
+        long due = Math.min(now + windowMillis, firstChangeAt + maxLatencyMillis);
+        if (flushTask != null) {
+            if (due <= flushAt) {
+                return;
+            }
+            flushTask.cancel(false);
+        }
+        flushAt = due;
+        flushTask = scheduler.schedule(this::flush, Instant.ofEpochMilli(due));
+    }
+
+    public void flush() {
+        Map<Long, PendingChange> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            flushTask = null;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        batch.values().forEach(this::emit);
+        log.debug("로비 변경 flush: 방 {}개", batch.size());
+    }
+
+    private void emit(PendingChange change) {
+        try {
+            switch (change.type()) {
+                case ROOM_ADDED -> sseEmitterService.publishRoomAdded(change.room());
+                case ROOM_UPDATED -> sseEmitterService.publishRoomUpdated(change.room());
+                case ROOM_REMOVED -> sseEmitterService.publishRoomRemoved(change.roomId());
+                default -> {
+                    return;
+                }
+            }
+            emittedCounter.increment();
+            foldedSummary.record(change.folded());
+        } catch (RuntimeException e) {
+            log.error("로비 변경 전송 실패: roomId = {}", change.roomId(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private record PendingChange(Long roomId, LobbyEventType type, RoomRequest room, int folded) {
+    }
+}
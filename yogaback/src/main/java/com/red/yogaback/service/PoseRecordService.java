@@ -41,6 +41,7 @@ public class PoseRecordService {
     private final RoomRepository roomRepository; // 새로 주입받음
     private final S3FileStorageService s3FileStorageService;
     private final BadgeService badgeService;
+    private final RoomLeaderboards roomLeaderboards;
 
     /**
      * [POST] /api/yoga/history/{poseId}
@@ -72,7 +73,13 @@ public class PoseRecordService {
         }
 
         // 솔로 모드일 경우 ranking은 무조건 null 처리
-        Integer ranking = (room == null) ? null : request.getRanking();
+        // 멀티 모드는 서버 순위를 우선 사용 (이 노드의 점수판, 없으면 저장된 최종 결과)
+        // 둘 다 없으면 클라이언트가 보낸 값으로 저장하고, 게임 종료 후 RoomRankWriter 가 서버 순위로 고침
+        Integer ranking = null;
+        if (room != null) {
+            Integer serverRanking = roomLeaderboards.poseRanking(room.getRoomId(), userId, poseId);
+            ranking = serverRanking != null ? serverRanking : request.getRanking();
+        }
 
         String recordImgUrl = null;
         if (recordImg != null && !recordImg.isEmpty()) {
@@ -0,0 +1,146 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.repository.RoomRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * 방 상태 변경을 방마다 하나의 mailbox 로 직렬화하는 액터.
+ * 같은 방의 메시지는 항상 순서대로 한 번에 하나씩 처리되고, 서로 다른 방은 roomActorExecutor 워커에서 병렬로 처리된다.
+ * 직렬화는 이 노드 안에서만 보장되므로, 좌석 수처럼 노드 간에 맞아야 하는 값은 액터 안에서도 DB 의 조건부 UPDATE(RoomSeats)로 정한다.
+ * 열림 여부(RoomState)는 메모리에 두고, 닫힌 경우 스냅샷을 RoomStateWriter(write-behind)에 넘겨 모아서 DB 에 반영한다.
+ */
+@Slf4j
+@Component
+public class RoomActors {
+
+    private final Map<Long, RoomActor> actors = new ConcurrentHashMap<>();
+
+    private final TaskExecutor actorExecutor;
+    private final RoomStateWriter roomStateWriter;
+    private final RoomRepository roomRepository;
+    private final int batchSize;
+
+    public RoomActors(@Qualifier("roomActorExecutor") TaskExecutor actorExecutor,
+                      RoomStateWriter roomStateWriter,
+                      RoomRepository roomRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${room.actor.batch-size:64}") int batchSize) {
+        this.actorExecutor = actorExecutor;
+        this.roomStateWriter = roomStateWriter;
+        this.roomRepository = roomRepository;
+        this.batchSize = batchSize;
+
+        Gauge.builder("room.actor.active", actors, Map::size).register(meterRegistry);
+        Gauge.builder("room.actor.mailbox.depth.max", this, RoomActors::maxMailboxDepth).register(meterRegistry);
+    }
+
+    /**
+     * roomId 방의 액터에서 mutation 을 실행한다. 결과는 액터 스레드에서 완료된다.
+     * mutation 안에서는 다른 방 액터의 결과를 기다리면 안 된다 (워커 고갈).
+     */
+    public <T> CompletableFuture<T> submit(Long roomId, Function<RoomState, T> mutation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        RoomActor actor = actors.computeIfAbsent(roomId, RoomActor::new);
+        actor.mailbox.offer(() -> {
+            try {
+                result.complete(mutation.apply(actor.state()));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        schedule(actor);
+        return result;
+    }
+
+    // 방마다 워커 하나만 돌도록 보장 (SSE 구독자 drain 과 같은 방식)
+    private void schedule(RoomActor actor) {
+        if (actor.scheduled.compareAndSet(false, true)) {
+            actorExecutor.execute(() -> drain(actor));
+        }
+    }
+
+    private void drain(RoomActor actor) {
+        try {
+            Runnable message;
+            int processed = 0;
+            // 한 방이 워커를 독점하지 않도록 batchSize 개 처리 후 양보
+            while (processed < batchSize && (message = actor.mailbox.poll()) != null) {
+                message.run();
+                processed++;
+                if (actor.state != null) {
+                    actor.closed = !actor.state.isOpen();
+                    if (actor.state.isDirty()) {
+                        roomStateWriter.enqueue(actor.state.takeSnapshot());
+                    }
+                }
+            }
+        } finally {
+            actor.scheduled.set(false);
+        }
+        if (!actor.mailbox.isEmpty()) {
+            schedule(actor);
+        } else {
+            retireIfClosed(actor);
+        }
+    }
+
+    // 닫힌 방 액터를 주기적으로 정리
+    @Scheduled(fixedDelayString = "${room.actor.sweep-ms:30000}")
+    public void sweep() {
+        actors.values().forEach(this::retireIfClosed);
+    }
+
+    // 닫힌 방은 DB 반영까지 끝난 뒤 제거. 이후 메시지는 새 액터가 DB 의 닫힌 상태를 읽음
+    private void retireIfClosed(RoomActor actor) {
+        if (actor.closed && actor.mailbox.isEmpty() && !actor.scheduled.get()
+                && !roomStateWriter.isPending(actor.roomId)) {
+            actors.remove(actor.roomId, actor);
+        }
+    }
+
+    private double maxMailboxDepth() {
+        int max = 0;
+        for (RoomActor actor : actors.values()) {
+            max = Math.max(max, actor.mailbox.size());
+        }
+        return max;
+    }
+
+    private final class RoomActor {
+        private final Long roomId;
+        private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        // 액터 스레드에서만 접근 (첫 메시지에서 DB 로부터 읽음)
+        private RoomState state;
+        // 메시지 처리 후 액터 스레드가 갱신, sweep 이 제거 판단에 사용
+        private volatile boolean closed;
+
+        private RoomActor(Long roomId) {
+            this.roomId = roomId;
+        }
+
+        private RoomState state() {
+            if (state == null) {
+                state = roomRepository.findById(roomId)
+                        .map(RoomState::of)
+                        .orElseGet(() -> RoomState.missing(roomId));
+            }
+            return state;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.red.yogaback.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 닫힌 지 오래된 방을 보관 테이블(RoomArchive, RoomCoursePoseArchive)로 옮기는 작업.
+ * room_id 기준 keyset 으로 chunk-size 개씩 잘라, chunk 마다 한 트랜잭션에서 복사 후 원본을 지운다.
+ * 게임을 한 방의 기록도 함께 정리한다.
+ *  - RoomRecord 는 room_id 가 NOT NULL FK 라 RoomRecordArchive 로 같이 옮긴다.
+ *  - PoseRecord 는 사용자 기록 조회에 그대로 남기고, room 은 비운 뒤 원래 room_id 를 archived_room_id 에 둔다.
+ */
+@Slf4j
+@Component
+public class RoomArchiver {
+
+    private static final String SELECT_CHUNK = """
+            SELECT r.room_id FROM room r
+            WHERE r.room_state = 0 AND r.created_at < :cutoff AND r.room_id > :afterId
+            ORDER BY r.room_id
+            LIMIT :limit""";
+
+    private static final String COPY_ROOMS = """
+            INSERT INTO room_archive (room_id, password, room_max, room_count, room_name, has_password,
+                                      created_at, deleted_at, room_state, creator_id, archived_at)
+            SELECT room_id, password, room_max, room_count, room_name, has_password,
+                   created_at, deleted_at, room_state, creator_id, :archivedAt
+            FROM room WHERE room_id IN (:roomIds) AND room_state = 0""";
+
+    private static final String COPY_COURSE_POSES = """
+            INSERT INTO room_course_pose_archive (room_course_pose_id, room_id, pose_id, room_order_index, created_at, archived_at)
+            SELECT room_course_pose_id, room_id, pose_id, room_order_index, created_at, :archivedAt
+            FROM room_course_pose WHERE room_id IN (:roomIds)""";
+
+    private static final String COPY_ROOM_RECORDS = """
+            INSERT INTO room_record_archive (room_record_id, user_id, room_id, total_ranking, total_score,
+                                             created_at, rank_confirmed, archived_at)
+            SELECT room_record_id, user_id, room_id, total_ranking, total_score, created_at, rank_confirmed, :archivedAt
+            FROM room_record WHERE room_id IN (:roomIds)""";
+
+    private static final String DETACH_POSE_RECORDS =
+            "UPDATE pose_record SET archived_room_id = room_id, room_id = NULL WHERE room_id IN (:roomIds)";
+    // 마지막으로 들어갔던 방을 가리키는 User.room 은 닫힌 방이므로 비움
+    private static final String DETACH_USERS = "UPDATE user SET room_id = NULL WHERE room_id IN (:roomIds)";
+    // retention-days 가 지난 방이므로 늦게 올 기록을 위해 남겨 둔 서버 순위도 필요 없음
+    private static final String DELETE_RANKS = "DELETE FROM room_rank WHERE room_id IN (:roomIds)";
+    private static final String DELETE_ROOM_RECORDS = "DELETE FROM room_record WHERE room_id IN (:roomIds)";
+    private static final String DELETE_COURSE_POSES = "DELETE FROM room_course_pose WHERE room_id IN (:roomIds)";
+    private static final String DELETE_ROOMS = "DELETE FROM room WHERE room_id IN (:roomIds) AND room_state = 0";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long retentionMs;
+    private final int chunkSize;
+    private final Counter archivedCounter;
+
+    public RoomArchiver(NamedParameterJdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${room.archive.retention-days:7}") long retentionDays,
+                        @Value("${room.archive.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionMs = TimeUnit.DAYS.toMillis(retentionDays);
+        this.chunkSize = chunkSize;
+        this.archivedCounter = meterRegistry.counter("room.archive.archived");
+    }
+
+    @Scheduled(cron = "${room.archive.cron:0 30 4 * * *}")
+    public void archive() {
+        long now = System.currentTimeMillis();
+        long cutoff = now - retentionMs;
+        long afterId = 0L;
+        int total = 0;
+        while (true) {
+            List<Long> roomIds = jdbcTemplate.queryForList(SELECT_CHUNK, new MapSqlParameterSource()
+                    .addValue("cutoff", cutoff)
+                    .addValue("afterId", afterId)
+                    .addValue("limit", chunkSize), Long.class);
+            if (roomIds.isEmpty()) {
+                break;
+            }
+            Integer moved = transactionTemplate.execute(status -> moveChunk(roomIds, now));
+            total += moved == null ? 0 : moved;
+            afterId = roomIds.get(roomIds.size() - 1);
+            if (roomIds.size() < chunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            archivedCounter.increment(total);
+        }
+        log.info("닫힌 방 보관 완료: {}개 (기준 createdAt < {})", total, cutoff);
+    }
+
+    private int moveChunk(List<Long> roomIds, long archivedAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("roomIds", roomIds)
+                .addValue("archivedAt", archivedAt);
+        jdbcTemplate.update(COPY_ROOMS, params);
+        jdbcTemplate.update(COPY_COURSE_POSES, params);
+        jdbcTemplate.update(COPY_ROOM_RECORDS, params);
+        jdbcTemplate.update(DETACH_POSE_RECORDS, params);
+        jdbcTemplate.update(DETACH_USERS, params);
+        jdbcTemplate.update(DELETE_RANKS, params);
+        jdbcTemplate.update(DELETE_ROOM_RECORDS, params);
+        jdbcTemplate.update(DELETE_COURSE_POSES, params);
+        return jdbcTemplate.update(DELETE_ROOMS, params);
+    }
+}
@@ -0,0 +1,106 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.dto.request.RoomRequest;
+import com.red.yogaback.model.Pose;
+import com.red.yogaback.model.RoomCoursePose;
+import com.red.yogaback.repository.RoomCoursePoseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 방 코스(포즈 목록) 캐시. "roomPoses" 캐시(Caffeine, 크기/TTL 제한)를 사용하며
+ * 방 생성 시 put, 방이 닫히면 evict 한다.
+ * 캐시에 없으면 RoomCoursePose 에서 읽어 채우고, 여러 방을 한 번에 요청하면 쿼리도 한 번만 나간다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomCourseCache {
+
+    public static final String CACHE_NAME = "roomPoses";
+
+    private final CacheManager cacheManager;
+    private final RoomCoursePoseRepository roomCoursePoseRepository;
+
+    public void put(Long roomId, List<RoomRequest.PoseDetail> poses) {
+        cache().put(roomId, List.copyOf(poses));
+    }
+
+    public void evict(Long roomId) {
+        cache().evict(roomId);
+    }
+
+    public List<RoomRequest.PoseDetail> get(Long roomId) {
+        return getAll(List.of(roomId)).get(roomId);
+    }
+
+    /**
+     * roomIds 각각의 코스. 캐시에 없는 방들은 findByRoom_RoomIdIn 한 번으로 조회해 채운다.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Long, List<RoomRequest.PoseDetail>> getAll(Collection<Long> roomIds) {
+        Cache cache = cache();
+        Map<Long, List<RoomRequest.PoseDetail>> result = new HashMap<>();
+        Set<Long> misses = new LinkedHashSet<>();
+        for (Long roomId : roomIds) {
+            List<RoomRequest.PoseDetail> poses = cache.get(roomId, List.class);
+            if (poses != null) {
+                result.put(roomId, poses);
+            } else {
+                misses.add(roomId);
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, List<RoomCoursePose>> loaded = roomCoursePoseRepository.findByRoom_RoomIdIn(misses).stream()
+                .collect(Collectors.groupingBy(coursePose -> coursePose.getRoom().getRoomId()));
+        log.debug("방 코스 캐시 miss {}건 DB 조회", misses.size());
+        for (Long roomId : misses) {
+            List<RoomRequest.PoseDetail> poses = loaded.getOrDefault(roomId, List.of()).stream()
+                    .sorted(Comparator.comparingInt(RoomCoursePose::getRoomOrderIndex))
+                    .map(RoomCourseCache::toPoseDetail)
+                    .toList();
+            cache.put(roomId, poses);
+            result.put(roomId, poses);
+        }
+        return result;
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            throw new IllegalStateException("캐시가 설정되지 않았습니다: " + CACHE_NAME);
+        }
+        return cache;
+    }
+
+    // createRooms 에서 요청 포즈를 채우는 규칙과 동일
+    private static RoomRequest.PoseDetail toPoseDetail(RoomCoursePose coursePose) {
+        Pose pose = coursePose.getPose();
+        return RoomRequest.PoseDetail.builder()
+                .poseId(pose.getPoseId())
+                .poseName(pose.getPoseName())
+                .poseDescription(pose.getPoseDescription())
+                .poseImg(pose.getPoseImg())
+                .poseLevel(pose.getPoseLevel() == null ? 0 : pose.getPoseLevel())
+                .poseVideo(pose.getPoseVideo())
+                .setPoseId(1)
+                .poseAnimation(pose.getPoseAnimation())
+                .userOrderIndex(coursePose.getRoomOrderIndex())
+                .build();
+    }
+}
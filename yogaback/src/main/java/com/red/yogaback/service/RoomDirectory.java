@@ -0,0 +1,151 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.model.Room;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 활성 방(roomState == 1)의 인메모리 읽기 모델.
+ * 로비 조회는 DB 대신 여기서만 읽고, 방 생성/입장/퇴장/종료 시 RoomService 가 갱신한다.
+ * 서버 기동 시 DB 로부터 다시 채운다 (RoomDirectoryInitConfig).
+ * 이름 검색은 RoomNameIndex(n-gram, 초성 검색)로 후보를 찾으므로 활성 방 전체를 훑지 않는다.
+ * ordered, nameIndex 는 rooms 의 compute 안에서 함께 갱신하므로 같은 방의 put/remove 가 엇갈려도
+ * 세 구조가 서로 다른 상태로 남지 않는다 (삭제된 방이 인원 갱신으로 되살아나지 않음).
+ */
+@Slf4j
+@Component
+public class RoomDirectory {
+
+    private static final Comparator<Entry> LOBBY_ORDER = Comparator.comparing(Entry::cursor);
+
+    private final Map<Long, Entry> rooms = new ConcurrentHashMap<>();
+    // (createdAt, roomId) 순 정렬. keyset 페이지네이션용
+    private final NavigableMap<LobbyCursor, Entry> ordered = new ConcurrentSkipListMap<>();
+    private final RoomNameIndex nameIndex = new RoomNameIndex();
+
+    public void put(Entry entry) {
+        rooms.compute(entry.roomId(), (roomId, previous) -> {
+            if (previous != null && !previous.cursor().equals(entry.cursor())) {
+                ordered.remove(previous.cursor());
+            }
+            ordered.put(entry.cursor(), entry);
+            nameIndex.add(roomId, entry.roomName());
+            return entry;
+        });
+    }
+
+    /**
+     * 활성 방의 인원만 갱신. 이미 삭제된 방이면 null (다시 만들지 않음).
+     */
+    public Entry updateRoomCount(Long roomId, int roomCount) {
+        return rooms.computeIfPresent(roomId, (id, previous) -> {
+            Entry updated = previous.withRoomCount(roomCount);
+            ordered.put(updated.cursor(), updated);
+            return updated;
+        });
+    }
+
+    public Entry get(Long roomId) {
+        return rooms.get(roomId);
+    }
+
+    public Entry remove(Long roomId) {
+        Entry[] removed = new Entry[1];
+        rooms.computeIfPresent(roomId, (id, previous) -> {
+            ordered.remove(previous.cursor());
+            nameIndex.remove(id);
+            removed[0] = previous;
+            return null;
+        });
+        return removed[0];
+    }
+
+    // 방 이름에 roomName 이 포함된 (또는 초성이 일치하는) 활성 방 (생성 순)
+    public List<Entry> search(String roomName) {
+        if (roomName == null || roomName.isBlank()) {
+            return rooms.values().stream().sorted(LOBBY_ORDER).toList();
+        }
+        return nameIndex.search(roomName).stream()
+                .map(rooms::get)
+                .filter(Objects::nonNull)
+                .sorted(LOBBY_ORDER)
+                .toList();
+    }
+
+    /**
+     * cursor 다음부터 최대 limit 개 (생성 순). 검색어가 없으면 정렬된 맵에서 바로 잘라낸다.
+     */
+    public List<Entry> page(String roomName, LobbyCursor cursor, int limit) {
+        if (roomName == null || roomName.isBlank()) {
+            Collection<Entry> tail = cursor == null ? ordered.values() : ordered.tailMap(cursor, false).values();
+            return tail.stream().limit(limit).toList();
+        }
+        return nameIndex.search(roomName).stream()
+                .map(rooms::get)
+                .filter(Objects::nonNull)
+                .filter(entry -> entry.cursor().isAfter(cursor))
+                .sorted(LOBBY_ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    public void replaceAll(Collection<Entry> entries) {
+        rooms.clear();
+        ordered.clear();
+        nameIndex.clear();
+        entries.forEach(this::put);
+        log.info("RoomDirectory 재구성 완료: 활성 방 {}개", rooms.size());
+    }
+
+    // 활성 방 전체 (순서 없음). RoomReaper 가 훑는 용도
+    public Collection<Entry> entries() {
+        return rooms.values();
+    }
+
+    public int size() {
+        return rooms.size();
+    }
+
+    /**
+     * 로비에 필요한 방 정보. 생성자 닉네임을 함께 들고 있어 조회 시 User 조회가 필요 없다.
+     */
+    public record Entry(Long roomId,
+                        String roomName,
+                        int roomMax,
+                        int roomCount,
+                        boolean hasPassword,
+                        Long creatorId,
+                        String creatorNickname,
+                        Long createdAt) {
+
+        public static Entry of(Room room, String creatorNickname) {
+            return new Entry(
+                    room.getRoomId(),
+                    room.getRoomName(),
+                    room.getRoomMax(),
+                    room.getRoomCount(),
+                    Boolean.TRUE.equals(room.getHasPassword()),
+                    room.getCreatorId(),
+                    creatorNickname,
+                    room.getCreatedAt()
+            );
+        }
+
+        public Entry withRoomCount(int roomCount) {
+            return new Entry(roomId, roomName, roomMax, roomCount, hasPassword, creatorId, creatorNickname, createdAt);
+        }
+
+        public LobbyCursor cursor() {
+            return LobbyCursor.of(createdAt, roomId);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.red.yogaback.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 방 하나의 게임 점수판. 라운드 점수(자세 유지 시간)와 누적 점수를 들고 순위를 정합니다.
+ *
+ * 순위 규칙은 클라이언트가 각자 계산하던 것과 같습니다.
+ *  - 라운드 순위: 라운드 점수 내림차순, 같으면 userId 오름차순(문자열 비교)
+ *  - 라운드가 끝나면 라운드 순위 index 에 따라 10 - index * 3 점을 누적 점수에 더함
+ *  - 최종 순위: 누적 점수 내림차순, 같으면 userId 오름차순
+ * 한 번이라도 점수를 보낸 사용자는 이후 라운드에서 점수를 보내지 않아도 0 점으로 순위에 들어갑니다.
+ *
+ * inbound 스레드(점수 보고, 라운드 전환)와 leaderboard tick 스레드가 함께 쓰므로 모든 메서드는 객체 lock 안에서 실행됩니다.
+ */
+final class RoomLeaderboard {
+
+    private static final Comparator<Map.Entry<String, Float>> BY_ROUND_SCORE =
+            Map.Entry.<String, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+    private static final Comparator<Map.Entry<String, Integer>> BY_TOTAL =
+            Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    // userId -> 누적 점수 (참가자 목록 겸용)
+    private final Map<String, Integer> totals = new HashMap<>();
+    // userId -> 현재 라운드 점수
+    private final Map<String, Float> roundScores = new HashMap<>();
+    // 라운드 index -> (userId -> 라운드 순위). 끝난 라운드만
+    private final Map<Integer, Map<String, Integer>> roundRanks = new HashMap<>();
+
+    private int round;
+    private boolean roundOver;
+    private boolean finished;
+    // 라운드 정산 예정 시각 (없으면 -1)
+    private long settleAt = -1;
+    // 마지막 snapshot 이후 바뀐 내용이 있는지
+    private boolean changed = true;
+    private long touchedAt;
+    // 게임을 시작한 방장. 라운드 전환/종료는 방장만
+    private final String hostId;
+
+    RoomLeaderboard(String hostId, long now) {
+        this.hostId = hostId;
+        this.touchedAt = now;
+    }
+
+    boolean isHost(String userId) {
+        return hostId.equals(userId);
+    }
+
+    synchronized void startRound(int round, long now) {
+        if (finished) {
+            return;
+        }
+        // 정산 전에 다음 라운드가 시작되면 이전 라운드를 먼저 정산
+        settleIfPending();
+        this.round = round;
+        this.roundOver = false;
+        roundScores.clear();
+        changed = true;
+        touchedAt = now;
+    }
+
+    /**
+     * 라운드 점수 보고. 다른 라운드(늦게 도착한 이전 라운드 등)이거나 이미 정산된 라운드면 무시하고 false.
+     */
+    synchronized boolean report(String userId, Integer round, float score, long now) {
+        if (finished || roundOver || (round != null && round != this.round)) {
+            return false;
+        }
+        totals.putIfAbsent(userId, 0);
+        roundScores.put(userId, score);
+        changed = true;
+        touchedAt = now;
+        return true;
+    }
+
+    // 라운드 종료. 늦게 도착하는 점수를 받도록 settleAt 에 정산
+    synchronized void endRound(long settleAt, long now) {
+        if (finished || roundOver || this.settleAt >= 0) {
+            return;
+        }
+        this.settleAt = settleAt;
+        touchedAt = now;
+    }
+
+    /**
+     * 게임 종료. 정산이 남아 있으면 바로 정산하고 최종 결과를 돌려줍니다. 이미 끝났으면 null.
+     */
+    synchronized Result finish(long now) {
+        if (finished) {
+            return null;
+        }
+        settleIfPending();
+        finished = true;
+        changed = true;
+        touchedAt = now;
+        return result();
+    }
+
+    /**
+     * 정산 시각이 되었으면 정산하고, 지난 호출 이후 바뀐 내용이 있으면 snapshot 을 돌려줍니다.
+     */
+    synchronized Snapshot poll(long now) {
+        if (settleAt >= 0 && now >= settleAt) {
+            settleIfPending();
+        }
+        if (!changed) {
+            return null;
+        }
+        changed = false;
+        return snapshot();
+    }
+
+    // 바뀐 내용과 관계없이 지금 snapshot (게임 종료 시 최종 결과를 바로 보낼 때)
+    synchronized Snapshot snapshotNow() {
+        changed = false;
+        return snapshot();
+    }
+
+    synchronized boolean settlePending() {
+        return settleAt >= 0;
+    }
+
+    synchronized boolean isIdle(long now, long idleMs) {
+        return now - touchedAt >= idleMs;
+    }
+
+    // 끝난 라운드의 순위. 진행 중인 라운드면 지금까지 받은 점수 기준 순위
+    synchronized Integer roundRanking(int round, String userId) {
+        Map<String, Integer> ranks = roundRanks.get(round);
+        if (ranks != null) {
+            return ranks.get(userId);
+        }
+        if (round != this.round || !totals.containsKey(userId)) {
+            return null;
+        }
+        return rankRound().get(userId);
+    }
+
+    synchronized Integer totalRanking(String userId) {
+        return rankTotals().get(userId);
+    }
+
+    synchronized Integer totalScore(String userId) {
+        return totals.get(userId);
+    }
+
+    synchronized boolean isFinished() {
+        return finished;
+    }
+
+    // 진행 중이거나 마지막으로 정산한 라운드 index
+    synchronized int currentRound() {
+        return round;
+    }
+
+    private void settleIfPending() {
+        if (settleAt < 0) {
+            return;
+        }
+        settleAt = -1;
+        Map<String, Integer> ranks = rankRound();
+        int index = 0;
+        for (String userId : ranks.keySet()) {
+            totals.merge(userId, 10 - index * 3, Integer::sum);
+            index++;
+        }
+        roundRanks.put(round, ranks);
+        roundOver = true;
+        changed = true;
+    }
+
+    // userId -> 라운드 순위 (순위 순서로 정렬된 map)
+    private Map<String, Integer> rankRound() {
+        List<Map.Entry<String, Float>> scores = new ArrayList<>();
+        for (String userId : totals.keySet()) {
+            scores.add(Map.entry(userId, roundScores.getOrDefault(userId, 0f)));
+        }
+        scores.sort(BY_ROUND_SCORE);
+        Map<String, Integer> ranks = new LinkedHashMap<>();
+        for (Map.Entry<String, Float> score : scores) {
+            ranks.put(score.getKey(), ranks.size() + 1);
+        }
+        return ranks;
+    }
+
+    private Map<String, Integer> rankTotals() {
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<>(totals.entrySet());
+        sorted.sort(BY_TOTAL);
+        Map<String, Integer> ranks = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> total : sorted) {
+            ranks.put(total.getKey(), ranks.size() + 1);
+        }
+        return ranks;
+    }
+
+    private Snapshot snapshot() {
+        Map<String, Integer> ranks = roundOver ? roundRanks.get(round) : rankRound();
+        Map<String, Integer> totalRanks = rankTotals();
+        List<Standing> standings = new ArrayList<>(ranks.size());
+        for (Map.Entry<String, Integer> rank : ranks.entrySet()) {
+            String userId = rank.getKey();
+            standings.add(new Standing(userId, roundScores.getOrDefault(userId, 0f), totals.get(userId),
+                    rank.getValue(), totalRanks.get(userId)));
+        }
+        return new Snapshot(round, roundOver, finished, standings);
+    }
+
+    private Result result() {
+        Map<String, Integer> totalRanks = rankTotals();
+        Map<String, Integer> totalScores = new HashMap<>(totals);
+        Map<Integer, Map<String, Integer>> rounds = new HashMap<>();
+        roundRanks.forEach((index, ranks) -> rounds.put(index, Map.copyOf(ranks)));
+        return new Result(Map.copyOf(rounds), Map.copyOf(totalRanks), Map.copyOf(totalScores));
+    }
+
+    /**
+     * @param time      라운드 점수 (자세 유지 시간)
+     * @param rank      라운드 순위
+     * @param totalRank 누적 점수 순위
+     */
+    record Standing(String userId, float time, int total, int rank, int totalRank) {
+    }
+
+    record Snapshot(int round, boolean roundOver, boolean finished, List<Standing> standings) {
+    }
+
+    /**
+     * 게임이 끝났을 때의 결과.
+     *
+     * @param roundRanks 라운드 index -> (userId -> 라운드 순위)
+     * @param totalRanks userId -> 최종 순위
+     * @param totals     userId -> 누적 점수
+     */
+    record Result(Map<Integer, Map<String, Integer>> roundRanks,
+                  Map<String, Integer> totalRanks,
+                  Map<String, Integer> totals) {
+    }
+}
@@ -0,0 +1,265 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.dto.request.RoomRequest;
+import com.red.yogaback.model.RoomRank;
+import com.red.yogaback.repository.RoomRankRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 멀티플레이 방의 서버 집계 점수판.
+ *
+ * 동작:
+ *  - 클라이언트는 라운드 점수를 score_report 로 서버에만 보내고(방에 중계하지 않음), 서버가 방별 점수판을 메모리에 둡니다.
+ *  - tick-ms 주기로 바뀐 방만 "/topic/room/{roomId}" 로 leaderboard snapshot 하나를 보냅니다.
+ *    N 명이 서로에게 점수를 보내던 N×(N-1) 메시지가 방마다 tick 당 한 개로 줄고, 모두 같은 순위를 봅니다.
+ *  - round_end 후 round-grace-ms 동안 늦게 오는 점수를 더 받고 정산합니다 (라운드 순위, 누적 점수).
+ *  - game_state -1(게임 종료)이면 바로 최종 snapshot 을 보내고, 순위를 RoomRankWriter 로 한 번에 DB 에 반영합니다.
+ *  - 끝난 점수판은 idle-ms 동안 남겨 두어, 늦게 저장되는 PoseRecord / RoomRecord 도 서버 순위를 쓰게 합니다.
+ *  - 점수판은 방장의 game_state 0 으로만 만들고, 라운드 전환/종료도 방장만 할 수 있습니다.
+ *    시작하지 않은 방(서버 재시작 포함)으로 온 메시지와 방장이 아닌 사용자의 라운드 전환/종료는 무시합니다.
+ *  - 점수판은 방 소유 노드에만 있으므로, 이 노드에 없는 방의 순위는 RoomRankWriter 가 저장한 최종 결과(RoomRank)에서 읽습니다.
+ */
+@Slf4j
+@Component
+public class RoomLeaderboards {
+
+    static final String TYPE = "leaderboard";
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final RoomRankWriter rankWriter;
+    private final RoomCourseCache roomCourseCache;
+    private final RoomRankRepository roomRankRepository;
+    private final TaskExecutor persistExecutor;
+    private final long roundGraceMs;
+    private final long idleMs;
+    private final LongSupplier clock;
+    private final Counter snapshotCounter;
+    private final Counter staleReportCounter;
+    private final Counter ignoredCounter;
+
+    private final Map<String, RoomLeaderboard> boards = new ConcurrentHashMap<>();
+    // 다음 tick 에 볼 방 (바뀌었거나 정산 대기 중)
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public RoomLeaderboards(SimpMessageSendingOperations messagingTemplate,
+                            RoomRankWriter rankWriter,
+                            RoomCourseCache roomCourseCache,
+                            RoomRankRepository roomRankRepository,
+                            @Qualifier("roomFlushExecutor") TaskExecutor persistExecutor,
+                            MeterRegistry meterRegistry,
+                            @Value("${room.leaderboard.round-grace-ms:1000}") long roundGraceMs,
+                            @Value("${room.leaderboard.idle-ms:600000}") long idleMs) {
+        this(messagingTemplate, rankWriter, roomCourseCache, roomRankRepository, persistExecutor, meterRegistry,
+                roundGraceMs, idleMs, System::currentTimeMillis);
+    }
+
+    RoomLeaderboards(SimpMessageSendingOperations messagingTemplate, RoomRankWriter rankWriter,
+                     RoomCourseCache roomCourseCache, RoomRankRepository roomRankRepository,
+                     TaskExecutor persistExecutor, MeterRegistry meterRegistry,
+                     long roundGraceMs, long idleMs, LongSupplier clock) {
+        this.messagingTemplate = messagingTemplate;
+        this.rankWriter = rankWriter;
+        this.roomCourseCache = roomCourseCache;
+        this.roomRankRepository = roomRankRepository;
+        this.persistExecutor = persistExecutor;
+        this.roundGraceMs = roundGraceMs;
+        this.idleMs = idleMs;
+        this.clock = clock;
+        this.snapshotCounter = meterRegistry.counter("room.leaderboard.snapshots");
+        this.staleReportCounter = meterRegistry.counter("room.leaderboard.stale_reports");
+        this.ignoredCounter = meterRegistry.counter("room.leaderboard.ignored");
+        Gauge.builder("room.leaderboard.rooms", boards, Map::size).register(meterRegistry);
+    }
+
+    // game_state 0: 새 게임 (이전 게임 점수판은 버림). hostId 가 방장인지는 호출하는 쪽에서 확인
+    public void start(String roomId, String hostId) {
+        boards.put(roomId, new RoomLeaderboard(hostId, clock.getAsLong()));
+        dirty.add(roomId);
+    }
+
+    // game_state >= 1: 다음 라운드
+    public void startRound(String roomId, String userId, int round) {
+        RoomLeaderboard board = hostBoard(roomId, userId);
+        if (board == null) {
+            return;
+        }
+        board.startRound(round, clock.getAsLong());
+        dirty.add(roomId);
+    }
+
+    public void report(String roomId, String userId, Integer round, float score) {
+        RoomLeaderboard board = boards.get(roomId);
+        if (board == null) {
+            ignoredCounter.increment();
+            return;
+        }
+        if (!board.report(userId, round, score, clock.getAsLong())) {
+            staleReportCounter.increment();
+            return;
+        }
+        dirty.add(roomId);
+    }
+
+    public void endRound(String roomId, String userId) {
+        RoomLeaderboard board = hostBoard(roomId, userId);
+        if (board == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        board.endRound(now + roundGraceMs, now);
+        dirty.add(roomId);
+    }
+
+    /**
+     * 게임 종료. 게임 종료 메시지보다 먼저 최종 snapshot 이 나가도록 호출한 스레드에서 바로 보내고,
+     * DB 반영은 roomFlushExecutor 에서 합니다.
+     */
+    public void finish(String roomId, String userId) {
+        RoomLeaderboard board = hostBoard(roomId, userId);
+        if (board == null) {
+            return;
+        }
+        RoomLeaderboard.Result result = board.finish(clock.getAsLong());
+        if (result == null) {
+            return;
+        }
+        publish(roomId, board.snapshotNow());
+        try {
+            Long id = Long.valueOf(roomId);
+            persistExecutor.execute(() -> rankWriter.write(id, result));
+        } catch (NumberFormatException e) {
+            log.warn("숫자가 아닌 roomId 의 순위는 저장하지 않습니다: {}", roomId);
+        }
+    }
+
+    /**
+     * 바뀐 방의 snapshot 을 보냅니다. 방마다 tick 당 최대 한 번.
+     */
+    @Scheduled(fixedRateString = "${room.leaderboard.tick-ms:200}", scheduler = "leaderboardTickScheduler")
+    public void tick() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        long now = clock.getAsLong();
+        for (String roomId : new ArrayList<>(dirty)) {
+            // poll 보다 먼저 빼야 그 사이 들어온 변경이 다음 tick 에 다시 잡힘
+            dirty.remove(roomId);
+            RoomLeaderboard board = boards.get(roomId);
+            if (board == null) {
+                continue;
+            }
+            publish(roomId, board.poll(now));
+            if (board.settlePending()) {
+                dirty.add(roomId);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        boards.entrySet().removeIf(entry -> entry.getValue().isIdle(now, idleMs));
+    }
+
+    /**
+     * 서버가 정한 포즈 기록 순위. 점수판도 저장된 결과도 없거나 그 사용자의 점수가 없으면 null.
+     * 같은 포즈가 코스에 여러 번 있으면 현재 라운드에서 가장 가까운 이전 라운드 기준.
+     */
+    public Integer poseRanking(Long roomId, Long userId, Long poseId) {
+        RoomLeaderboard board = boards.get(String.valueOf(roomId));
+        if (board == null) {
+            return roomRankRepository.findFirstByRoomIdAndUserIdAndPoseIdOrderByRoundIndexDesc(roomId, userId, poseId)
+                    .map(RoomRank::getRanking)
+                    .orElse(null);
+        }
+        List<RoomRequest.PoseDetail> course = roomCourseCache.get(roomId);
+        if (course == null) {
+            return null;
+        }
+        for (int round = Math.min(board.currentRound(), course.size() - 1); round >= 0; round--) {
+            if (poseId.equals(course.get(round).getPoseId())) {
+                return board.roundRanking(round, String.valueOf(userId));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 서버가 정한 최종 순위와 누적 점수. 이 노드의 점수판이 끝났으면 점수판에서, 점수판이 없으면 저장된 결과에서 읽습니다.
+     * 게임이 아직 진행 중이거나 결과가 없으면 null.
+     */
+    public FinalRank finalRank(Long roomId, Long userId) {
+        RoomLeaderboard board = boards.get(String.valueOf(roomId));
+        if (board != null) {
+            if (!board.isFinished()) {
+                return null;
+            }
+            String id = String.valueOf(userId);
+            Integer ranking = board.totalRanking(id);
+            return ranking == null ? null : new FinalRank(ranking, board.totalScore(id));
+        }
+        return roomRankRepository.findByRoomIdAndUserIdAndRoundIndex(roomId, userId, RoomRank.TOTAL_ROUND)
+                .map(rank -> new FinalRank(rank.getRanking(), rank.getTotalScore()))
+                .orElse(null);
+    }
+
+    // 시작한 방의 점수판이고 보낸 사람이 방장일 때만. 아니면 null
+    private RoomLeaderboard hostBoard(String roomId, String userId) {
+        RoomLeaderboard board = boards.get(roomId);
+        if (board == null || !board.isHost(userId)) {
+            ignoredCounter.increment();
+            log.debug("시작하지 않은 방이거나 방장이 아닌 사용자의 점수판 요청을 무시합니다: roomId = {}, userId = {}", roomId, userId);
+            return null;
+        }
+        return board;
+    }
+
+    // 클라이언트 SignalingMessage 직렬화 형식(_type_ 구분자)에 맞춘 leaderboard 메시지
+    private void publish(String roomId, RoomLeaderboard.Snapshot snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        List<Map<String, Object>> ranks = new ArrayList<>(snapshot.standings().size());
+        for (RoomLeaderboard.Standing standing : snapshot.standings()) {
+            Map<String, Object> rank = new LinkedHashMap<>();
+            rank.put("id", standing.userId());
+            rank.put("time", standing.time());
+            rank.put("total", standing.total());
+            rank.put("rank", standing.rank());
+            rank.put("totalRank", standing.totalRank());
+            ranks.add(rank);
+        }
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("_type_", TYPE);
+        message.put("type", TYPE);
+        message.put("fromPeerId", "server");
+        message.put("round", snapshot.round());
+        message.put("roundOver", snapshot.roundOver());
+        message.put("finished", snapshot.finished());
+        message.put("ranks", ranks);
+        messagingTemplate.convertAndSend("/topic/room/" + roomId, message);
+        snapshotCounter.increment();
+    }
+
+    public record FinalRank(int ranking, int totalScore) {
+    }
+}
@@ -0,0 +1,240 @@
+package com.red.yogaback.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 활성 방 이름에 대한 인메모리 n-gram(1, 2글자) 부분 문자열 검색 인덱스.
+ * 초성만 입력한 검색("ㅇㄱ" → "요가")도 지원하며, 초성과 완성형을 섞은 검색("요ㄱ")도 된다.
+ * 방 생성/종료 시 RoomDirectory 가 add/remove 로 갱신하므로
+ * 검색 비용은 과거에 만들어진 방 개수와 무관하다.
+ */
+public class RoomNameIndex {
+
+    private static final char HANGUL_BEGIN = 0xAC00;
+    private static final char HANGUL_END = 0xD7A3;
+    private static final int SYLLABLES_PER_CHOSEONG = 21 * 28;
+    private static final char[] CHOSEONG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ',
+            'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    // 원문(소문자) n-gram → roomId
+    private final Map<String, Set<Long>> namePostings = new HashMap<>();
+    // 초성으로 바꾼 이름의 n-gram → roomId
+    private final Map<String, Set<Long>> choseongPostings = new HashMap<>();
+    private final Map<Long, String> names = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(Long roomId, String roomName) {
+        String normalized = normalize(roomName);
+        lock.writeLock().lock();
+        try {
+            String previous = names.put(roomId, normalized);
+            if (normalized.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                unindex(roomId, previous);
+            }
+            index(namePostings, roomId, normalized);
+            index(choseongPostings, roomId, toChoseong(normalized));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long roomId) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.remove(roomId);
+            if (previous != null) {
+                unindex(roomId, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            namePostings.clear();
+            choseongPostings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * query 를 부분 문자열로 포함하는(초성 매칭 포함) 방 id. 빈 검색어면 전체.
+     */
+    public Set<Long> search(String query) {
+        String normalizedQuery = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (normalizedQuery.isEmpty()) {
+                return new HashSet<>(names.keySet());
+            }
+            boolean hasChoseong = containsChoseong(normalizedQuery);
+            Set<Long> candidates = hasChoseong
+                    ? candidates(choseongPostings, toChoseong(normalizedQuery))
+                    : candidates(namePostings, normalizedQuery);
+            Set<Long> result = new HashSet<>();
+            for (Long roomId : candidates) {
+                String name = names.get(roomId);
+                if (name != null && (hasChoseong ? matchesChoseong(name, normalizedQuery) : name.contains(normalizedQuery))) {
+                    result.add(roomId);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 인덱스 없이 단일 이름에 대해 같은 규칙으로 매칭 (SSE 구독 필터 등에서 사용).
+     */
+    public static boolean matches(String roomName, String query) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return true;
+        }
+        String name = normalize(roomName);
+        return containsChoseong(normalizedQuery) ? matchesChoseong(name, normalizedQuery) : name.contains(normalizedQuery);
+    }
+
+    private void index(Map<String, Set<Long>> postings, Long roomId, String text) {
+        for (String gram : grams(text)) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(roomId);
+        }
+    }
+
+    private void unindex(Long roomId, String normalized) {
+        unindex(namePostings, roomId, normalized);
+        unindex(choseongPostings, roomId, toChoseong(normalized));
+    }
+
+    private void unindex(Map<String, Set<Long>> postings, Long roomId, String text) {
+        for (String gram : grams(text)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(roomId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // 1글자 검색어는 unigram, 그 이상은 bigram 교집합 (가장 작은 posting 부터)
+    private Set<Long> candidates(Map<String, Set<Long>> postings, String query) {
+        if (query.length() == 1) {
+            return postings.getOrDefault(query, Set.of());
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : bigrams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private static Collection<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i < text.length(); i++) {
+            grams.add(text.substring(i, i + 1));
+        }
+        grams.addAll(bigrams(text));
+        return grams;
+    }
+
+    private static Collection<String> bigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 2 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    // 이름의 각 글자가 검색어 글자와 같거나, 검색어 글자가 초성이면 이름 글자의 초성과 같아야 함
+    private static boolean matchesChoseong(String name, String query) {
+        outer:
+        for (int start = 0; start + query.length() <= name.length(); start++) {
+            for (int i = 0; i < query.length(); i++) {
+                char q = query.charAt(i);
+                char n = name.charAt(start + i);
+                if (q != n && !(isChoseong(q) && choseongOf(n) == q)) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    static String toChoseong(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            sb.append(choseongOf(text.charAt(i)));
+        }
+        return sb.toString();
+    }
+
+    private static char choseongOf(char c) {
+        if (c >= HANGUL_BEGIN && c <= HANGUL_END) {
+            return CHOSEONG[(c - HANGUL_BEGIN) / SYLLABLES_PER_CHOSEONG];
+        }
+        return c;
+    }
+
+    private static boolean containsChoseong(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (isChoseong(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isChoseong(char c) {
+        for (char choseong : CHOSEONG) {
+            if (choseong == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
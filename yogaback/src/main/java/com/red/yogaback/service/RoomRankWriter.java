@@ -0,0 +1,131 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.dto.request.RoomRequest;
+import com.red.yogaback.model.RoomRank;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 게임이 끝난 방의 서버 집계 순위를 저장.
+ *  - 결과 자체를 RoomRank 에 먼저 저장합니다. 아직 저장되지 않은 기록(클라이언트 POST 가 늦거나 다른 노드로 간 경우)은
+ *    저장할 때 RoomLeaderboards 를 통해 이 결과를 읽습니다.
+ *  - 이미 저장된 PoseRecord.ranking / RoomRecord.totalRanking 은 서버 순위로 고칩니다.
+ *  - 클라이언트 값으로 저장된(확정되지 않은) 우승 기록은 여기서 확정하면서 UserRecord.roomWin 을 올립니다.
+ * 모두 한 트랜잭션에서 JDBC batch 로 씁니다.
+ */
+@Slf4j
+@Component
+public class RoomRankWriter {
+
+    private static final String DELETE_RANKS = "DELETE FROM room_rank WHERE room_id = :roomId";
+
+    private static final String INSERT_RANK = """
+            INSERT INTO room_rank (room_id, user_id, round_index, pose_id, ranking, total_score, created_at)
+            VALUES (:roomId, :userId, :roundIndex, :poseId, :ranking, :totalScore, :createdAt)""";
+
+    private static final String UPDATE_POSE_RANKS = """
+            UPDATE pose_record SET ranking = :ranking
+            WHERE room_id = :roomId AND user_id = :userId AND pose_id = :poseId""";
+
+    // 확정 전 기록만 고침. 이미 확정된 기록(RoomRecordService 가 서버 순위로 저장)의 roomWin 은 반영돼 있음
+    private static final String UPDATE_ROOM_RANKS = """
+            UPDATE room_record SET total_ranking = :totalRanking, total_score = :totalScore, rank_confirmed = TRUE
+            WHERE room_id = :roomId AND user_id = :userId AND (rank_confirmed IS NULL OR rank_confirmed = FALSE)""";
+
+    // UPDATE_ROOM_RANKS 보다 먼저 실행해야 확정 전 기록이 남아 있음
+    private static final String COUNT_ROOM_WIN = """
+            UPDATE user_record SET room_win = room_win + 1
+            WHERE user_id = :userId AND EXISTS (
+                SELECT 1 FROM room_record rr
+                WHERE rr.room_id = :roomId AND rr.user_id = :userId
+                  AND (rr.rank_confirmed IS NULL OR rr.rank_confirmed = FALSE))""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoomCourseCache roomCourseCache;
+    private final Counter failedCounter;
+
+    public RoomRankWriter(NamedParameterJdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          RoomCourseCache roomCourseCache,
+                          MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.roomCourseCache = roomCourseCache;
+        this.failedCounter = meterRegistry.counter("room.leaderboard.persist.failed");
+    }
+
+    public void write(Long roomId, RoomLeaderboard.Result result) {
+        try {
+            long now = System.currentTimeMillis();
+            List<RoomRequest.PoseDetail> course = roomCourseCache.get(roomId);
+            List<SqlParameterSource> ranks = new ArrayList<>();
+            List<SqlParameterSource> poseRanks = new ArrayList<>();
+            result.roundRanks().forEach((round, roundRanks) -> {
+                // 라운드 index 는 코스의 포즈 순서 (클라이언트 game_state 의 state 와 같음)
+                if (course == null || round < 0 || round >= course.size()) {
+                    return;
+                }
+                Long poseId = course.get(round).getPoseId();
+                roundRanks.forEach((userId, ranking) -> {
+                    ranks.add(rank(roomId, Long.valueOf(userId), round, poseId, ranking, null, now));
+                    poseRanks.add(new MapSqlParameterSource()
+                            .addValue("ranking", ranking)
+                            .addValue("roomId", roomId)
+                            .addValue("userId", Long.valueOf(userId))
+                            .addValue("poseId", poseId));
+                });
+            });
+            List<SqlParameterSource> roomRanks = new ArrayList<>();
+            List<SqlParameterSource> winners = new ArrayList<>();
+            for (Map.Entry<String, Integer> rank : result.totalRanks().entrySet()) {
+                Long userId = Long.valueOf(rank.getKey());
+                Integer totalScore = result.totals().get(rank.getKey());
+                ranks.add(rank(roomId, userId, RoomRank.TOTAL_ROUND, null, rank.getValue(), totalScore, now));
+                roomRanks.add(new MapSqlParameterSource()
+                        .addValue("totalRanking", rank.getValue())
+                        .addValue("totalScore", totalScore)
+                        .addValue("roomId", roomId)
+                        .addValue("userId", userId));
+                if (rank.getValue() == 1) {
+                    winners.add(new MapSqlParameterSource()
+                            .addValue("roomId", roomId)
+                            .addValue("userId", userId));
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(DELETE_RANKS, new MapSqlParameterSource("roomId", roomId));
+                jdbcTemplate.batchUpdate(INSERT_RANK, ranks.toArray(SqlParameterSource[]::new));
+                jdbcTemplate.batchUpdate(UPDATE_POSE_RANKS, poseRanks.toArray(SqlParameterSource[]::new));
+                jdbcTemplate.batchUpdate(COUNT_ROOM_WIN, winners.toArray(SqlParameterSource[]::new));
+                jdbcTemplate.batchUpdate(UPDATE_ROOM_RANKS, roomRanks.toArray(SqlParameterSource[]::new));
+            });
+            log.info("방 {} 최종 순위 반영: 포즈 기록 {}건, 방 기록 {}건", roomId, poseRanks.size(), roomRanks.size());
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            log.error("방 {} 최종 순위 반영 실패", roomId, e);
+        }
+    }
+
+    private static SqlParameterSource rank(Long roomId, Long userId, int roundIndex, Long poseId,
+                                           Integer ranking, Integer totalScore, long createdAt) {
+        return new MapSqlParameterSource()
+                .addValue("roomId", roomId)
+                .addValue("userId", userId)
+                .addValue("roundIndex", roundIndex)
+                .addValue("poseId", poseId)
+                .addValue("ranking", ranking)
+                .addValue("totalScore", totalScore)
+                .addValue("createdAt", createdAt);
+    }
+}
@@ -0,0 +1,81 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.websocket.service.RoomRouter;
+import com.red.yogaback.websocket.service.UserSessionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 연결된 세션이 없는 활성 방을 닫는 reaper.
+ * 방장이 구독 전에 죽거나 퇴장 이벤트가 유실되면 roomState 1 로 남으므로,
+ * 세션 레지스트리(UserSessionService)에 구독자가 없는 상태가 idle-ms 이상 이어진 방을 RoomService.closeRoom 으로 닫는다.
+ * in-memory 레지스트리는 이 서버의 세션만 알기 때문에, 라우팅이 켜져 있으면 이 서버가 소유한 방(RoomRouter.isLocal)만 본다.
+ * 소유 서버에는 그 방의 연결이 모두 모이므로 다른 서버에 붙은 참가자가 있는 방을 닫지 않는다.
+ */
+@Slf4j
+@Component
+public class RoomReaper {
+
+    private final RoomDirectory roomDirectory;
+    private final UserSessionService userSessionService;
+    private final RoomService roomService;
+    private final RoomRouter roomRouter;
+    private final long idleMs;
+
+    // 세션이 없는 것을 처음 본 시각 (roomId -> millis)
+    private final Map<Long, Long> emptySince = new ConcurrentHashMap<>();
+    private final Counter reapedCounter;
+
+    public RoomReaper(RoomDirectory roomDirectory,
+                      UserSessionService userSessionService,
+                      RoomService roomService,
+                      RoomRouter roomRouter,
+                      MeterRegistry meterRegistry,
+                      @Value("${room.reaper.idle-ms:120000}") long idleMs) {
+        this.roomDirectory = roomDirectory;
+        this.userSessionService = userSessionService;
+        this.roomService = roomService;
+        this.roomRouter = roomRouter;
+        this.idleMs = idleMs;
+        this.reapedCounter = meterRegistry.counter("room.reaper.closed");
+    }
+
+    @Scheduled(fixedDelayString = "${room.reaper.interval-ms:30000}")
+    public void reap() {
+        reap(System.currentTimeMillis());
+    }
+
+    void reap(long now) {
+        Set<Long> liveRoomIds = userSessionService.activeRoomIds();
+        // 이미 닫혀 RoomDirectory 에서 빠진 방은 더 추적하지 않음
+        emptySince.keySet().removeIf(roomId -> roomDirectory.get(roomId) == null);
+
+        for (RoomDirectory.Entry entry : roomDirectory.entries()) {
+            Long roomId = entry.roomId();
+            // 다른 서버가 소유한 방은 그 서버의 reaper 가 판단 (다시 소유하게 되면 처음부터 셈)
+            if (liveRoomIds.contains(roomId) || !roomRouter.isLocal(String.valueOf(roomId))) {
+                emptySince.remove(roomId);
+                continue;
+            }
+            // 처음 본 시점부터 세므로 막 만든 방도 입장/구독까지 idle-ms 는 기다려 줌
+            long since = emptySince.computeIfAbsent(roomId, id -> now);
+            if (now - since >= idleMs) {
+                emptySince.remove(roomId);
+                roomService.closeRoom(roomId).thenAccept(closed -> {
+                    if (closed) {
+                        reapedCounter.increment();
+                        log.info("세션이 없는 방을 닫았습니다: roomId = {}", roomId);
+                    }
+                });
+            }
+        }
+    }
+}
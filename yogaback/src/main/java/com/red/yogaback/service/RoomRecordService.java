@@ -24,11 +24,13 @@ public class RoomRecordService {
     private final UserRepository userRepository;
     private final UserRecordRepository userRecordRepository; // 추가됨
     private final BadgeService badgeService;               // 추가됨
+    private final RoomLeaderboards roomLeaderboards;
 
     /**
      * 클라이언트로부터 전달받은 최종 방 기록 정보를 기반으로 RoomRecord를 저장합니다.
-     * 최종 기록 저장 시 totalRanking 값이 1이면 해당 사용자의 UserRecord의 roomWin을 1 증가시키고,
-     * badgeService를 통해 배지 업데이트를 수행합니다.
+     * 서버가 정한 최종 순위(이 노드의 점수판 또는 저장된 RoomRank)가 있으면 클라이언트 값 대신 그 순위/점수로 확정해 저장하고,
+     * 아직 없으면 클라이언트 값으로 임시 저장합니다. 임시 기록은 게임 종료 후 RoomRankWriter 가 서버 순위로 확정합니다.
+     * roomWin 은 서버 순위로 확정될 때 한 번만 올립니다 (우승이면 여기서 또는 RoomRankWriter 에서).
      *
      * @param request 최종 기록 요청 DTO (roomId, totalRanking, totalScore)
      * @return 저장된 RoomRecord의 결과 DTO
@@ -43,20 +45,36 @@ public class RoomRecordService {
         Room room = roomRepository.findById(request.getRoomId())
                 .orElseThrow(() -> new RuntimeException("Room not found with id: " + request.getRoomId()));
 
+        RoomLeaderboards.FinalRank serverRank = roomLeaderboards.finalRank(room.getRoomId(), userId);
+
         // 빌더 패턴을 사용하여 RoomRecord 엔티티 생성
         RoomRecord roomRecord = RoomRecord.builder()
                 .user(user)
                 .room(room)
-                .totalRanking(request.getTotalRanking())
-                .totalScore(request.getTotalScore())
+                .totalRanking(serverRank != null ? serverRank.ranking() : request.getTotalRanking())
+                .totalScore(serverRank != null ? serverRank.totalScore() : request.getTotalScore())
+                .rankConfirmed(serverRank != null)
                 .createdAt(System.currentTimeMillis())
                 .build();
 
         // RoomRecord 저장
         RoomRecord savedRecord = roomRecordRepository.save(roomRecord);
 
-        // 최종 기록이 우승인 경우(totalRanking == 1) userRecord의 roomWin 값을 증가시킵니다.
-        if (savedRecord.getTotalRanking() != null && savedRecord.getTotalRanking() == 1) {
+        if (serverRank == null) {
+            // 저장하는 사이 최종 결과가 저장됐으면 여기서 확정. RoomRankWriter 가 먼저 확정했으면 roomWin 도 반영돼 있음
+            serverRank = roomLeaderboards.finalRank(room.getRoomId(), userId);
+            if (serverRank != null && roomRecordRepository.confirmRank(savedRecord.getRoomRecordId(),
+                    serverRank.ranking(), serverRank.totalScore()) == 1) {
+                savedRecord.setTotalRanking(serverRank.ranking());
+                savedRecord.setTotalScore(serverRank.totalScore());
+                savedRecord.setRankConfirmed(true);
+            } else {
+                serverRank = null;
+            }
+        }
+
+        // 서버 순위로 확정된 우승인 경우에만 userRecord의 roomWin 값을 증가시킵니다.
+        if (serverRank != null && serverRank.ranking() == 1) {
             UserRecord userRecord = userRecordRepository.findByUser(user)
                     .orElseThrow(() -> new RuntimeException("UserRecord not found for userId=" + userId));
             userRecord.setRoomWin(userRecord.getRoomWin() + 1);
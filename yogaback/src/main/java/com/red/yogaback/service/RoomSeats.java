@@ -0,0 +1,141 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.model.Room;
+import com.red.yogaback.repository.RoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 방 좌석(roomCount) 예약.
+ * 메모리의 방별 카운터를 CAS 로 먼저 잡아 만석이면 DB 를 거치지 않고 바로 거절하고,
+ * 통과한 요청만 조건부 UPDATE(room_count < room_max)로 DB 에 반영한다.
+ * DB 가 거절하거나 트랜잭션이 롤백되면 카운터를 버리고 다음 요청에서 DB 값으로 다시 읽는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomSeats {
+
+    private final RoomRepository roomRepository;
+    private final Map<Long, Seats> seats = new ConcurrentHashMap<>();
+
+    /**
+     * 좌석 하나 예약. 만석이거나 닫힌(없는) 방이면 false.
+     */
+    public boolean tryReserve(Long roomId) {
+        Seats roomSeats = seats(roomId);
+        if (roomSeats == null || !roomSeats.tryAcquire()) {
+            return false;
+        }
+        if (roomRepository.incrementRoomCount(roomId) == 0) {
+            // 다른 노드에서 들어왔거나 방이 닫힘 → 메모리 값이 DB 보다 뒤처진 것
+            log.debug("좌석 예약 DB 거절, 카운터 재동기화: roomId = {}", roomId);
+            seats.remove(roomId, roomSeats);
+            return false;
+        }
+        invalidateOnRollback(roomId, roomSeats);
+        return true;
+    }
+
+    /**
+     * 좌석 하나 반납. 남은 인원을 반환하며, 반납할 좌석이 없었으면 -1.
+     */
+    public int release(Long roomId) {
+        Seats roomSeats = seats.get(roomId);
+        if (roomRepository.decrementRoomCount(roomId) == 0) {
+            if (roomSeats != null) {
+                seats.remove(roomId, roomSeats);
+            }
+            return -1;
+        }
+        if (roomSeats == null) {
+            // 이 노드에서 처음 보는 방. 갱신된 DB 값으로 채움
+            roomSeats = seats(roomId);
+            return roomSeats == null ? 0 : roomSeats.count.get();
+        }
+        invalidateOnRollback(roomId, roomSeats);
+        return roomSeats.release();
+    }
+
+    public int count(Long roomId) {
+        Seats roomSeats = seats(roomId);
+        return roomSeats == null ? 0 : roomSeats.count.get();
+    }
+
+    // 방이 닫히면 호출
+    public void forget(Long roomId) {
+        seats.remove(roomId);
+    }
+
+    private Seats seats(Long roomId) {
+        Seats roomSeats = seats.get(roomId);
+        if (roomSeats != null) {
+            return roomSeats;
+        }
+        // DB 조회는 맵 락 밖에서. 동시에 읽었으면 먼저 넣은 쪽을 사용
+        Room room = roomRepository.findById(roomId)
+                .filter(found -> found.getRoomState() != null && found.getRoomState() == 1L)
+                .orElse(null);
+        if (room == null) {
+            return null;
+        }
+        Seats loaded = new Seats(room.getRoomMax(), room.getRoomCount());
+        Seats previous = seats.putIfAbsent(roomId, loaded);
+        return previous != null ? previous : loaded;
+    }
+
+    private void invalidateOnRollback(Long roomId, Seats roomSeats) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    seats.remove(roomId, roomSeats);
+                }
+            }
+        });
+    }
+
+    private static final class Seats {
+        private final int max;
+        private final AtomicInteger count;
+
+        private Seats(int max, int count) {
+            this.max = max;
+            this.count = new AtomicInteger(count);
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int current = count.get();
+                if (current >= max) {
+                    return false;
+                }
+                if (count.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        int release() {
+            while (true) {
+                int current = count.get();
+                if (current <= 0) {
+                    return 0;
+                }
+                if (count.compareAndSet(current, current - 1)) {
+                    return current - 1;
+                }
+            }
+        }
+    }
+}
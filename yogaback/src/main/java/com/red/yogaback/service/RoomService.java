@@ -2,21 +2,24 @@ package com.red.yogaback.service;
 
 import com.red.yogaback.dto.request.RoomEnterReq;
 import com.red.yogaback.dto.request.RoomRequest;
+import com.red.yogaback.dto.respond.LobbyPage;
 import com.red.yogaback.model.Pose;
 import com.red.yogaback.model.Room;
 import com.red.yogaback.model.RoomCoursePose;
 import com.red.yogaback.model.User;
 import com.red.yogaback.repository.*;
 import com.red.yogaback.security.SecurityUtil;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 
@@ -29,10 +32,15 @@ public class RoomService {
     private final UserRepository userRepository;
     private final RoomCoursePoseRepository roomCoursePoseRepository;
     private final PoseRepository poseRepository;
-    private final SseEmitterService sseEmitterService;
-    private final CacheManager cacheManager;
-//
-    Map<Long, List<RoomRequest.PoseDetail>> roomPoseMap = new ConcurrentHashMap<>();
+    private final LobbyUpdateCoalescer lobbyUpdateCoalescer;
+    private final RoomDirectory roomDirectory;
+    private final RoomCourseCache roomCourseCache;
+    private final RoomActors roomActors;
+    private final RoomSeats roomSeats;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${room.actor.timeout-ms:5000}")
+    private long actorTimeoutMs;
 
     // 방 만들기
     public RoomRequest createRooms(RoomRequest roomReq, Long userId) {
@@ -78,84 +86,203 @@ public class RoomService {
         roomReq.setRoomId(savedRoom.getRoomId());
         roomReq.setUserId(user.getUserId());
         roomReq.setUserNickname(user.getUserNickname());
-        roomPoseMap.put(savedRoom.getRoomId(), roomReq.getPose());
-//        cashingRoomPoses(room.getRoomId(), roomReq.getPose());
-//        sseEmitterService.notifyRoomUpdate(getAllRooms(""));
+        roomCourseCache.put(savedRoom.getRoomId(), roomReq.getPose());
+        RoomDirectory.Entry entry = RoomDirectory.Entry.of(savedRoom, user.getUserNickname());
+        roomDirectory.put(entry);
+        lobbyUpdateCoalescer.roomAdded(toRoomRequest(entry, roomReq.getPose()));
         return roomReq;
 
     }
 
-//    @CachePut(value = "roomPoses", key = "#roomId")
-//    private static List<RoomRequest.PoseDetail> cashingRoomPoses(Long roomId, List<RoomRequest.PoseDetail> poses) {
-//        return poses;
-//    }
-
-    // 방 조회 / SSE 연결
+    // 방 조회 / SSE 연결 (RoomDirectory 에서 읽음, 코스는 캐시 miss 시에만 DB 조회)
     public List<RoomRequest> getAllRooms(String roomName) {
-//        log.info("현재 방, 포즈: {}", roomPoseMap);
-        List<Room> allRooms = roomRepository.findByRoomNameContaining(roomName);
-        if (allRooms.isEmpty()) {
-            return new ArrayList<>();
-        }
-        return allRooms.stream().filter(room ->
-                room.getRoomState() == 1L).map(room -> {
-            User user = userRepository.findById(room.getCreatorId()).orElseThrow(() -> new NoSuchElementException("유저를 찾을 수 없습니다."));
-            RoomRequest roomRequest = new RoomRequest();
-            roomRequest.setRoomId(room.getRoomId());
-            roomRequest.setRoomCount(room.getRoomCount());
-            roomRequest.setRoomMax(room.getRoomMax());
-            roomRequest.setUserId(user.getUserId());
-            roomRequest.setUserNickname(user.getUserNickname());
-            roomRequest.setRoomName(room.getRoomName());
-            roomRequest.setHasPassword(room.getHasPassword());
-
-            List<RoomRequest.PoseDetail> poseDetails = roomPoseMap.getOrDefault(room.getRoomId(), new ArrayList<>());
-            roomRequest.setPose(poseDetails);
-
-//            roomRequest.setPose(roomPoseMap.get(room.getRoomId()));
-            log.info("roomPoseMap: {}",roomPoseMap);
-
-            return roomRequest;
-
-        }).collect(Collectors.toList());
+        return toRoomRequests(roomDirectory.search(roomName));
+    }
+
+    // 로비 한 페이지 (keyset: createdAt, roomId). 다음 페이지가 있으면 nextCursor 를 채움
+    public LobbyPage getLobbyPage(String roomName, LobbyCursor cursor, int size) {
+        List<RoomDirectory.Entry> entries = roomDirectory.page(roomName, cursor, size + 1);
+        boolean hasNext = entries.size() > size;
+        List<RoomDirectory.Entry> pageEntries = hasNext ? entries.subList(0, size) : entries;
+        return LobbyPage.builder()
+                .rooms(toRoomRequests(pageEntries))
+                .nextCursor(hasNext ? pageEntries.get(size - 1).cursor().toString() : null)
+                .build();
+    }
+
+    /*
+     * 방 상태(인원, 열림 여부) 변경은 모두 RoomActors 로 보내 방마다 순서대로 처리한다.
+     * 액터는 이 노드 안의 순서만 보장하므로, 좌석 수는 액터 안에서 RoomSeats 의 조건부 UPDATE 로 DB 가 최종 판단한다.
+     * 방 닫기(room_state)는 RoomStateWriter 가 모아서 batch 로 반영하고, 로비 알림은 액터 안에서 보내 방별 순서가 유지된다.
+     */
+
+    // 좌석 예약 (인원 +1). 만석이거나 닫힌 방이면 false
+    public CompletableFuture<Boolean> reserveSeat(Long roomId) {
+        return roomActors.submit(roomId, state -> {
+            if (!state.isOpen() || !roomSeats.tryReserve(roomId)) {
+                return false;
+            }
+            notifySeatsChanged(roomId, roomSeats.count(roomId));
+            return true;
+        });
     }
 
-    // 캐시에서 포즈 꺼내오기
-    public List<RoomRequest.PoseDetail> getRoomPosesFromCache(Long roomId) {
-        Cache cache = cacheManager.getCache("roomPoses");
-        if (cache != null) {
-            Cache.ValueWrapper valueWrapper = cache.get(roomId);
-            if (valueWrapper != null) {
-                return (List<RoomRequest.PoseDetail>) valueWrapper.get();
+    // 좌석 반납 (인원 -1). 마지막 사람이 나가면 방을 닫음
+    public CompletableFuture<Void> releaseSeat(Long roomId) {
+        return roomActors.submit(roomId, state -> {
+            int remaining = roomSeats.release(roomId);
+            if (remaining < 0) {
+                log.warn("반납할 좌석이 없습니다: roomId = {}", roomId);
+            } else if (remaining == 0 && state.isOpen()) {
+                // 다른 노드에서 그 사이 들어왔으면 DB 가 닫기를 거절함
+                if (roomRepository.closeIfEmpty(roomId) == 1) {
+                    state.closed();
+                    roomSeats.forget(roomId);
+                    log.info("Room {} is now empty; state set to 0", roomId);
+                    notifyRoomClosed(roomId);
+                } else {
+                    roomSeats.forget(roomId);
+                    notifySeatsChanged(roomId, roomSeats.count(roomId));
+                }
+            } else {
+                notifySeatsChanged(roomId, remaining);
             }
+            return null;
+        });
+    }
+
+    // 게임 시작 (game_state 0). 방장이 보낸 경우에만 방을 닫고 true
+    public CompletableFuture<Boolean> startGame(Long roomId, String userId) {
+        return roomActors.submit(roomId, state -> {
+            if (!state.isCreator(userId)) {
+                return false;
+            }
+            if (state.close()) {
+                roomSeats.forget(roomId);
+                notifyRoomClosed(roomId);
+                log.info("Room {} 의 roomState를 0으로 변경했습니다.", roomId);
+            }
+            return true;
+        });
+    }
+
+    // 게임 종료 등으로 방을 닫음
+    public CompletableFuture<Boolean> closeRoom(Long roomId) {
+        return roomActors.submit(roomId, state -> {
+            if (!state.close()) {
+                return false;
+            }
+            roomSeats.forget(roomId);
+            notifyRoomClosed(roomId);
+            return true;
+        });
+    }
+
+    // 인원만 바뀐 경우 DB 를 다시 읽지 않고 RoomDirectory 항목만 갱신
+    private void notifySeatsChanged(Long roomId, int roomCount) {
+        RoomDirectory.Entry updated = roomDirectory.updateRoomCount(roomId, roomCount);
+        if (updated == null) {
+            return;
         }
-        return new ArrayList<>();
+        lobbyUpdateCoalescer.roomUpdated(toRoomRequest(updated, roomCourseCache.get(roomId)));
     }
 
+    private void notifyRoomClosed(Long roomId) {
+        roomDirectory.remove(roomId);
+        roomCourseCache.evict(roomId);
+        lobbyUpdateCoalescer.roomRemoved(roomId);
+    }
+
+    // 기동 시 DB 의 활성 방으로 RoomDirectory 를 다시 채움
+    public void rebuildRoomDirectory() {
+        List<Room> activeRooms = roomRepository.findByRoomState(1L);
+        Set<Long> creatorIds = activeRooms.stream()
+                .map(Room::getCreatorId)
+                .collect(Collectors.toSet());
+        Map<Long, String> nicknames = userRepository.findAllById(creatorIds).stream()
+                .collect(Collectors.toMap(User::getUserId, user -> Objects.toString(user.getUserNickname(), "")));
+        roomDirectory.replaceAll(activeRooms.stream()
+                .map(room -> RoomDirectory.Entry.of(room, nicknames.get(room.getCreatorId())))
+                .toList());
+    }
+
+    // 코스는 RoomCourseCache 에서 한 번에 가져옴 (miss 난 방들은 쿼리 1번)
+    private List<RoomRequest> toRoomRequests(List<RoomDirectory.Entry> entries) {
+        Map<Long, List<RoomRequest.PoseDetail>> poses = roomCourseCache.getAll(
+                entries.stream().map(RoomDirectory.Entry::roomId).toList());
+        return entries.stream()
+                .map(entry -> toRoomRequest(entry, poses.get(entry.roomId())))
+                .collect(Collectors.toList());
+    }
 
-    // 방 입장
-    @Transactional
+    private RoomRequest toRoomRequest(RoomDirectory.Entry entry, List<RoomRequest.PoseDetail> poses) {
+        RoomRequest roomRequest = new RoomRequest();
+        roomRequest.setRoomId(entry.roomId());
+        roomRequest.setRoomCount(entry.roomCount());
+        roomRequest.setRoomMax(entry.roomMax());
+        roomRequest.setUserId(entry.creatorId());
+        roomRequest.setUserNickname(entry.creatorNickname());
+        roomRequest.setRoomName(entry.roomName());
+        roomRequest.setHasPassword(entry.hasPassword());
+        roomRequest.setCreatedAt(entry.createdAt());
+        roomRequest.setPose(poses == null ? new ArrayList<>() : poses);
+        return roomRequest;
+    }
+
+
+    // 방 입장. 액터 응답을 기다리는 동안 DB 커넥션을 잡고 있지 않도록 트랜잭션 없이 좌석부터 예약한다
     public boolean enterRoom(RoomEnterReq roomEnterReq) {
         Long userId = SecurityUtil.getCurrentMemberId();
-        User findUser = userRepository.findById(userId).orElseThrow(() -> new NoSuchElementException("유저를 찾을 수 없습니다."));
-        Room findRoom = roomRepository.findById(roomEnterReq.getRoomId()).orElseThrow(() -> new NoSuchElementException("방을 찾을 수 없습니다."));
-        log.info("현재 인원: " + findRoom.getRoomCount());
-        log.info("최대 인원: " + findRoom.getRoomMax());
-        if (findRoom.getRoomCount() == findRoom.getRoomMax()){
-            log.info("현재 인원: " + findRoom.getRoomCount());
-            log.info("최대 인원: " + findRoom.getRoomMax());
-            return false;
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("유저를 찾을 수 없습니다.");
         }
+        Room findRoom = roomRepository.findById(roomEnterReq.getRoomId()).orElseThrow(() -> new NoSuchElementException("방을 찾을 수 없습니다."));
         log.info("입력 비밀번호: " + roomEnterReq.getPassword());
         log.info("방 비밀번호: " + findRoom.getPassword());
-        if (findRoom.getPassword().equals(roomEnterReq.getPassword())) {
-            findUser.setRoom(findRoom);
-            findRoom.setRoomCount(findRoom.getRoomCount() + 1);
-        } else {
+        if (!findRoom.getPassword().equals(roomEnterReq.getPassword())) {
+            return false;
+        }
+        // 인원 확인과 증가는 방 액터에서 조건부 UPDATE 로. 여러 노드에서 동시에 들어와도 roomMax 를 넘지 않음
+        Long roomId = findRoom.getRoomId();
+        CompletableFuture<Boolean> reservation = reserveSeat(roomId);
+        boolean reserved;
+        try {
+            reserved = await(reservation);
+        } catch (IllegalStateException e) {
+            // 응답을 기다리지 못했어도 나중에 예약이 되면 반납
+            reservation.thenAccept(ok -> {
+                if (Boolean.TRUE.equals(ok)) {
+                    releaseSeat(roomId);
+                }
+            });
+            throw e;
+        }
+        if (!reserved) {
+            log.info("만석 또는 닫힌 방: roomId = {}, 최대 인원 = {}", roomId, findRoom.getRoomMax());
             return false;
         }
-        sseEmitterService.notifyRoomUpdate(getAllRooms(""));
+        // 좌석을 잡은 뒤에 짧은 트랜잭션으로 유저의 방만 기록. 실패하면 좌석 반납
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                User findUser = userRepository.findById(userId).orElseThrow(() -> new NoSuchElementException("유저를 찾을 수 없습니다."));
+                findUser.setRoom(roomRepository.getReferenceById(roomId));
+            });
+        } catch (RuntimeException e) {
+            releaseSeat(roomId);
+            throw e;
+        }
         return true;
     }
 
+    private <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get(actorTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("방 처리 대기 중 인터럽트", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("방 처리 실패", e);
+        }
+    }
+
 }
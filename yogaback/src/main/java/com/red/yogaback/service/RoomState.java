@@ -0,0 +1,62 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.model.Room;
+import lombok.Getter;
+
+/**
+ * 방 액터가 들고 있는 방 열림 여부와 방장. 해당 방의 액터 스레드에서만 읽고 쓴다.
+ * 인원(roomCount)은 여기서 세지 않고 RoomSeats 의 조건부 UPDATE 가 정한다 (노드가 여럿이어도 DB 가 최종 판단).
+ * close() 로 닫히면 dirty 가 되고, 액터가 메시지 처리 후 스냅샷을 떠서 비동기로 DB 에 반영한다.
+ */
+@Getter
+public class RoomState {
+
+    private final Long roomId;
+    private final Long creatorId;
+    private boolean open;
+    private boolean dirty;
+
+    private RoomState(Long roomId, Long creatorId, boolean open) {
+        this.roomId = roomId;
+        this.creatorId = creatorId;
+        this.open = open;
+    }
+
+    static RoomState of(Room room) {
+        return new RoomState(room.getRoomId(), room.getCreatorId(), room.getRoomState() != null && room.getRoomState() == 1L);
+    }
+
+    // DB 에 없는 방
+    static RoomState missing(Long roomId) {
+        return new RoomState(roomId, null, false);
+    }
+
+    // userId 는 STOMP Principal 이름 (문자열)
+    public boolean isCreator(String userId) {
+        return creatorId != null && userId != null && String.valueOf(creatorId).equals(userId);
+    }
+
+    // 이미 닫힌 방이면 false
+    public boolean close() {
+        if (!open) {
+            return false;
+        }
+        open = false;
+        dirty = true;
+        return true;
+    }
+
+    // DB 에서 이미 닫힌 경우 (closeIfEmpty). 다시 쓸 필요가 없으므로 dirty 로 만들지 않음
+    public void closed() {
+        open = false;
+    }
+
+    Snapshot takeSnapshot() {
+        dirty = false;
+        return new Snapshot(roomId, open ? 1L : 0L);
+    }
+
+    // 액터 스레드 밖(flush)으로 넘기는 불변 값
+    record Snapshot(Long roomId, Long roomState) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.red.yogaback.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 방 상태(room_state)의 write-behind. 인원(room_count)은 RoomSeats 의 조건부 UPDATE 로 바로 반영되므로 쓰지 않는다.
+ * RoomActors 가 넘긴 스냅샷을 방별 최신 값만 메모리에 모아 두었다가
+ * interval-ms 주기 또는 batch-size 개가 쌓이면 JDBC batch UPDATE 로 한 번에 반영한다.
+ * 닫힌 방(room_state = 0)은 다시 열지 않으므로, 늦게 반영되는 오래된 값이 다른 노드의 닫기를 덮어쓰지 않는다.
+ * 종료 시(@PreDestroy) 남은 변경을 모두 반영한다. roomActorExecutor 가 이 빈에 의존하므로 액터 워커가 먼저 멈춘 뒤에 실행된다.
+ */
+@Slf4j
+@Component
+public class RoomStateWriter {
+
+    private static final String UPDATE_SQL = "UPDATE room SET room_state = ? WHERE room_id = ? AND room_state <> 0";
+
+    // 반영 전 변경. 쓰기가 끝난 뒤 같은 값일 때만 지우므로 그 사이 들어온 최신 값은 남는다
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // batch-size 도달로 예약된 flush 가 이미 있으면 중복 예약하지 않음
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskExecutor flushExecutor;
+    private final int batchSize;
+
+    private final DistributionSummary flushSize;
+    private final Timer flushLatency;
+    private final Timer lag;
+    private final Counter failedCounter;
+
+    public RoomStateWriter(JdbcTemplate jdbcTemplate,
+                           @Qualifier("roomFlushExecutor") TaskExecutor flushExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${room.write-behind.batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushExecutor = flushExecutor;
+        this.batchSize = batchSize;
+
+        this.flushSize = DistributionSummary.builder("room.write_behind.flush.size").register(meterRegistry);
+        this.flushLatency = Timer.builder("room.write_behind.flush.latency").register(meterRegistry);
+        // 변경이 메모리에 들어온 뒤 DB 에 반영되기까지 걸린 시간
+        this.lag = Timer.builder("room.write_behind.lag").register(meterRegistry);
+        this.failedCounter = meterRegistry.counter("room.write_behind.failed");
+        Gauge.builder("room.write_behind.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    public void enqueue(RoomState.Snapshot snapshot) {
+        pending.merge(snapshot.roomId(), new Pending(snapshot, System.nanoTime()),
+                // 같은 방이 이미 대기 중이면 값만 최신으로, lag 기준 시각은 처음 것을 유지
+                (previous, latest) -> new Pending(latest.snapshot, previous.enqueuedAt));
+        if (pending.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    // 아직 DB 에 반영되지 않은 변경이 있는지 (반영 중 포함)
+    public boolean isPending(Long roomId) {
+        return pending.containsKey(roomId);
+    }
+
+    @Scheduled(fixedDelayString = "${room.write-behind.interval-ms:200}")
+    public void flush() {
+        // 여러 스레드가 동시에 쓰면 같은 방의 오래된 값이 나중에 반영될 수 있으므로 한 번에 하나만
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushRequested.set(false);
+            flushAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLock.lock();
+        try {
+            flushAll();
+            if (!pending.isEmpty()) {
+                log.error("종료 전 방 상태 {}건을 DB 에 반영하지 못했습니다.", pending.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushAll() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        for (Pending entry : pending.values()) {
+            batch.add(entry);
+            if (batch.size() == batchSize) {
+                if (!write(batch)) {
+                    return;
+                }
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private boolean write(List<Pending> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (Pending entry : batch) {
+            RoomState.Snapshot snapshot = entry.snapshot;
+            args.add(new Object[]{snapshot.roomState(), snapshot.roomId()});
+        }
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+        } catch (RuntimeException e) {
+            // 대기 목록에 그대로 남아 있으므로 다음 주기에 다시 시도
+            failedCounter.increment();
+            log.error("방 상태 batch 반영 실패: {}건", batch.size(), e);
+            return false;
+        }
+        long end = System.nanoTime();
+        flushLatency.record(end - start, TimeUnit.NANOSECONDS);
+        flushSize.record(batch.size());
+        for (Pending entry : batch) {
+            lag.record(end - entry.enqueuedAt, TimeUnit.NANOSECONDS);
+            pending.remove(entry.snapshot.roomId(), entry);
+        }
+        return true;
+    }
+
+    private record Pending(RoomState.Snapshot snapshot, long enqueuedAt) {
+    }
+}
@@ -1,30 +1,136 @@
 package com.red.yogaback.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.red.yogaback.constant.LobbyEventType;
 import com.red.yogaback.dto.request.RoomRequest;
-import lombok.RequiredArgsConstructor;
+import com.red.yogaback.dto.respond.LobbyEvent;
+import com.red.yogaback.dto.respond.LobbyPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
+/**
+ * 로비 SSE 구독 관리 및 방 변경 delta 브로드캐스트.
+ * publish 는 구독자별 bounded 큐에 넣기만 하고, 실제 전송은 sseFanoutExecutor 워커가 수행한다.
+ * 큐가 가득 찬 느린 구독자는 overflow-policy 에 따라 연결을 끊거나, 밀린 delta 를 버리고 현재 페이지 snapshot 으로 다시 맞춘다.
+ * 연결은 오래 유지하고(timeout + jitter) 주기적인 주석 heartbeat 로 프록시 idle timeout 을 막으며,
+ * heartbeat 쓰기가 실패하거나 전송이 멈춘 구독자는 끊긴 연결로 보고 정리한다.
+ * 재접속 지연(retry)은 구독자마다 jitter 를 더해 한꺼번에 재접속하지 않도록 한다.
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class SseEmitterService {
 
+    public enum OverflowPolicy {
+        DISCONNECT, // 연결 종료 → 클라이언트가 Last-Event-ID 로 재접속해 놓친 이벤트를 받음
+        RESYNC      // 밀린 delta 를 버리고 다음 프레임을 현재 페이지 snapshot 으로 보냄 (delta 순서가 끊기지 않도록)
+    }
+
+    private final Map<String, LobbySubscriber> emitterMap = new ConcurrentHashMap<>();
+    private static final SseFrame HEARTBEAT = SseFrame.comment("ping");
+
+    // 재접속 클라이언트에게 다시 보내줄 최근 delta 이벤트 (seq 오름차순)
+    private final Deque<LobbyEvent> recentEvents = new ArrayDeque<>();
+    private final Object eventLock = new Object();
 
-    private final Map<String, SseEmitter> emitterMap = new ConcurrentHashMap<>();
-    private static final long TIMEOUT = 60 * 1000;
-    private static final long RECONNECTION_TIMEOUT = 1000L;
+    // 서버 재시작 후에도 이전 seq 보다 커지도록 기동 시각(ms)에서 시작
+    private long lastSeq = System.currentTimeMillis();
 
-    public SseEmitter subscribe(List<RoomRequest> allRooms) {
+    private final TaskExecutor fanoutExecutor;
+    private final ObjectMapper objectMapper;
+    private final int replayBufferSize;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long timeoutMs;
+    private final long timeoutJitterMs;
+    private final long retryMs;
+    private final long retryJitterMs;
+    private final long stallTimeoutMs;
+    private final LongSupplier clock;
+
+    private final Counter evictedCounter;
+    private final Counter resyncCounter;
+    private final Counter sentCounter;
+    private final Counter heartbeatCounter;
+    private final Counter stalledCounter;
+    private final DistributionSummary encodedBytes;
+
+    @Autowired
+    public SseEmitterService(@Qualifier("sseFanoutExecutor") TaskExecutor fanoutExecutor,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${lobby.sse.replay-buffer-size:1024}") int replayBufferSize,
+                             @Value("${lobby.sse.fanout.queue-capacity:64}") int queueCapacity,
+                             @Value("${lobby.sse.fanout.overflow-policy:disconnect}") OverflowPolicy overflowPolicy,
+                             @Value("${lobby.sse.timeout-ms:1800000}") long timeoutMs,
+                             @Value("${lobby.sse.timeout-jitter-ms:300000}") long timeoutJitterMs,
+                             @Value("${lobby.sse.retry-ms:2000}") long retryMs,
+                             @Value("${lobby.sse.retry-jitter-ms:8000}") long retryJitterMs,
+                             @Value("${lobby.sse.stall-timeout-ms:45000}") long stallTimeoutMs) {
+        this(fanoutExecutor, objectMapper, meterRegistry, replayBufferSize, queueCapacity, overflowPolicy,
+                timeoutMs, timeoutJitterMs, retryMs, retryJitterMs, stallTimeoutMs, System::currentTimeMillis);
+    }
+
+    SseEmitterService(TaskExecutor fanoutExecutor, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                      int replayBufferSize, int queueCapacity, OverflowPolicy overflowPolicy,
+                      long timeoutMs, long timeoutJitterMs, long retryMs, long retryJitterMs, long stallTimeoutMs,
+                      LongSupplier clock) {
+        this.fanoutExecutor = fanoutExecutor;
+        this.objectMapper = objectMapper;
+        this.replayBufferSize = replayBufferSize;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.timeoutMs = timeoutMs;
+        this.timeoutJitterMs = timeoutJitterMs;
+        this.retryMs = retryMs;
+        this.retryJitterMs = retryJitterMs;
+        this.stallTimeoutMs = stallTimeoutMs;
+        this.clock = clock;
+
+        this.evictedCounter = meterRegistry.counter("lobby.sse.evicted");
+        this.resyncCounter = meterRegistry.counter("lobby.sse.resync");
+        this.sentCounter = meterRegistry.counter("lobby.sse.sent");
+        this.heartbeatCounter = meterRegistry.counter("lobby.sse.heartbeat");
+        this.stalledCounter = meterRegistry.counter("lobby.sse.stalled");
+        this.encodedBytes = DistributionSummary.builder("lobby.sse.frame.bytes").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("lobby.sse.subscribers", emitterMap, Map::size).register(meterRegistry);
+        Gauge.builder("lobby.sse.queue.depth", this, SseEmitterService::totalQueueDepth).register(meterRegistry);
+        Gauge.builder("lobby.sse.queue.depth.max", this, SseEmitterService::maxQueueDepth).register(meterRegistry);
+    }
+
+    /**
+     * 로비 SSE 구독. 구독은 클라이언트가 보고 있는 한 페이지(cursor 이후 pageSize 개)로 한정된다.
+     * lastEventId 이후의 이벤트가 버퍼에 남아 있으면 놓친 delta 만 재전송하고,
+     * 처음 접속했거나 너무 오래된 seq 라면 해당 페이지 snapshot 을 보낸다.
+     */
+    public SseEmitter subscribe(String roomName, LobbyCursor cursor, int pageSize, Long lastEventId,
+                                Supplier<LobbyPage> pageSupplier) {
         SseEmitter emitter = createEmitter();
         String clientId = UUID.randomUUID().toString();
 
@@ -33,9 +139,15 @@ public class SseEmitterService {
             emitter.complete();
         });
 
+        // 컨테이너가 클라이언트 연결 종료를 감지한 경우. 큐에 남은 이벤트도 바로 정리
         emitter.onError(e ->{
             log.info("SSE 서버 에러 발생 : id ={}, message ={}",clientId,e.getMessage());
-            emitter.complete();
+            LobbySubscriber subscriber = emitterMap.get(clientId);
+            if (subscriber != null) {
+                evict(subscriber, "연결 오류: " + e.getMessage());
+            } else {
+                emitter.complete();
+            }
         });
 
         emitter.onCompletion(()->{
@@ -45,43 +157,334 @@ public class SseEmitterService {
             log.info("SSE 연결 해제 완료: id = {}",clientId);
         });
 
-        emitterMap.put(clientId, emitter);
-        log.info("allRooms: {}",allRooms);
-        try {
-            emitter.send(SseEmitter.event()
-                    .name("초기 방")
-                    .data(allRooms)
-                    .reconnectTime(RECONNECTION_TIMEOUT));
-        } catch (IOException e){
-            emitter.completeWithError(e);
+        // 등록과 초기 이벤트 적재를 publish 와 같은 락 안에서 처리해야 그 사이의 이벤트가 빠지지 않는다.
+        // 초기 이벤트도 같은 큐로 보내야 이후 delta 와 순서가 보장된다.
+        LobbySubscriber subscriber;
+        synchronized (eventLock) {
+            LobbyPage page = pageSupplier.get();
+            subscriber = new LobbySubscriber(clientId, emitter, roomName, cursor, pageSize, pageSupplier, page, queueCapacity,
+                    clock.getAsLong());
+            emitterMap.put(clientId, subscriber);
+            List<LobbyEvent> missed = lastEventId == null ? null : eventsAfter(lastEventId);
+            // 방이 생기거나 사라졌으면 다시 계산한 페이지와 클라이언트가 보던 페이지가 다를 수 있음
+            // (앞쪽 방이 빠지면 다음 방이 페이지로 당겨지지만 그 방의 delta 는 없음) → snapshot 으로 맞춤
+            if (missed != null && changesMembership(missed)) {
+                log.info("SSE 재접속: id = {}, lastEventId = {}, 페이지 구성 변경으로 snapshot 전송", clientId, lastEventId);
+                missed = null;
+            }
+            List<SseFrame> initialEvents = new ArrayList<>();
+            // 큐에 가장 먼저 넣어 이후 재접속 시 적용되도록 함
+            initialEvents.add(SseFrame.retry(jittered(retryMs, retryJitterMs)));
+            if (missed != null) {
+                log.info("SSE 재접속: id = {}, lastEventId = {}, 재전송 {}건", clientId, lastEventId, missed.size());
+                for (LobbyEvent event : missed) {
+                    if (subscriber.acceptsReplay(event)) {
+                        initialEvents.add(toFrame(event));
+                    }
+                }
+            } else {
+                initialEvents.add(snapshotFrame(page));
+            }
+            // 재전송량이 큐보다 많으면 delta 로 따라잡을 수 없으므로 snapshot 으로 대체
+            if (initialEvents.size() > queueCapacity) {
+                initialEvents = List.of(initialEvents.get(0), snapshotFrame(page));
+            }
+            initialEvents.forEach(subscriber.queue::offer);
         }
+        schedule(subscriber);
 
     return emitter;
 
     }
 
-    private SseEmitter createEmitter() {
-        return new SseEmitter(TIMEOUT);
+    // 같은 시각에 접속한 클라이언트들이 같은 시각에 끊기지 않도록 timeout 에도 jitter
+    SseEmitter createEmitter() {
+        return new SseEmitter(jittered(timeoutMs, timeoutJitterMs));
+
+    }
+
+    public void publishRoomAdded(RoomRequest room) {
+        publish(LobbyEventType.ROOM_ADDED, room.getRoomId(), room);
+    }
+
+    public void publishRoomUpdated(RoomRequest room) {
+        publish(LobbyEventType.ROOM_UPDATED, room.getRoomId(), room);
+    }
+
+    public void publishRoomRemoved(Long roomId) {
+        publish(LobbyEventType.ROOM_REMOVED, roomId, null);
+    }
+
+    private void publish(LobbyEventType type, Long roomId, RoomRequest room) {
+        List<LobbySubscriber> ready = new ArrayList<>();
+        synchronized (eventLock) {
+            LobbyEvent event = LobbyEvent.builder()
+                    .seq(++lastSeq)
+                    .type(type.getEventName())
+                    .roomId(roomId)
+                    .room(room)
+                    .build();
+            recentEvents.addLast(event);
+            while (recentEvents.size() > replayBufferSize) {
+                recentEvents.pollFirst();
+            }
+            if (emitterMap.isEmpty()) {
+                return;
+            }
+            // 구독자 수와 무관하게 직렬화는 이벤트당 한 번. 같은 바이트를 모든 구독자가 공유
+            SseFrame frame = toFrame(event);
+            encodedBytes.record(frame.size());
+            for (LobbySubscriber subscriber : emitterMap.values()) {
+                // snapshot 을 기다리는 구독자는 그 snapshot 에 이 이벤트까지 반영되므로 건너뜀
+                if (subscriber.resyncPending || !subscriber.accepts(event)) {
+                    continue;
+                }
+                if (subscriber.queue.offer(frame) || handleOverflow(subscriber)) {
+                    ready.add(subscriber);
+                }
+            }
+        }
+        // 실제 전송은 워커에서. 호출 스레드(요청/STOMP)는 여기서 바로 반환된다.
+        ready.forEach(this::schedule);
+    }
+
+    /**
+     * 대기 중인 이벤트가 없는 구독자에게 heartbeat 를 보낸다.
+     * 끊긴 TCP 연결은 쓰기에서 예외가 나므로 drain 에서 정리되고,
+     * 쓰기가 stall-timeout 이상 진행되지 않는 구독자(막힌 소켓 등)는 여기서 끊는다.
+     */
+    @Scheduled(fixedDelayString = "${lobby.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = clock.getAsLong();
+        for (LobbySubscriber subscriber : emitterMap.values()) {
+            boolean pending = subscriber.draining.get() || !subscriber.queue.isEmpty();
+            if (pending) {
+                if (now - subscriber.lastWriteAt > stallTimeoutMs) {
+                    stalledCounter.increment();
+                    evict(subscriber, "전송 정체 " + (now - subscriber.lastWriteAt) + "ms");
+                }
+                continue;
+            }
+            if (subscriber.queue.offer(HEARTBEAT)) {
+                heartbeatCounter.increment();
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * 큐가 가득 찬 구독자 처리 (eventLock 안에서 호출). 전송 워커를 예약해야 하면 true.
+     * 이벤트 하나만 버리면 클라이언트의 delta 순서가 끊기므로, 끊고 재접속시키거나 snapshot 으로 다시 맞춘다.
+     */
+    private boolean handleOverflow(LobbySubscriber subscriber) {
+        if (overflowPolicy == OverflowPolicy.RESYNC) {
+            // 밀린 delta 는 snapshot 에 모두 반영되므로 버림. snapshot 은 워커가 다음 프레임으로 만든다
+            subscriber.queue.clear();
+            subscriber.resyncPending = true;
+            resyncCounter.increment();
+            log.debug("SSE 큐 가득 참, snapshot 으로 다시 맞춤: id = {}", subscriber.clientId);
+            return true;
+        }
+        evict(subscriber, "큐 가득 참");
+        return false;
+    }
 
+    // 현재 페이지로 구독 범위를 다시 잡고 snapshot 을 큐에 넣는다. id(lastSeq) 와 페이지가 일치하도록 eventLock 안에서
+    private void resync(LobbySubscriber subscriber) {
+        synchronized (eventLock) {
+            LobbyPage page = subscriber.pageSupplier.get();
+            subscriber.reset(page);
+            subscriber.queue.clear();
+            subscriber.queue.offer(snapshotFrame(page));
+            subscriber.resyncPending = false;
+        }
     }
-//    @Async
-    public void notifyRoomUpdate(List<RoomRequest> allRooms){
-        if (emitterMap.isEmpty()){
-            return;
+
+    private void evict(LobbySubscriber subscriber, String reason) {
+        if (emitterMap.remove(subscriber.clientId, subscriber)) {
+            evictedCounter.increment();
+            log.info("SSE 구독자 제거: id = {}, 사유 = {}", subscriber.clientId, reason);
+        }
+        subscriber.queue.clear();
+        try {
+            subscriber.emitter.complete();
+        } catch (Exception ignored) {
+            // 이미 끊긴 연결
         }
-        List<String> deadEmitters = new ArrayList<>();
+    }
 
-        emitterMap.forEach((clientId,emitter)->{
+    // 구독자당 워커 하나만 돌도록 보장해 이벤트 순서를 유지
+    private void schedule(LobbySubscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
             try {
-                emitter.send(SseEmitter.event()
-                        .name("방 업데이트")
-                        .data(allRooms)
-                        .reconnectTime(RECONNECTION_TIMEOUT));
-            } catch (IOException e){
-                deadEmitters.add(clientId);
+                fanoutExecutor.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                subscriber.draining.set(false);
+                evict(subscriber, "전송 워커 거부");
             }
-        });
-        deadEmitters.forEach(emitterMap::remove);
+        }
+    }
+
+    private void drain(LobbySubscriber subscriber) {
+        try {
+            while (true) {
+                if (subscriber.resyncPending) {
+                    resync(subscriber);
+                }
+                SseFrame frame = subscriber.queue.poll();
+                if (frame == null) {
+                    break;
+                }
+                try {
+                    frame.writeTo(subscriber.emitter);
+                    subscriber.lastWriteAt = clock.getAsLong();
+                    sentCounter.increment();
+                } catch (IOException | IllegalStateException e) {
+                    evict(subscriber, "전송 실패: " + e.getMessage());
+                    return;
+                }
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // draining 해제 직전에 들어온 이벤트나 snapshot 요청이 있으면 다시 예약
+        if ((subscriber.resyncPending || !subscriber.queue.isEmpty()) && emitterMap.containsKey(subscriber.clientId)) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * lastEventId 이후 이벤트 목록. 버퍼로 이어 붙일 수 없으면 null (snapshot 필요).
+     */
+    private List<LobbyEvent> eventsAfter(long lastEventId) {
+        if (lastEventId > lastSeq) {
+            return null;
+        }
+        if (lastEventId == lastSeq) {
+            return List.of();
+        }
+        LobbyEvent oldest = recentEvents.peekFirst();
+        if (oldest == null || oldest.getSeq() > lastEventId + 1) {
+            return null;
+        }
+        List<LobbyEvent> missed = new ArrayList<>();
+        for (LobbyEvent event : recentEvents) {
+            if (event.getSeq() > lastEventId) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    // 방 목록(페이지 구성)은 added / removed 로만 바뀐다. updated 는 보이는 방의 내용만 바꿈
+    static boolean changesMembership(List<LobbyEvent> events) {
+        for (LobbyEvent event : events) {
+            if (!LobbyEventType.ROOM_UPDATED.getEventName().equals(event.getType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // eventLock 안에서 호출해야 snapshot 과 id(lastSeq) 가 일치한다
+    private SseFrame snapshotFrame(LobbyPage page) {
+        return SseFrame.of(String.valueOf(lastSeq), LobbyEventType.SNAPSHOT.getEventName(), page, objectMapper);
+    }
+
+    private SseFrame toFrame(LobbyEvent event) {
+        return SseFrame.of(String.valueOf(event.getSeq()), event.getType(), event, objectMapper);
+    }
+
+    private static long jittered(long base, long jitter) {
+        return jitter <= 0 ? base : base + ThreadLocalRandom.current().nextLong(jitter + 1);
+    }
+
+    private double totalQueueDepth() {
+        long depth = 0;
+        for (LobbySubscriber subscriber : emitterMap.values()) {
+            depth += subscriber.queue.size();
+        }
+        return depth;
+    }
+
+    private double maxQueueDepth() {
+        int max = 0;
+        for (LobbySubscriber subscriber : emitterMap.values()) {
+            max = Math.max(max, subscriber.queue.size());
+        }
+        return max;
+    }
+
+    /**
+     * 구독자 한 명과 그 구독자가 보고 있는 페이지 범위.
+     * visibleRoomIds, hasNextPage 는 eventLock 안에서만 읽고 쓴다.
+     *  - updated/removed : 페이지에 보이는 방만 전달
+     *  - added           : 페이지가 아직 차지 않았고 cursor 뒤의 방이면 페이지에 추가하고 전달
+     */
+    private static final class LobbySubscriber {
+        private final String clientId;
+        private final SseEmitter emitter;
+        private final String roomName;
+        private final LobbyCursor cursor;
+        private final int pageSize;
+        // 큐 초과 후 snapshot 으로 다시 맞출 때 현재 페이지를 다시 계산
+        private final Supplier<LobbyPage> pageSupplier;
+        private final Set<Long> visibleRoomIds = new HashSet<>();
+        // 다음 페이지가 있으면 새로 생긴 방은 이 페이지에 들어오지 않는다
+        private boolean hasNextPage;
+        private final BlockingQueue<SseFrame> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        // 마지막으로 쓰기에 성공한 시각 (전송 정체 감지용)
+        private volatile long lastWriteAt;
+        // 큐 초과로 delta 를 버렸으니 다음 프레임은 snapshot 이어야 함 (쓰기는 eventLock 안에서)
+        private volatile boolean resyncPending;
+
+        private LobbySubscriber(String clientId, SseEmitter emitter, String roomName, LobbyCursor cursor,
+                                int pageSize, Supplier<LobbyPage> pageSupplier, LobbyPage page, int queueCapacity,
+                                long now) {
+            this.clientId = clientId;
+            this.emitter = emitter;
+            this.roomName = roomName;
+            this.cursor = cursor;
+            this.pageSize = pageSize;
+            this.pageSupplier = pageSupplier;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.lastWriteAt = now;
+            reset(page);
+        }
+
+        void reset(LobbyPage page) {
+            visibleRoomIds.clear();
+            page.getRooms().forEach(room -> visibleRoomIds.add(room.getRoomId()));
+            hasNextPage = page.getNextCursor() != null;
+        }
+
+        boolean accepts(LobbyEvent event) {
+            if (LobbyEventType.ROOM_REMOVED.getEventName().equals(event.getType())) {
+                return visibleRoomIds.remove(event.getRoomId());
+            }
+            RoomRequest room = event.getRoom();
+            if (room == null) {
+                return false;
+            }
+            if (visibleRoomIds.contains(room.getRoomId())) {
+                return true;
+            }
+            if (LobbyEventType.ROOM_ADDED.getEventName().equals(event.getType())
+                    && !hasNextPage
+                    && visibleRoomIds.size() < pageSize
+                    && LobbyCursor.of(room.getCreatedAt(), room.getRoomId()).isAfter(cursor)
+                    && RoomNameIndex.matches(room.getRoomName(), roomName)) {
+                visibleRoomIds.add(room.getRoomId());
+                return true;
+            }
+            return false;
+        }
+
+        // 재접속 재전송은 페이지 구성이 그대로일 때(updated 만 있을 때)만 하므로 보이는 방만 전달
+        boolean acceptsReplay(LobbyEvent event) {
+            return event.getRoom() != null && visibleRoomIds.contains(event.getRoom().getRoomId());
+        }
     }
 
 }
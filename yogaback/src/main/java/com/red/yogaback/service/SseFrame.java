@@ -0,0 +1,79 @@
+package com.red.yogaback.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * 한 번 인코딩한 SSE 이벤트 프레임(id/event/retry/data, 또는 주석/retry 만 있는 제어 프레임).
+ * 브로드캐스트 시 JSON 직렬화를 구독자 수만큼 반복하지 않도록 바이트를 만들어 두고
+ * 모든 emitter 에 같은 바이트를 그대로 쓴다. 생성 후 내용은 바뀌지 않는다.
+ */
+public final class SseFrame {
+
+    private final byte[] bytes;
+    private final Set<ResponseBodyEmitter.DataWithMediaType> items;
+
+    private SseFrame(byte[] bytes) {
+        this.bytes = bytes;
+        // byte[] 는 ByteArrayHttpMessageConverter 로 변환 없이 그대로 쓰인다
+        this.items = Set.of(new ResponseBodyEmitter.DataWithMediaType(bytes, MediaType.TEXT_EVENT_STREAM));
+    }
+
+    // retry 없이 인코딩. 재접속 지연은 구독자마다 다르므로 공유 프레임에는 넣지 않는다
+    public static SseFrame of(String id, String name, Object data, ObjectMapper objectMapper) {
+        return of(id, name, data, null, objectMapper);
+    }
+
+    public static SseFrame of(String id, String name, Object data, Long reconnectTime, ObjectMapper objectMapper) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("SSE 데이터 직렬화 실패: " + name, e);
+        }
+        // Jackson 출력은 한 줄이므로 data: 한 줄로 충분하다
+        StringBuilder sb = new StringBuilder(json.length() + 64);
+        if (id != null) {
+            sb.append("id:").append(id).append('\n');
+        }
+        if (name != null) {
+            sb.append("event:").append(name).append('\n');
+        }
+        if (reconnectTime != null) {
+            sb.append("retry:").append(reconnectTime).append('\n');
+        }
+        sb.append("data:").append(json).append('\n');
+        sb.append('\n');
+        return new SseFrame(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 클라이언트가 무시하는 주석 줄. 프록시 idle timeout 방지 + 끊긴 연결 감지용 heartbeat
+    public static SseFrame comment(String comment) {
+        return new SseFrame((":" + comment + "\n\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 데이터 없는 retry 필드만 보내 재접속 지연을 알림 (이벤트로 dispatch 되지 않음)
+    public static SseFrame retry(long reconnectTime) {
+        return new SseFrame(("retry:" + reconnectTime + "\n\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void writeTo(SseEmitter emitter) throws IOException {
+        emitter.send(items);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+
+    public int size() {
+        return bytes.length;
+    }
+}
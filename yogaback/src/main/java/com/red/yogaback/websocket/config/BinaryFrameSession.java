@@ -0,0 +1,68 @@
+package com.red.yogaback.websocket.config;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * STOMP 는 content-type 이 application/octet-stream 인 프레임만 바이너리로 보내므로,
+ * CBOR 본문(content-type: application/cbor)을 담은 프레임도 텍스트가 아닌 바이너리 WebSocket 프레임으로 내보냅니다.
+ * (텍스트 프레임으로 보내면 UTF-8 로 다시 인코딩되며 본문이 깨짐)
+ */
+class BinaryFrameSession extends WebSocketSessionDecorator {
+
+    private static final byte[] CBOR_CONTENT_TYPE = "content-type:application/cbor".getBytes(StandardCharsets.UTF_8);
+
+    BinaryFrameSession(WebSocketSession delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (message instanceof TextMessage text) {
+            // TextMessage(byte[]) 로 만든 프레임은 원본 바이트를 그대로 돌려줌
+            byte[] frame = text.asBytes();
+            if (hasCborBody(frame)) {
+                super.sendMessage(new BinaryMessage(frame));
+                return;
+            }
+        }
+        super.sendMessage(message);
+    }
+
+    // 헤더 영역(빈 줄 전까지)에 content-type:application/cbor 줄이 있는지
+    static boolean hasCborBody(byte[] frame) {
+        int lineStart = 0;
+        for (int i = 0; i < frame.length; i++) {
+            if (frame[i] != '\n') {
+                continue;
+            }
+            int lineEnd = i > lineStart && frame[i - 1] == '\r' ? i - 1 : i;
+            if (lineEnd == lineStart && lineStart > 0) {
+                return false;
+            }
+            if (lineStart > 0 && startsWith(frame, lineStart, lineEnd)) {
+                return true;
+            }
+            lineStart = i + 1;
+        }
+        return false;
+    }
+
+    private static boolean startsWith(byte[] frame, int from, int to) {
+        if (to - from < CBOR_CONTENT_TYPE.length) {
+            return false;
+        }
+        for (int i = 0; i < CBOR_CONTENT_TYPE.length; i++) {
+            if (frame[from + i] != CBOR_CONTENT_TYPE[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
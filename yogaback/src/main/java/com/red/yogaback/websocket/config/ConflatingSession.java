@@ -0,0 +1,251 @@
+package com.red.yogaback.websocket.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 세션 하나의 발신 큐. sendMessage 는 큐에 넣기만 하고, 큐는 OutboundConflation 의 executor 에서
+ * 한 번에 하나의 drain 작업이 순서대로 보냅니다 (OutboundConflation 참고).
+ *
+ * 병합되는 프레임도 이전 것을 제자리에서 바꾸지 않고 큐 끝에 다시 넣으므로,
+ * 최신 상태가 그보다 먼저 나간 이벤트를 앞지르지 않습니다.
+ */
+class ConflatingSession extends WebSocketSessionDecorator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConflatingSession.class);
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+
+    private final OutboundConflation conflation;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Frame> queue = new ArrayDeque<>();
+    // 병합 키 -> 큐에 있는 최신 프레임
+    private final Map<String, Frame> latest = new HashMap<>();
+
+    private int bufferedBytes;
+    private boolean draining;
+    private boolean closed;
+    // 큐를 다 보낸 뒤 닫기 (close 가 drain 중에 불린 경우)
+    private CloseStatus pendingClose;
+    private int conflated;
+    private int dropped;
+    // 지금 보내는 프레임의 시작 시각 (nanoTime)
+    private volatile long sendStartedAt = NOT_SENDING;
+
+    ConflatingSession(WebSocketSession delegate, OutboundConflation conflation) {
+        super(delegate);
+        this.conflation = conflation;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        OutboundConflation.Key key = message instanceof TextMessage text ? conflation.keyOf(text.asBytes()) : null;
+        Frame frame = new Frame(message, key, message.getPayloadLength());
+        String limitExceeded = null;
+        boolean startDrain = false;
+        lock.lock();
+        try {
+            if (closed) {
+                dropped++;
+                conflation.dropped("closed", 1);
+                return;
+            }
+            if (key != null) {
+                Frame previous = latest.put(key.value(), frame);
+                if (previous != null) {
+                    previous.superseded = true;
+                    bufferedBytes -= previous.size;
+                    conflated++;
+                    key.rule().conflated().increment();
+                }
+            }
+            queue.add(frame);
+            bufferedBytes += frame.size;
+            long started = sendStartedAt;
+            if (started != NOT_SENDING && System.nanoTime() - started > conflation.sendTimeLimitNanos()) {
+                limitExceeded = "send_time";
+            } else if (bufferedBytes > conflation.sendBufferSizeLimit()) {
+                limitExceeded = "buffer_size";
+            }
+            if (limitExceeded != null) {
+                conflation.dropped(limitExceeded, clear());
+            } else if (!draining) {
+                draining = true;
+                startDrain = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (limitExceeded != null) {
+            logger.warn("세션 {} 발신 한도 초과({}), 연결을 닫습니다", getId(), limitExceeded);
+            closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+            return;
+        }
+        if (startDrain) {
+            conflation.executor().execute(this::drain);
+        }
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        boolean stalled = false;
+        lock.lock();
+        try {
+            if (draining && !closed) {
+                long started = sendStartedAt;
+                if (started == NOT_SENDING || System.nanoTime() - started <= conflation.sendTimeLimitNanos()) {
+                    // 이미 큐에 넣은 프레임(ERROR 등)을 먼저 보내고 닫음
+                    pendingClose = status;
+                    return;
+                }
+                // 보내는 중인 프레임이 한도를 넘겨 멈춰 있으면 기다리지 않고 남은 프레임을 버리고 바로 닫음
+                conflation.dropped("send_time", clear());
+                stalled = true;
+            }
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        if (stalled) {
+            logger.warn("세션 {} 발신이 한도를 넘겨 멈춰 있어 기다리지 않고 닫습니다", getId());
+        }
+        super.close(status);
+    }
+
+    private void drain() {
+        while (true) {
+            Frame frame;
+            CloseStatus closeAfter = null;
+            lock.lock();
+            try {
+                frame = closed ? null : next();
+                if (frame == null) {
+                    draining = false;
+                    closeAfter = pendingClose;
+                    pendingClose = null;
+                } else {
+                    bufferedBytes -= frame.size;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (frame == null) {
+                if (closeAfter != null) {
+                    closeQuietly(closeAfter);
+                }
+                return;
+            }
+            sendStartedAt = System.nanoTime();
+            try {
+                super.sendMessage(frame.message);
+            } catch (IOException | RuntimeException e) {
+                logger.debug("세션 {} 발신 실패: {}", getId(), e.getMessage());
+                lock.lock();
+                try {
+                    dropped++;
+                    conflation.dropped("send_error", clear() + 1);
+                    draining = false;
+                    pendingClose = null;
+                } finally {
+                    lock.unlock();
+                }
+                closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+                return;
+            } finally {
+                sendStartedAt = NOT_SENDING;
+            }
+        }
+    }
+
+    // 연결이 끝난 뒤 남은 프레임 버림
+    void discard() {
+        lock.lock();
+        try {
+            if (!closed) {
+                conflation.dropped("closed", clear());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int conflatedCount() {
+        lock.lock();
+        try {
+            return conflated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int droppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // lock 안에서 호출. 병합으로 대체된 프레임은 건너뜀
+    private Frame next() {
+        Frame frame;
+        while ((frame = queue.poll()) != null) {
+            if (frame.superseded) {
+                continue;
+            }
+            if (frame.key != null) {
+                latest.remove(frame.key.value(), frame);
+            }
+            return frame;
+        }
+        return null;
+    }
+
+    // lock 안에서 호출. 세션을 닫힌 상태로 두고 버린 프레임 수를 돌려줌
+    private int clear() {
+        int remaining = 0;
+        for (Frame frame : queue) {
+            if (!frame.superseded) {
+                remaining++;
+            }
+        }
+        queue.clear();
+        latest.clear();
+        bufferedBytes = 0;
+        closed = true;
+        dropped += remaining;
+        return remaining;
+    }
+
+    private void closeQuietly(CloseStatus status) {
+        try {
+            super.close(status);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("세션 {} 닫기 실패: {}", getId(), e.getMessage());
+        }
+    }
+
+    private static final class Frame {
+        private final WebSocketMessage<?> message;
+        private final OutboundConflation.Key key;
+        private final int size;
+        private boolean superseded;
+
+        private Frame(WebSocketMessage<?> message, OutboundConflation.Key key, int size) {
+            this.message = message;
+            this.key = key;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.red.yogaback.websocket.config;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 목적지 패턴(Ant 스타일) 규칙 목록과 목적지별 매칭 결과 캐시.
+ * 규칙은 목록 순서대로 보고 먼저 맞는 하나를 씁니다. 방 목적지는 방 수만큼 늘어나므로 캐시가 상한에 닿으면 비웁니다.
+ * OutboundConflation, RateLimitInterceptor, StompTracingInterceptor 가 같이 씁니다.
+ */
+final class DestinationRules<R> {
+
+    static final int MAX_CACHED_DESTINATIONS = 10_000;
+    private static final int NO_MATCH = -1;
+
+    private final List<R> rules;
+    private final Function<R, String> pattern;
+    private final R fallback;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    // 목적지 -> 맞는 규칙 index (없으면 NO_MATCH)
+    private final Map<String, Integer> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param pattern  규칙의 목적지 패턴
+     * @param fallback 맞는 규칙이 없거나 목적지가 없을 때 (null 가능)
+     */
+    DestinationRules(List<R> rules, Function<R, String> pattern, R fallback) {
+        this.rules = List.copyOf(rules);
+        this.pattern = pattern;
+        this.fallback = fallback;
+    }
+
+    R ruleFor(String destination) {
+        if (destination == null) {
+            return fallback;
+        }
+        Integer index = cache.get(destination);
+        if (index == null) {
+            index = match(destination);
+            if (cache.size() >= MAX_CACHED_DESTINATIONS) {
+                cache.clear();
+            }
+            cache.put(destination, index);
+        }
+        return index == NO_MATCH ? fallback : rules.get(index);
+    }
+
+    int cachedDestinations() {
+        return cache.size();
+    }
+
+    private int match(String destination) {
+        for (int i = 0; i < rules.size(); i++) {
+            if (pathMatcher.match(pattern.apply(rules.get(i)), destination)) {
+                return i;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    // 쉼표로 나눈 설정 값 목록 (앞뒤 공백 제거, 빈 항목 제외)
+    static List<String> parseList(String value) {
+        List<String> parsed = new ArrayList<>();
+        if (value == null) {
+            return parsed;
+        }
+        for (String entry : value.split(",")) {
+            if (!entry.isBlank()) {
+                parsed.add(entry.trim());
+            }
+        }
+        return parsed;
+    }
+}
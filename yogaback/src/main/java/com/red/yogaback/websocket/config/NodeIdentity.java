@@ -0,0 +1,37 @@
+package com.red.yogaback.websocket.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 이 서버(node)의 식별자와 클라이언트가 직접 접속할 WebSocket 주소.
+ * 세션 레지스트리(shared)와 방 라우팅(RoomRouter)이 같은 nodeId 를 씁니다.
+ */
+@Component
+public class NodeIdentity {
+
+    private static final Logger logger = LoggerFactory.getLogger(NodeIdentity.class);
+
+    private final String nodeId;
+    private final String wsUrl;
+
+    public NodeIdentity(@Value("${websocket.node-id:}") String nodeId,
+                        @Value("${websocket.node-url:}") String wsUrl) {
+        // 설정이 없으면 기동할 때마다 새 ID (재시작 시 이전 세션/소유권은 TTL 로 정리됨)
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.wsUrl = wsUrl;
+        logger.info("Node identity: nodeId={}, wsUrl={}", this.nodeId, wsUrl);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getWsUrl() {
+        return wsUrl;
+    }
+}
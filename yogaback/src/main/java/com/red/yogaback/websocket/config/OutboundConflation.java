@@ -0,0 +1,357 @@
+package com.red.yogaback.websocket.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.red.yogaback.websocket.service.PayloadCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * 세션별 발신 큐의 최신 값 병합(conflation).
+ *
+ * 동작:
+ *  - 세션마다 ConflatingSession 이 발신 큐를 직접 들고, drain 작업 하나가 큐를 순서대로 비웁니다.
+ *    drain executor 는 websocket.channel.executor 모드를 따릅니다 (StompChannelExecutors#newExecutor).
+ *    sendMessage 는 큐에 넣기만 하므로 ConcurrentWebSocketSessionDecorator 버퍼에 프레임이 쌓이지 않습니다.
+ *  - websocket.outbound.conflation.rules 의 payload type 은 최신 값만 의미가 있는 상태 메시지입니다.
+ *    같은 키(목적지 + 규칙 + 구분 필드 값)의 프레임이 아직 큐에 있으면 이전 것을 버리고 새 것을 큐 끝에 넣습니다.
+ *    규칙 형식은 "type1|type2:구분필드" 이고 쉼표로 여러 개 (예: user_ready|user_not_ready:fromPeerId).
+ *  - 규칙과 구분 필드 값은 clientOutboundChannel 의 outbound() 인터셉터가 payload 를 한 번만 읽어 구하고
+ *    conflation-key 헤더로 프레임에 붙입니다. 방 브로드캐스트는 구독자 수만큼 같은 payload 로 나가므로
+ *    마지막 결과를 재사용하고, 세션 큐는 헤더만 훑습니다 (클라이언트는 모르는 헤더를 무시).
+ *  - 규칙에 없는 메시지(SDP, ICE 등)와 목적지 패턴에 맞지 않는 프레임은 그대로 FIFO 입니다.
+ *  - 큐에 남은 바이트가 send-buffer-size-limit 를 넘거나, 보내는 중인 프레임이 send-time-limit-ms 를 넘기면
+ *    세션을 SESSION_NOT_RELIABLE 로 닫고 남은 프레임은 버립니다 (WebSocketConfig 전송 설정과 같은 한도).
+ *  - 병합/버린 프레임은 websocket.outbound.conflated (rule 태그) / websocket.outbound.dropped (reason 태그) 로 세고,
+ *    세션이 끝날 때 세션별 개수를 websocket.outbound.session.conflated / .dropped 분포로 남깁니다.
+ *  - enabled=false 면 세션을 감싸지 않습니다.
+ */
+@Component
+public class OutboundConflation {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboundConflation.class);
+
+    private static final byte[] MESSAGE_COMMAND = "MESSAGE".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DESTINATION_HEADER = "destination:".getBytes(StandardCharsets.UTF_8);
+    static final String KEY_HEADER = "conflation-key";
+    private static final byte[] KEY_HEADER_PREFIX = (KEY_HEADER + ":").getBytes(StandardCharsets.UTF_8);
+
+    private final boolean enabled;
+    private final DestinationRules<String> destinations;
+    // payload type -> 규칙
+    private final Map<String, Rule> rulesByType;
+    // 규칙 이름 -> 규칙 (conflation-key 헤더에서 찾음)
+    private final Map<String, Rule> rulesByName = new HashMap<>();
+    // 본문에서 type 과 함께 읽을 구분 필드
+    private final Set<String> partitionFields;
+    private final long sendTimeLimitMs;
+    private final int sendBufferSizeLimit;
+    private final PayloadCodec payloadCodec;
+    private final Executor executor;
+    // 마지막으로 읽은 (payload, conflation-key). 같은 payload 를 구독자마다 다시 읽지 않음
+    private final AtomicReference<ComputedKey> lastComputed = new AtomicReference<>();
+
+    private final Map<String, ConflatingSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Counter> droppedCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary sessionConflated;
+    private final DistributionSummary sessionDropped;
+
+    @Autowired
+    public OutboundConflation(@Value("${websocket.outbound.conflation.enabled:true}") boolean enabled,
+                              @Value("${websocket.outbound.conflation.destinations:/topic/**}") String destinations,
+                              @Value("${websocket.outbound.conflation.rules:leaderboard,user_ready|user_not_ready:fromPeerId}") String rules,
+                              @Value("${websocket.outbound.send-time-limit-ms:15000}") long sendTimeLimitMs,
+                              @Value("${websocket.outbound.send-buffer-size-limit:524288}") int sendBufferSizeLimit,
+                              PayloadCodec payloadCodec,
+                              MeterRegistry meterRegistry,
+                              StompChannelExecutors channelExecutors) {
+        this(enabled, destinations, rules, sendTimeLimitMs, sendBufferSizeLimit, payloadCodec, meterRegistry,
+                channelExecutors.newExecutor("ws-send-"));
+    }
+
+    OutboundConflation(boolean enabled, String destinations, String rules, long sendTimeLimitMs,
+                       int sendBufferSizeLimit, PayloadCodec payloadCodec, MeterRegistry meterRegistry,
+                       Executor executor) {
+        this.enabled = enabled;
+        this.destinations = new DestinationRules<>(DestinationRules.parseList(destinations), Function.identity(), null);
+        this.rulesByType = parseRules(rules, meterRegistry);
+        this.partitionFields = new LinkedHashSet<>();
+        for (Rule rule : rulesByType.values()) {
+            rulesByName.put(rule.name(), rule);
+            if (rule.field() != null) {
+                partitionFields.add(rule.field());
+            }
+        }
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.payloadCodec = payloadCodec;
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+        this.sessionConflated = DistributionSummary.builder("websocket.outbound.session.conflated")
+                .description("세션 하나가 끝날 때까지 병합된 프레임 수")
+                .register(meterRegistry);
+        this.sessionDropped = DistributionSummary.builder("websocket.outbound.session.dropped")
+                .description("세션 하나가 끝날 때까지 버린 프레임 수")
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.sessions", sessions, Map::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long sendTimeLimitMs() {
+        return sendTimeLimitMs;
+    }
+
+    public int sendBufferSizeLimit() {
+        return sendBufferSizeLimit;
+    }
+
+    public WebSocketSession decorate(WebSocketSession session) {
+        if (!enabled) {
+            return session;
+        }
+        ConflatingSession conflating = new ConflatingSession(session, this);
+        sessions.put(session.getId(), conflating);
+        return conflating;
+    }
+
+    // 연결이 끝난 세션의 남은 큐를 버리고 세션별 개수를 기록
+    public void release(String sessionId) {
+        ConflatingSession session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        session.discard();
+        sessionConflated.record(session.conflatedCount());
+        sessionDropped.record(session.droppedCount());
+        if (session.droppedCount() > 0) {
+            logger.info("세션 {} 발신 프레임 {}개 버림 (병합 {}개)",
+                    sessionId, session.droppedCount(), session.conflatedCount());
+        }
+    }
+
+    Executor executor() {
+        return executor;
+    }
+
+    long sendTimeLimitNanos() {
+        return sendTimeLimitMs * 1_000_000L;
+    }
+
+    void dropped(String reason, int frames) {
+        if (frames <= 0) {
+            return;
+        }
+        droppedCounters.computeIfAbsent(reason, r -> Counter.builder("websocket.outbound.dropped")
+                        .tag("reason", r)
+                        .register(meterRegistry))
+                .increment(frames);
+    }
+
+    /**
+     * clientOutboundChannel 인터셉터: 병합 규칙에 해당하는 MESSAGE 에 conflation-key 헤더를 붙임.
+     * payloadEncodingInterceptor 보다 먼저 등록해 구독자들이 공유하는 원본 payload 를 보도록 합니다.
+     */
+    public ChannelInterceptor outbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                MessageHeaders headers = message.getHeaders();
+                if (!SimpMessageType.MESSAGE.equals(SimpMessageHeaderAccessor.getMessageType(headers))
+                        || !(message.getPayload() instanceof byte[] payload)) {
+                    return message;
+                }
+                String key = conflationKey(SimpMessageHeaderAccessor.getDestination(headers), payload, contentType(headers));
+                if (key == null) {
+                    return message;
+                }
+                // simple broker 가 구독자마다 만든 메시지는 헤더가 열려 있으므로 복사 없이 추가
+                SimpMessageHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
+                if (accessor != null && accessor.isMutable()) {
+                    accessor.setNativeHeader(KEY_HEADER, key);
+                    return message;
+                }
+                accessor = SimpMessageHeaderAccessor.wrap(message);
+                accessor.setNativeHeader(KEY_HEADER, key);
+                return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+            }
+        };
+    }
+
+    /**
+     * payload 의 병합 키 ("규칙 이름/구분 필드 값"). 규칙에 해당하지 않으면 null (FIFO).
+     */
+    String conflationKey(String destination, byte[] payload, MimeType contentType) {
+        if (rulesByType.isEmpty() || destination == null || payload.length == 0 || !matches(destination)) {
+            return null;
+        }
+        ComputedKey last = lastComputed.get();
+        if (last != null && last.payload() == payload) {
+            return last.key();
+        }
+        Map<String, String> fields = readFields(payload, 0, payload.length, PayloadCodec.isCbor(contentType));
+        Rule rule = fields == null ? null : rulesByType.get(fields.get("type"));
+        String key = null;
+        if (rule != null) {
+            String partition = rule.field() == null ? "" : String.valueOf(fields.get(rule.field()));
+            key = rule.name() + '/' + partition;
+        }
+        lastComputed.set(new ComputedKey(payload, key));
+        return key;
+    }
+
+    /**
+     * STOMP MESSAGE 프레임의 병합 키. 헤더(destination, conflation-key)만 읽고 본문은 읽지 않습니다.
+     * conflation-key 가 없으면 null (FIFO).
+     */
+    Key keyOf(byte[] frame) {
+        if (rulesByName.isEmpty() || !startsWith(frame, 0, frame.length, MESSAGE_COMMAND)) {
+            return null;
+        }
+        String destination = null;
+        String key = null;
+        int lineStart = 0;
+        for (int i = 0; i < frame.length; i++) {
+            if (frame[i] != '\n') {
+                continue;
+            }
+            int lineEnd = i > lineStart && frame[i - 1] == '\r' ? i - 1 : i;
+            // 빈 줄: 헤더 끝
+            if (lineEnd == lineStart && lineStart > 0) {
+                break;
+            }
+            if (lineStart > 0) {
+                if (destination == null && startsWith(frame, lineStart, lineEnd, DESTINATION_HEADER)) {
+                    destination = headerValue(frame, lineStart + DESTINATION_HEADER.length, lineEnd);
+                } else if (key == null && startsWith(frame, lineStart, lineEnd, KEY_HEADER_PREFIX)) {
+                    key = headerValue(frame, lineStart + KEY_HEADER_PREFIX.length, lineEnd);
+                }
+            }
+            lineStart = i + 1;
+        }
+        if (destination == null || key == null) {
+            return null;
+        }
+        int separator = key.indexOf('/');
+        Rule rule = separator < 0 ? null : rulesByName.get(key.substring(0, separator));
+        if (rule == null) {
+            return null;
+        }
+        return new Key(rule, destination + '\n' + key);
+    }
+
+    private static String headerValue(byte[] frame, int from, int to) {
+        return new String(frame, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    private static MimeType contentType(MessageHeaders headers) {
+        Object value = headers.get(MessageHeaders.CONTENT_TYPE);
+        if (value instanceof MimeType mimeType) {
+            return mimeType;
+        }
+        return value instanceof String text ? MimeType.valueOf(text) : null;
+    }
+
+    // payload 최상위의 type 과 구분 필드 값. 객체가 아니거나 읽을 수 없으면 null
+    private Map<String, String> readFields(byte[] frame, int offset, int length, boolean cbor) {
+        try (JsonParser parser = payloadCodec.createParser(frame, offset, length,
+                cbor ? PayloadCodec.APPLICATION_CBOR : null)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            Map<String, String> fields = new HashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value.isScalarValue() && ("type".equals(field) || partitionFields.contains(field))) {
+                    fields.put(field, parser.getValueAsString());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return fields;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private boolean matches(String destination) {
+        return destinations.ruleFor(destination) != null;
+    }
+
+    private static boolean startsWith(byte[] frame, int from, int to, byte[] prefix) {
+        if (to - from < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (frame[from + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // "leaderboard,user_ready|user_not_ready:fromPeerId" 형식
+    private static Map<String, Rule> parseRules(String rules, MeterRegistry meterRegistry) {
+        Map<String, Rule> parsed = new HashMap<>();
+        for (String entry : DestinationRules.parseList(rules)) {
+            int fieldStart = entry.indexOf(':');
+            String types = fieldStart < 0 ? entry : entry.substring(0, fieldStart).trim();
+            String field = fieldStart < 0 ? null : entry.substring(fieldStart + 1).trim();
+            Counter conflated = Counter.builder("websocket.outbound.conflated")
+                    .tag("rule", types)
+                    .register(meterRegistry);
+            Rule rule = new Rule(types, field == null || field.isEmpty() ? null : field, conflated);
+            for (String type : types.split("\\|")) {
+                if (!type.isBlank()) {
+                    parsed.put(type.trim(), rule);
+                }
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * @param name  같은 키를 공유하는 type 목록 (메트릭 rule 태그)
+     * @param field 키를 나누는 payload 필드 (없으면 목적지당 하나)
+     */
+    record Rule(String name, String field, Counter conflated) {
+    }
+
+    record Key(Rule rule, String value) {
+    }
+
+    private record ComputedKey(byte[] payload, String key) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.red.yogaback.websocket.config;
+
+import com.red.yogaback.websocket.service.PayloadCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 세션별 메시지 본문 인코딩 협상 (JSON / CBOR).
+ *
+ * 동작:
+ *  - CONNECT 프레임의 accept-content-type 헤더에 application/cbor 가 있으면 그 세션은 CBOR 로 받습니다.
+ *    헤더가 없는 기존 클라이언트는 계속 JSON 으로 받습니다.
+ *  - 나가는 MESSAGE 의 content-type 이 세션 인코딩과 다르면(JSON 발신자 → CBOR 수신자 등) 본문을 변환합니다.
+ *    방 브로드캐스트는 구독자 수만큼 같은 payload 로 나가므로 마지막 변환 결과를 재사용해 한 번만 변환합니다.
+ *  - CBOR 본문은 BinaryFrameSession 이 바이너리 WebSocket 프레임으로 내보냅니다.
+ */
+@Component
+public class PayloadEncodingInterceptor implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayloadEncodingInterceptor.class);
+
+    static final String ACCEPT_CONTENT_TYPE = "accept-content-type";
+
+    private final PayloadCodec payloadCodec;
+    // CBOR 로 받기로 한 세션
+    private final Set<String> cborSessions = ConcurrentHashMap.newKeySet();
+    // 마지막으로 변환한 (원본 payload, 대상 인코딩) -> 결과
+    private final AtomicReference<Transcoded> lastTranscoded = new AtomicReference<>();
+
+    public PayloadEncodingInterceptor(PayloadCodec payloadCodec) {
+        this.payloadCodec = payloadCodec;
+    }
+
+    /**
+     * clientOutboundChannel: 세션 인코딩에 맞춰 MESSAGE 본문 변환.
+     * 모든 프레임을 지나므로 accessor 를 만들지 않고 헤더만 읽습니다.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (sessionId != null
+                && SimpMessageType.MESSAGE.equals(SimpMessageHeaderAccessor.getMessageType(headers))
+                && message.getPayload() instanceof byte[] payload) {
+            return encodeFor(sessionId, contentType(headers), payload, message);
+        }
+        return message;
+    }
+
+    /**
+     * clientInboundChannel: CONNECT 에서 인코딩 협상, DISCONNECT 에서 정리.
+     */
+    public ChannelInterceptor inbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                MessageHeaders headers = message.getHeaders();
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+                SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(headers);
+                if (sessionId == null) {
+                    return message;
+                }
+                if (SimpMessageType.CONNECT.equals(messageType)) {
+                    negotiate(sessionId, SimpMessageHeaderAccessor.getFirstNativeHeader(ACCEPT_CONTENT_TYPE, headers));
+                } else if (SimpMessageType.DISCONNECT.equals(messageType)) {
+                    cborSessions.remove(sessionId);
+                }
+                return message;
+            }
+        };
+    }
+
+    public boolean isCbor(String sessionId) {
+        return cborSessions.contains(sessionId);
+    }
+
+    private void negotiate(String sessionId, String accepted) {
+        if (accepted == null) {
+            return;
+        }
+        for (MimeType mimeType : MimeTypeUtils.parseMimeTypes(accepted)) {
+            if (PayloadCodec.isCbor(mimeType)) {
+                cborSessions.add(sessionId);
+                return;
+            }
+        }
+    }
+
+    private static MimeType contentType(MessageHeaders headers) {
+        Object value = headers.get(MessageHeaders.CONTENT_TYPE);
+        if (value instanceof MimeType mimeType) {
+            return mimeType;
+        }
+        return value instanceof String text ? MimeType.valueOf(text) : null;
+    }
+
+    private Message<?> encodeFor(String sessionId, MimeType contentType, byte[] payload, Message<?> message) {
+        boolean wantsCbor = cborSessions.contains(sessionId);
+        MimeType target;
+        if (wantsCbor && PayloadCodec.isJson(contentType)) {
+            target = PayloadCodec.APPLICATION_CBOR;
+        } else if (!wantsCbor && PayloadCodec.isCbor(contentType)) {
+            target = MimeTypeUtils.APPLICATION_JSON;
+        } else {
+            return message;
+        }
+        try {
+            byte[] encoded = transcode(payload, target);
+            StompHeaderAccessor headers = StompHeaderAccessor.wrap(message);
+            headers.setContentType(target);
+            return MessageBuilder.createMessage(encoded, headers.getMessageHeaders());
+        } catch (IOException e) {
+            logger.warn("Failed to transcode payload to {} for session {}: {}", target, sessionId, e.getMessage());
+            return message;
+        }
+    }
+
+    private byte[] transcode(byte[] payload, MimeType target) throws IOException {
+        Transcoded last = lastTranscoded.get();
+        if (last != null && last.source == payload && last.target.equals(target)) {
+            return last.encoded;
+        }
+        byte[] encoded = PayloadCodec.isCbor(target) ? payloadCodec.toCbor(payload) : payloadCodec.toJson(payload);
+        lastTranscoded.set(new Transcoded(payload, target, encoded));
+        return encoded;
+    }
+
+    private record Transcoded(byte[] source, MimeType target, byte[] encoded) {
+    }
+}
@@ -0,0 +1,250 @@
+package com.red.yogaback.websocket.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * STOMP 수신 프레임 속도 제한 (token bucket).
+ *
+ * 동작:
+ *  - websocket.rate-limit.session 규칙은 세션마다, room 규칙은 목적지(/app/room/{roomId} 등 방 단위)마다 bucket 을 둡니다.
+ *    규칙 형식은 "프레임종류:목적지패턴=초당허용:버스트" 이고, 종류와 패턴(Ant 스타일)이 먼저 맞는 규칙 하나를 씁니다.
+ *  - bucket 이 비면 프레임을 버립니다. policy=notify 면 /user/queue/rate-limit 로 속도를 줄이라고 알립니다
+ *    (bucket 마다 초당 한 번까지).
+ *  - 버린 프레임 수는 websocket.rate_limit.rejected (scope, rule 태그) 로 셉니다.
+ *  - enabled=false 면 WebSocketConfig 가 채널에 등록하지 않습니다.
+ */
+@Component
+public class RateLimitInterceptor implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitInterceptor.class);
+
+    static final String SLOW_DOWN_DESTINATION = "/queue/rate-limit";
+    private static final long NOTIFY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // 이 시간 동안 쓰지 않은 방 bucket 은 정리 (가득 찬 상태와 같으므로 다시 만들어도 동작이 같음)
+    private static final long IDLE_BUCKET_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final Rule NO_RULE = new Rule(-1, "session", null, "", 0, 0, null);
+
+    private final boolean enabled;
+    private final boolean notify;
+    private final List<Rule> sessionRules;
+    private final List<Rule> roomRules;
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    private final LongSupplier nanoClock;
+
+    // 프레임 종류 -> 그 종류의 규칙 (목적지별 캐시 포함)
+    private final Map<SimpMessageType, DestinationRules<Rule>> sessionRulesByType = new EnumMap<>(SimpMessageType.class);
+    private final Map<SimpMessageType, DestinationRules<Rule>> roomRulesByType = new EnumMap<>(SimpMessageType.class);
+    // sessionId -> 규칙 순서별 bucket
+    private final Map<String, TokenBucket[]> sessionBuckets = new ConcurrentHashMap<>();
+    // 목적지 -> 규칙 순서별 bucket
+    private final Map<String, TokenBucket[]> roomBuckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateLimitInterceptor(@Value("${websocket.rate-limit.enabled:true}") boolean enabled,
+                                @Value("${websocket.rate-limit.session:MESSAGE:/app/room/**=20:100}") String sessionRules,
+                                @Value("${websocket.rate-limit.room:MESSAGE:/app/room/**=100:400}") String roomRules,
+                                @Value("${websocket.rate-limit.policy:drop}") String policy,
+                                ObjectProvider<SimpMessagingTemplate> messagingTemplate,
+                                MeterRegistry meterRegistry) {
+        this(enabled, sessionRules, roomRules, policy, messagingTemplate, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitInterceptor(boolean enabled, String sessionRules, String roomRules, String policy,
+                         ObjectProvider<SimpMessagingTemplate> messagingTemplate, MeterRegistry meterRegistry,
+                         LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.notify = "notify".equalsIgnoreCase(policy);
+        this.sessionRules = parseRules("session", sessionRules, meterRegistry);
+        this.roomRules = parseRules("room", roomRules, meterRegistry);
+        this.messagingTemplate = messagingTemplate;
+        this.nanoClock = nanoClock;
+        for (SimpMessageType type : SimpMessageType.values()) {
+            sessionRulesByType.put(type, rulesOf(this.sessionRules, type));
+            roomRulesByType.put(type, rulesOf(this.roomRules, type));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (type == null || sessionId == null) {
+            return message;
+        }
+        if (type == SimpMessageType.DISCONNECT) {
+            sessionBuckets.remove(sessionId);
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (destination == null) {
+            return message;
+        }
+        long now = nanoClock.getAsLong();
+        Rule sessionRule = sessionRulesByType.get(type).ruleFor(destination);
+        if (sessionRule != NO_RULE && !allow(sessionBuckets, sessionId, sessionRules.size(), sessionRule, now, message)) {
+            return null;
+        }
+        Rule roomRule = roomRulesByType.get(type).ruleFor(destination);
+        if (roomRule != NO_RULE && !allow(roomBuckets, destination, roomRules.size(), roomRule, now, message)) {
+            return null;
+        }
+        return message;
+    }
+
+    /**
+     * 오래 쓰지 않은 방 bucket 정리.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        long now = nanoClock.getAsLong();
+        roomBuckets.values().removeIf(buckets -> {
+            for (TokenBucket bucket : buckets) {
+                if (bucket != null && !bucket.isIdle(now)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private boolean allow(Map<String, TokenBucket[]> buckets, String key, int ruleCount, Rule rule, long now,
+                          Message<?> message) {
+        TokenBucket[] byRule = buckets.computeIfAbsent(key, k -> new TokenBucket[ruleCount]);
+        TokenBucket bucket = byRule[rule.index()];
+        if (bucket == null) {
+            // 같은 칸을 동시에 만들 수 있으므로 배열 단위로 잠금
+            synchronized (byRule) {
+                bucket = byRule[rule.index()];
+                if (bucket == null) {
+                    bucket = new TokenBucket(rule.perSecond(), rule.burst(), now);
+                    byRule[rule.index()] = bucket;
+                }
+            }
+        }
+        if (bucket.tryAcquire(now)) {
+            return true;
+        }
+        rule.rejected().increment();
+        if (notify && bucket.shouldNotify(now)) {
+            notifySlowDown(message, rule);
+        }
+        return false;
+    }
+
+    private void notifySlowDown(Message<?> message, Rule rule) {
+        Principal user = SimpMessageHeaderAccessor.getUser(message.getHeaders());
+        SimpMessagingTemplate template = messagingTemplate.getIfAvailable();
+        if (user == null || template == null) {
+            return;
+        }
+        logger.info("Rate limit exceeded: user={}, scope={}, rule={}", user.getName(), rule.scope(), rule.pattern());
+        template.convertAndSendToUser(user.getName(), SLOW_DOWN_DESTINATION, Map.of(
+                "type", "rate_limit",
+                "scope", rule.scope(),
+                "destination", rule.pattern(),
+                "perSecond", rule.perSecond()));
+    }
+
+    // 같은 프레임 종류의 규칙만, 원래 순서대로
+    private static DestinationRules<Rule> rulesOf(List<Rule> rules, SimpMessageType type) {
+        return new DestinationRules<>(rules.stream().filter(rule -> rule.type() == type).toList(),
+                Rule::pattern, NO_RULE);
+    }
+
+    // "MESSAGE:/app/room/**=20:100,SUBSCRIBE:/topic/**=5:10" 형식
+    private static List<Rule> parseRules(String scope, String rules, MeterRegistry meterRegistry) {
+        List<Rule> parsed = new ArrayList<>();
+        for (String rule : DestinationRules.parseList(rules)) {
+            int typeEnd = rule.indexOf(':');
+            int patternEnd = rule.lastIndexOf('=');
+            if (typeEnd < 0 || patternEnd < typeEnd) {
+                continue;
+            }
+            SimpMessageType type = SimpMessageType.valueOf(rule.substring(0, typeEnd).trim());
+            String pattern = rule.substring(typeEnd + 1, patternEnd).trim();
+            String[] rate = rule.substring(patternEnd + 1).split(":");
+            double perSecond = Double.parseDouble(rate[0].trim());
+            double burst = rate.length > 1 ? Double.parseDouble(rate[1].trim()) : perSecond;
+            Counter rejected = Counter.builder("websocket.rate_limit.rejected")
+                    .tag("scope", scope)
+                    .tag("rule", type + ":" + pattern)
+                    .register(meterRegistry);
+            parsed.add(new Rule(parsed.size(), scope, type, pattern, perSecond, burst, rejected));
+        }
+        return List.copyOf(parsed);
+    }
+
+    private record Rule(int index, String scope, SimpMessageType type, String pattern,
+                        double perSecond, double burst, Counter rejected) {
+    }
+
+    /**
+     * 초당 perSecond 개씩 채워지고 최대 burst 개까지 쌓이는 token bucket.
+     */
+    static final class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt;
+        private long notifiedAt;
+
+        TokenBucket(double perSecond, double burst, long now) {
+            this.tokensPerNano = perSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = burst;
+            this.tokens = burst;
+            this.refilledAt = now;
+            this.notifiedAt = now - NOTIFY_INTERVAL_NANOS;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized boolean shouldNotify(long now) {
+            if (now - notifiedAt < NOTIFY_INTERVAL_NANOS) {
+                return false;
+            }
+            notifiedAt = now;
+            return true;
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now - refilledAt >= IDLE_BUCKET_NANOS;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.red.yogaback.websocket.config;
+
+import com.red.yogaback.dto.respond.RoomRoute;
+import com.red.yogaback.websocket.service.RoomRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * 방을 소유하지 않은 서버로 들어온 연결을 소유 서버로 안내합니다.
+ *
+ * 동작:
+ *  - /ws?roomId={id} 핸드셰이크: 다른 서버 소유면 421 과 X-Room-Owner(접속할 wsUrl) 헤더로 거절합니다.
+ *  - roomId 없이 접속한 뒤 /topic/room/{id} 를 SUBSCRIBE 하면 ERROR 프레임(message 에 소유 서버 주소)으로 거절합니다.
+ *  - 라우팅이 꺼져 있으면 아무것도 하지 않습니다.
+ */
+@Component
+public class RoomAffinityInterceptor implements HandshakeInterceptor, ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomAffinityInterceptor.class);
+
+    public static final String OWNER_HEADER = "X-Room-Owner";
+    public static final String OWNER_NODE_HEADER = "X-Room-Owner-Node";
+    private static final HttpStatusCode MISDIRECTED_REQUEST = HttpStatusCode.valueOf(421);
+    private static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+
+    private final RoomRouter roomRouter;
+
+    public RoomAffinityInterceptor(RoomRouter roomRouter) {
+        this.roomRouter = roomRouter;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String roomId = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("roomId");
+        if (roomId == null || roomRouter.isLocal(roomId)) {
+            return true;
+        }
+        RoomRoute route = roomRouter.route(roomId);
+        logger.info("Redirecting handshake for room {} to node {}", roomId, route.getNodeId());
+        response.setStatusCode(MISDIRECTED_REQUEST);
+        response.getHeaders().set(OWNER_HEADER, route.getWsUrl());
+        response.getHeaders().set(OWNER_NODE_HEADER, route.getNodeId());
+        return false;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            return message;
+        }
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(ROOM_TOPIC_PREFIX)) {
+            return message;
+        }
+        String roomId = destination.substring(ROOM_TOPIC_PREFIX.length());
+        if (!roomRouter.isLocal(roomId)) {
+            throw new MessageDeliveryException(message, OWNER_HEADER + ": " + roomRouter.route(roomId).getWsUrl());
+        }
+        return message;
+    }
+}
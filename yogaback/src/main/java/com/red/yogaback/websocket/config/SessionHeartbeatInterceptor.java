@@ -0,0 +1,37 @@
+package com.red.yogaback.websocket.config;
+
+import com.red.yogaback.websocket.service.SessionRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 클라이언트 heartbeat 프레임이 오면 세션 만료 시각을 연장합니다.
+ * 세션 수만큼 자주 지나가는 경로라 헤더만 읽고 SessionRegistry#touch 한 번으로 끝냅니다
+ * (세션 조회, 빈 조회, 로그 없음).
+ */
+@Component
+public class SessionHeartbeatInterceptor implements ChannelInterceptor {
+
+    private final SessionRegistry sessionRegistry;
+
+    public SessionHeartbeatInterceptor(SessionRegistry sessionRegistry) {
+        this.sessionRegistry = sessionRegistry;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageType.HEARTBEAT.equals(SimpMessageHeaderAccessor.getMessageType(headers))) {
+            String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+            if (sessionId != null) {
+                sessionRegistry.touch(sessionId);
+            }
+        }
+        return message;
+    }
+}
@@ -0,0 +1,51 @@
+package com.red.yogaback.websocket.config;
+
+import com.red.yogaback.repository.ConnectedSessionRepository;
+import com.red.yogaback.websocket.service.InMemorySessionRegistry;
+import com.red.yogaback.websocket.service.JpaSessionStore;
+import com.red.yogaback.websocket.service.SessionRegistry;
+import com.red.yogaback.websocket.service.SessionStore;
+import com.red.yogaback.websocket.service.SharedSessionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 세션 레지스트리 선택 (websocket.session.registry).
+ *  - memory (기본): 서버 한 대. 이 JVM 의 세션만 봅니다.
+ *  - shared: 여러 서버. SessionStore(기본은 DB 테이블)를 공유해 다른 서버의 세션도 봅니다.
+ *    websocket.broker.mode=relay 와 함께 사용합니다.
+ */
+@Configuration
+public class SessionRegistryConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionRegistryConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "websocket.session.registry", havingValue = "memory", matchIfMissing = true)
+    public SessionRegistry inMemorySessionRegistry(@Value("${websocket.session.ttl-ms:60000}") long ttlMs,
+                                                   @Value("${websocket.session.wheel-tick-ms:1000}") long wheelTickMs) {
+        return new InMemorySessionRegistry(ttlMs, wheelTickMs, System::currentTimeMillis);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "websocket.session.registry", havingValue = "shared")
+    @ConditionalOnMissingBean(SessionStore.class)
+    public SessionStore jpaSessionStore(ConnectedSessionRepository connectedSessionRepository) {
+        return new JpaSessionStore(connectedSessionRepository);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "websocket.session.registry", havingValue = "shared")
+    public SessionRegistry sharedSessionRegistry(SessionStore sessionStore,
+                                                 NodeIdentity nodeIdentity,
+                                                 @Value("${websocket.session.ttl-ms:60000}") long ttlMs,
+                                                 @Value("${websocket.session.claim-batch-size:100}") int claimBatchSize) {
+        logger.info("Shared session registry enabled: nodeId={}", nodeIdentity.getNodeId());
+        return new SharedSessionRegistry(sessionStore, nodeIdentity.getNodeId(), ttlMs, claimBatchSize, System::currentTimeMillis);
+    }
+}
@@ -0,0 +1,89 @@
+package com.red.yogaback.websocket.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * STOMP 브로커 선택.
+ *
+ * 동작:
+ *  - mode=simple (기본): JVM 내장 simple broker. 방 참가자가 모두 같은 서버에 붙어 있어야 합니다.
+ *  - mode=relay: 외부 STOMP 브로커(RabbitMQ, ActiveMQ/Artemis 등)로 /topic, /queue 를 중계합니다.
+ *    여러 서버가 같은 브로커를 보므로 방 topic 은 어느 서버에 붙어 있어도 받을 수 있고,
+ *    /user/queue 는 user registry / unresolved user destination 을 브로커로 broadcast 해 다른 서버의 세션에도 전달됩니다.
+ */
+@Component
+public class StompBrokerConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StompBrokerConfigurer.class);
+
+    static final String[] BROKER_PREFIXES = {"/topic", "/queue"};
+    // 다른 서버에서 찾지 못한 /user 목적지와 서버별 접속 사용자 목록을 주고받는 topic
+    static final String USER_DESTINATION_BROADCAST = "/topic/unresolved-user-destination";
+    static final String USER_REGISTRY_BROADCAST = "/topic/simp-user-registry";
+
+    private final String mode;
+    private final String relayHost;
+    private final int relayPort;
+    private final String clientLogin;
+    private final String clientPasscode;
+    private final String systemLogin;
+    private final String systemPasscode;
+    private final String virtualHost;
+    private final long heartbeatMs;
+
+    public StompBrokerConfigurer(@Value("${websocket.broker.mode:simple}") String mode,
+                                 @Value("${websocket.broker.relay.host:localhost}") String relayHost,
+                                 @Value("${websocket.broker.relay.port:61613}") int relayPort,
+                                 @Value("${websocket.broker.relay.client-login:guest}") String clientLogin,
+                                 @Value("${websocket.broker.relay.client-passcode:guest}") String clientPasscode,
+                                 @Value("${websocket.broker.relay.system-login:guest}") String systemLogin,
+                                 @Value("${websocket.broker.relay.system-passcode:guest}") String systemPasscode,
+                                 @Value("${websocket.broker.relay.virtual-host:}") String virtualHost,
+                                 @Value("${websocket.broker.heartbeat-ms:30000}") long heartbeatMs) {
+        this.mode = mode;
+        this.relayHost = relayHost;
+        this.relayPort = relayPort;
+        this.clientLogin = clientLogin;
+        this.clientPasscode = clientPasscode;
+        this.systemLogin = systemLogin;
+        this.systemPasscode = systemPasscode;
+        this.virtualHost = virtualHost;
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    public boolean isRelay() {
+        return "relay".equalsIgnoreCase(mode);
+    }
+
+    public void configure(MessageBrokerRegistry config, TaskScheduler taskScheduler) {
+        if (!isRelay()) {
+            config.enableSimpleBroker(BROKER_PREFIXES)
+                    .setHeartbeatValue(new long[]{heartbeatMs, heartbeatMs})
+                    .setTaskScheduler(taskScheduler);
+            return;
+        }
+        StompBrokerRelayRegistration relay = config.enableStompBrokerRelay(BROKER_PREFIXES)
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(clientLogin)
+                .setClientPasscode(clientPasscode)
+                .setSystemLogin(systemLogin)
+                .setSystemPasscode(systemPasscode)
+                // 서버 ↔ 브로커 시스템 연결의 heartbeat
+                .setSystemHeartbeatSendInterval(heartbeatMs)
+                .setSystemHeartbeatReceiveInterval(heartbeatMs)
+                .setTaskScheduler(taskScheduler)
+                .setUserDestinationBroadcast(USER_DESTINATION_BROADCAST)
+                .setUserRegistryBroadcast(USER_REGISTRY_BROADCAST);
+        if (!virtualHost.isBlank()) {
+            relay.setVirtualHost(virtualHost);
+        }
+        logger.info("STOMP broker relay enabled: {}:{}", relayHost, relayPort);
+    }
+}
@@ -0,0 +1,83 @@
+package com.red.yogaback.websocket.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * clientInboundChannel / clientOutboundChannel 의 실행 방식 선택.
+ *
+ * 동작:
+ *  - mode=platform (기본): Spring 기본 ThreadPoolTaskExecutor (코어 수 x 2 스레드).
+ *    핸들러가 JPA 저장 등으로 블로킹되면 풀이 포화되어 heartbeat 등 다른 세션 프레임도 큐에서 대기합니다.
+ *  - mode=virtual: 프레임마다 가상 스레드에서 실행. 블로킹 호출이 캐리어 스레드를 잡지 않으므로
+ *    DB 대기는 커넥션 풀에서만 줄을 서고, 다른 세션의 프레임은 계속 처리됩니다.
+ *
+ * 어느 모드든 preserve-order=true 이면 같은 세션의 수신/발신 프레임은 도착 순서대로 하나씩 처리됩니다
+ * (StompEndpointRegistry#setPreserveReceiveOrder, MessageBrokerRegistry#setPreservePublishOrder).
+ *
+ * 세션 발신 큐(OutboundConflation)의 drain 작업도 같은 모드를 따릅니다 (newExecutor).
+ */
+@Component
+public class StompChannelExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(StompChannelExecutors.class);
+
+    private final String mode;
+    private final boolean preserveOrder;
+    // newExecutor 로 만든 플랫폼 스레드 풀. 종료 시 정리
+    private final List<ThreadPoolTaskExecutor> pools = new CopyOnWriteArrayList<>();
+
+    public StompChannelExecutors(@Value("${websocket.channel.executor:platform}") String mode,
+                                 @Value("${websocket.channel.preserve-order:true}") boolean preserveOrder) {
+        this.mode = mode;
+        this.preserveOrder = preserveOrder;
+    }
+
+    public boolean isVirtual() {
+        return "virtual".equalsIgnoreCase(mode);
+    }
+
+    public boolean preserveOrder() {
+        return preserveOrder;
+    }
+
+    public void configure(ChannelRegistration registration, String threadNamePrefix) {
+        if (!isVirtual()) {
+            return;
+        }
+        registration.executor(new VirtualThreadTaskExecutor(threadNamePrefix));
+        logger.info("STOMP channel executor: virtual threads ({})", threadNamePrefix);
+    }
+
+    /**
+     * 채널 밖에서 쓰는 executor 를 같은 모드로 생성.
+     * platform 이면 채널 기본값과 같은 크기(코어 수 x 2)의 스레드 풀.
+     */
+    public TaskExecutor newExecutor(String threadNamePrefix) {
+        if (isVirtual()) {
+            return new VirtualThreadTaskExecutor(threadNamePrefix);
+        }
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(Runtime.getRuntime().availableProcessors() * 2);
+        pool.setAllowCoreThreadTimeOut(true);
+        pool.setThreadNamePrefix(threadNamePrefix);
+        pool.initialize();
+        pools.add(pool);
+        return pool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+}
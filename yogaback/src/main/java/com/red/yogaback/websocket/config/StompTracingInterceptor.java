@@ -0,0 +1,237 @@
+package com.red.yogaback.websocket.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * STOMP 프레임 샘플링 추적. 프레임마다 payload 를 INFO 로그로 남기는 대신 일부만 골라 비동기로 기록합니다.
+ *
+ * 동작:
+ *  - websocket.trace.sample-rates 의 목적지 패턴(Ant 스타일, 먼저 맞는 것)별 비율로 프레임을 골라 추적합니다.
+ *    목적지가 없거나 맞는 패턴이 없는 프레임(CONNECT, heartbeat 등)은 default-rate 를 씁니다.
+ *  - 고른 프레임은 채널에 들어온 시점부터 각 핸들러 처리가 끝날 때까지(큐 대기 포함) 지연을 핸들러마다 기록하고,
+ *    payload 크기는 구독 핸들러 수와 관계없이 프레임당 한 번(처음 끝난 핸들러의 기록에만) 기록합니다.
+ *  - 기록은 크기 제한이 있는 버퍼에 넣기만 하고, 히스토그램(websocket.trace.*) 반영과 로그(stomp.trace)는
+ *    flush 주기마다 스케줄러 스레드에서 합니다. 버퍼가 차면 버리고 websocket.trace.dropped 를 올립니다.
+ *  - enabled=false 면 WebSocketConfig 가 채널에 등록하지 않으므로 프레임 경로에 비용이 없습니다.
+ */
+@Component
+public class StompTracingInterceptor {
+
+    private static final Logger traceLogger = LoggerFactory.getLogger("stomp.trace");
+
+    private static final String NO_PATTERN = "default";
+    // 같은 프레임의 두 번째 이후 핸들러 기록 (지연만 기록)
+    private static final int PAYLOAD_COUNTED = -1;
+
+    private final boolean enabled;
+    private final DestinationRules<SampleRule> rules;
+    private final int maxPending;
+    private final BlockingQueue<TraceRecord> buffer;
+    private final MeterRegistry meterRegistry;
+    private final Counter dropped;
+
+    // 추적 중이고 아직 핸들러 처리가 끝나지 않은 프레임 (message id -> 시작 정보)
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+    // flush 마다 builder 로 registry 를 조회하지 않도록 (방향, 규칙[, 핸들러]) 별로 meter 를 보관
+    private final Map<List<String>, DistributionSummary> payloadSummaries = new ConcurrentHashMap<>();
+    private final Map<List<String>, Timer> latencyTimers = new ConcurrentHashMap<>();
+
+    public StompTracingInterceptor(@Value("${websocket.trace.enabled:false}") boolean enabled,
+                                   @Value("${websocket.trace.sample-rates:}") String sampleRates,
+                                   @Value("${websocket.trace.default-rate:0}") double defaultRate,
+                                   @Value("${websocket.trace.buffer-size:4096}") int bufferSize,
+                                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.rules = new DestinationRules<>(parseRules(sampleRates), SampleRule::pattern,
+                new SampleRule(NO_PATTERN, defaultRate));
+        this.maxPending = bufferSize;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.meterRegistry = meterRegistry;
+        this.dropped = meterRegistry.counter("websocket.trace.dropped");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // clientInboundChannel 용 (채널의 마지막 인터셉터로 등록)
+    public ExecutorChannelInterceptor inbound() {
+        return new Tracer("inbound");
+    }
+
+    // clientOutboundChannel 용 (채널의 마지막 인터셉터로 등록)
+    public ExecutorChannelInterceptor outbound() {
+        return new Tracer("outbound");
+    }
+
+    /**
+     * 버퍼에 쌓인 기록을 히스토그램에 반영하고 로그로 남깁니다.
+     */
+    @Scheduled(fixedDelayString = "${websocket.trace.flush-ms:1000}")
+    public void flush() {
+        List<TraceRecord> records = new ArrayList<>();
+        buffer.drainTo(records);
+        for (TraceRecord record : records) {
+            if (record.payloadBytes() != PAYLOAD_COUNTED) {
+                payloadSummary(record).record(record.payloadBytes());
+            }
+            latencyTimer(record).record(record.latencyNanos(), TimeUnit.NANOSECONDS);
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(record.latencyNanos());
+            if (record.payloadBytes() != PAYLOAD_COUNTED) {
+                traceLogger.info("{} {} dest={} session={} handler={} bytes={} latency={}us",
+                        record.direction(), record.type(), record.destination(), record.sessionId(),
+                        record.handler(), record.payloadBytes(), latencyMicros);
+            } else {
+                traceLogger.info("{} {} dest={} session={} handler={} latency={}us",
+                        record.direction(), record.type(), record.destination(), record.sessionId(),
+                        record.handler(), latencyMicros);
+            }
+        }
+    }
+
+    private DistributionSummary payloadSummary(TraceRecord record) {
+        return payloadSummaries.computeIfAbsent(List.of(record.direction(), record.pattern()),
+                key -> DistributionSummary.builder("websocket.trace.payload")
+                        .baseUnit("bytes")
+                        .tag("direction", record.direction())
+                        .tag("destination", record.pattern())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    private Timer latencyTimer(TraceRecord record) {
+        return latencyTimers.computeIfAbsent(List.of(record.direction(), record.pattern(), record.handler()),
+                key -> Timer.builder("websocket.trace.latency")
+                        .tag("direction", record.direction())
+                        .tag("destination", record.pattern())
+                        .tag("handler", record.handler())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    SampleRule ruleFor(String destination) {
+        return rules.ruleFor(destination);
+    }
+
+    // "/topic/room/**=0.01,/app/room/**=0.05" 형식
+    private static List<SampleRule> parseRules(String sampleRates) {
+        List<SampleRule> rules = new ArrayList<>();
+        for (String entry : DestinationRules.parseList(sampleRates)) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                rules.add(new SampleRule(entry.substring(0, separator).trim(),
+                        Double.parseDouble(entry.substring(separator + 1).trim())));
+            }
+        }
+        return rules;
+    }
+
+    private static int payloadBytes(Object payload) {
+        if (payload instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        // 문자 수가 아니라 전송되는 UTF-8 바이트 수 (고른 프레임에서만 계산)
+        if (payload instanceof String text) {
+            return text.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return 0;
+    }
+
+    private final class Tracer implements ExecutorChannelInterceptor {
+
+        private final String direction;
+
+        private Tracer(String direction) {
+            this.direction = direction;
+        }
+
+        // 고르지 않은 프레임은 목적지 캐시 조회와 난수 한 번으로 끝남
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            MessageHeaders headers = message.getHeaders();
+            String destination = SimpMessageHeaderAccessor.getDestination(headers);
+            SampleRule rule = ruleFor(destination);
+            if (rule.rate() <= 0 || ThreadLocalRandom.current().nextDouble() >= rule.rate()
+                    || pending.size() >= maxPending) {
+                return message;
+            }
+            int handlers = channel instanceof AbstractSubscribableChannel subscribable
+                    ? subscribable.getSubscribers().size() : 1;
+            SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+            pending.put(headers.getId(), new Pending(direction, rule.pattern(), String.valueOf(type), destination,
+                    SimpMessageHeaderAccessor.getSessionId(headers), payloadBytes(message.getPayload()),
+                    System.nanoTime(), new AtomicInteger(Math.max(handlers, 1)), new AtomicBoolean(false)));
+            return message;
+        }
+
+        @Override
+        public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+            // 보내지 못한 프레임은 핸들러가 실행되지 않으므로 정리
+            if (!sent || ex != null) {
+                pending.remove(message.getHeaders().getId());
+            }
+        }
+
+        @Override
+        public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+            UUID id = message.getHeaders().getId();
+            Pending start = pending.get(id);
+            if (start == null) {
+                return;
+            }
+            if (start.remainingHandlers().decrementAndGet() <= 0) {
+                pending.remove(id);
+            }
+            // 구독 핸들러가 여럿이어도 payload 크기는 처음 끝난 핸들러만 기록
+            int payloadBytes = start.payloadClaimed().compareAndSet(false, true)
+                    ? start.payloadBytes() : PAYLOAD_COUNTED;
+            TraceRecord record = new TraceRecord(start.direction(), start.pattern(), start.type(), start.destination(),
+                    start.sessionId(), handler.getClass().getSimpleName(), payloadBytes,
+                    System.nanoTime() - start.startNanos());
+            if (!buffer.offer(record)) {
+                dropped.increment();
+            }
+        }
+    }
+
+    record SampleRule(String pattern, double rate) {
+    }
+
+    private record Pending(String direction, String pattern, String type, String destination, String sessionId,
+                           int payloadBytes, long startNanos, AtomicInteger remainingHandlers,
+                           AtomicBoolean payloadClaimed) {
+    }
+
+    private record TraceRecord(String direction, String pattern, String type, String destination, String sessionId,
+                               String handler, int payloadBytes, long latencyNanos) {
+    }
+}
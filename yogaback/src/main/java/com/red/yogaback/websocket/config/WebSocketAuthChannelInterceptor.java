@@ -18,6 +18,7 @@ import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -100,6 +101,8 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
                 accessor.getSessionAttributes().put("userId", String.valueOf(memberId));
                 accessor.getSessionAttributes().put("userNickName", userNickName);
                 accessor.getSessionAttributes().put("userProfile", userProfile);
+                // /user/queue/signal 로 1:1 전달할 수 있도록 세션 사용자(Principal)를 userId 로 지정
+                accessor.setUser(new UsernamePasswordAuthenticationToken(String.valueOf(memberId), null, List.of()));
 
                 // 세션 등록 (아직 roomId 정보는 없으므로 빈 문자열)
                 String sessionId = accessor.getSessionId();
@@ -1,23 +1,18 @@
 package com.red.yogaback.websocket.config;
 
-import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.Message;
-import org.springframework.messaging.MessageChannel;
-import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
-import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageBuilder;
-import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.WebSocketSession;
@@ -28,40 +23,75 @@ import org.springframework.web.socket.config.annotation.WebSocketTransportRegist
 import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
-import com.red.yogaback.websocket.service.UserSessionService;
-import com.red.yogaback.websocket.service.WebSocketConnectionService;
-import com.red.yogaback.websocket.service.UserSession;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.red.yogaback.websocket.service.LocalWebSocketSessions;
+import com.red.yogaback.websocket.service.PayloadCodec;
+
+import java.util.List;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer,
-                                        ApplicationContextAware,
                                         ApplicationEventPublisherAware {
 
     private final WebSocketAuthChannelInterceptor authChannelInterceptor;
-    private final StompLoggingInterceptor stompLoggingInterceptor;
+    private final StompTracingInterceptor stompTracingInterceptor;
     private final TaskScheduler webSocketTaskScheduler;
+    private final StompBrokerConfigurer stompBrokerConfigurer;
+    private final RoomAffinityInterceptor roomAffinityInterceptor;
+    private final LocalWebSocketSessions localWebSocketSessions;
+    private final PayloadEncodingInterceptor payloadEncodingInterceptor;
+    private final StompChannelExecutors stompChannelExecutors;
+    private final SessionHeartbeatInterceptor sessionHeartbeatInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final OutboundConflation outboundConflation;
 
-    private ApplicationContext applicationContext;
     private ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public WebSocketConfig(
             WebSocketAuthChannelInterceptor authChannelInterceptor,
-            StompLoggingInterceptor stompLoggingInterceptor,
-            @Qualifier("webSocketTaskScheduler") TaskScheduler webSocketTaskScheduler
+            StompTracingInterceptor stompTracingInterceptor,
+            @Qualifier("webSocketTaskScheduler") TaskScheduler webSocketTaskScheduler,
+            StompBrokerConfigurer stompBrokerConfigurer,
+            RoomAffinityInterceptor roomAffinityInterceptor,
+            LocalWebSocketSessions localWebSocketSessions,
+            PayloadEncodingInterceptor payloadEncodingInterceptor,
+            StompChannelExecutors stompChannelExecutors,
+            SessionHeartbeatInterceptor sessionHeartbeatInterceptor,
+            RateLimitInterceptor rateLimitInterceptor,
+            OutboundConflation outboundConflation
     ) {
         this.authChannelInterceptor = authChannelInterceptor;
-        this.stompLoggingInterceptor = stompLoggingInterceptor;
+        this.stompTracingInterceptor = stompTracingInterceptor;
         this.webSocketTaskScheduler = webSocketTaskScheduler;
+        this.stompBrokerConfigurer = stompBrokerConfigurer;
+        this.roomAffinityInterceptor = roomAffinityInterceptor;
+        this.localWebSocketSessions = localWebSocketSessions;
+        this.payloadEncodingInterceptor = payloadEncodingInterceptor;
+        this.stompChannelExecutors = stompChannelExecutors;
+        this.sessionHeartbeatInterceptor = sessionHeartbeatInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.outboundConflation = outboundConflation;
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue")
-                .setHeartbeatValue(new long[]{30000, 30000})
-                .setTaskScheduler(webSocketTaskScheduler);
+        // websocket.broker.mode 에 따라 simple broker 또는 외부 브로커 relay (StompBrokerConfigurer 참고)
+        stompBrokerConfigurer.configure(config, webSocketTaskScheduler);
         config.setApplicationDestinationPrefixes("/app");
+        // 세션별 발신 순서 보장 (가상 스레드에서는 프레임마다 스레드가 달라 순서가 섞일 수 있음)
+        config.setPreservePublishOrder(stompChannelExecutors.preserveOrder());
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // content-type: application/cbor 인 프레임만 CBOR 로 변환 (그 외는 기본 JSON/String/byte[] 컨버터)
+        MappingJackson2MessageConverter cborConverter = new MappingJackson2MessageConverter(PayloadCodec.APPLICATION_CBOR);
+        cborConverter.setObjectMapper(new CBORMapper());
+        cborConverter.setStrictContentTypeMatch(true);
+        messageConverters.add(cborConverter);
+        return true;
     }
 
     @Override
@@ -72,46 +102,45 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer,
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
+                // ?roomId= 로 접속하면 방 소유 서버가 아닐 때 421 + X-Room-Owner 로 안내
+                .addInterceptors(roomAffinityInterceptor)
                 .setAllowedOriginPatterns("*");
+        // 세션별 수신 순서 보장: 같은 세션의 다음 프레임은 앞 프레임 처리가 끝난 뒤 실행
+        registry.setPreserveReceiveOrder(stompChannelExecutors.preserveOrder());
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        stompChannelExecutors.configure(registration, "ws-inbound-");
+        registration.interceptors(authChannelInterceptor);
+        // 세션/방별 수신 속도 제한. 인증 다음, 다른 처리 전에 버림
+        if (rateLimitInterceptor.isEnabled()) {
+            registration.interceptors(rateLimitInterceptor);
+        }
         registration.interceptors(
-                authChannelInterceptor,
-                stompLoggingInterceptor,
-                // heartbeat 프레임 감지용 인라인 인터셉터
-                new ChannelInterceptor() {
-                    @Override
-                    public Message<?> preSend(Message<?> message, MessageChannel channel) {
-                        StompHeaderAccessor accessor =
-                                MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
-                        if (accessor != null && SimpMessageType.HEARTBEAT.equals(accessor.getMessageType())) {
-                            String sessionId = accessor.getSessionId();
-                            // 런타임에 서비스 빈을 꺼내 사용
-                            UserSessionService userSessionService =
-                                    applicationContext.getBean(UserSessionService.class);
-                            WebSocketConnectionService connectionService =
-                                    applicationContext.getBean(WebSocketConnectionService.class);
-
-                            UserSession session = userSessionService.getSession(sessionId);
-                            if (session != null) {
-                                connectionService.updateConnection(
-                                        sessionId,
-                                        session.getRoomId(),
-                                        session.getUserId()
-                                );
-                            }
-                        }
-                        return message;
-                    }
-                }
+                roomAffinityInterceptor,
+                // CONNECT 의 accept-content-type 으로 세션 인코딩(JSON/CBOR) 결정
+                payloadEncodingInterceptor.inbound(),
+                // heartbeat 프레임이면 세션 만료 시각 연장
+                sessionHeartbeatInterceptor
         );
+        // 샘플링 추적은 다른 인터셉터가 바꾼 최종 메시지를 보도록 마지막에, 꺼져 있으면 등록하지 않음
+        if (stompTracingInterceptor.isEnabled()) {
+            registration.interceptors(stompTracingInterceptor.inbound());
+        }
     }
 
     @Override
     public void configureClientOutboundChannel(ChannelRegistration registration) {
-        registration.interceptors(stompLoggingInterceptor);
+        stompChannelExecutors.configure(registration, "ws-outbound-");
+        // 병합 키는 인코딩 변환 전, 구독자들이 공유하는 원본 payload 에서 한 번만 구함
+        if (outboundConflation.isEnabled()) {
+            registration.interceptors(outboundConflation.outbound());
+        }
+        registration.interceptors(payloadEncodingInterceptor);
+        if (stompTracingInterceptor.isEnabled()) {
+            registration.interceptors(stompTracingInterceptor.outbound());
+        }
     }
 
     // 5) WebSocket 전송 계층 설정 + TransportError 데코레이터
@@ -119,12 +148,29 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer,
     public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
         registration
                 // I/O 제어: 블로킹 타임아웃, 버퍼 크기, 메시지 크기
-                .setSendTimeLimit(15 * 1000)
-                .setSendBufferSizeLimit(512 * 1024)
+                // (conflation 을 켜면 같은 한도를 OutboundConflation 의 세션 큐가 먼저 적용)
+                .setSendTimeLimit((int) outboundConflation.sendTimeLimitMs())
+                .setSendBufferSizeLimit(outboundConflation.sendBufferSizeLimit())
                 .setMessageSizeLimit(128 * 1024)
 
                 // TransportError 발생 시 강제 DISCONNECT 이벤트 발행
                 .addDecoratorFactory(handler -> new WebSocketHandlerDecorator(handler) {
+                    // 서버 쪽에서 연결을 닫을 수 있도록 세션 핸들 보관 (방 소유 서버 이동 등)
+                    @Override
+                    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                        localWebSocketSessions.add(session);
+                        // CBOR 본문 프레임은 바이너리 WebSocket 프레임으로 전송,
+                        // 상태 메시지는 세션 발신 큐에서 최신 값만 남김
+                        super.afterConnectionEstablished(outboundConflation.decorate(new BinaryFrameSession(session)));
+                    }
+
+                    @Override
+                    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                        localWebSocketSessions.remove(session);
+                        outboundConflation.release(session.getId());
+                        super.afterConnectionClosed(session, closeStatus);
+                    }
+
                     @Override
                     public void handleTransportError(WebSocketSession session, Throwable exception)
                             throws Exception {
@@ -150,9 +196,4 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer,
                     }
                 });
     }
-
-    @Override
-    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
-        this.applicationContext = applicationContext;
-    }
 }
@@ -1,21 +1,26 @@
 package com.red.yogaback.websocket.controller;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.red.yogaback.model.Room;
-import com.red.yogaback.repository.RoomRepository;
-import com.red.yogaback.websocket.dto.RoomActionMessage;
+import com.red.yogaback.websocket.dto.RoomMessage;
+import com.red.yogaback.websocket.service.RoomMessageHandler;
+import com.red.yogaback.websocket.service.RoomMessageReader;
+import com.red.yogaback.websocket.service.UserSessionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Controller;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Controller
@@ -23,63 +28,97 @@ public class SignalingController {
 
     private static final Logger logger = LoggerFactory.getLogger(SignalingController.class);
 
-    @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    // 1:1 시그널링 수신 queue (클라이언트는 /user/queue/signal 구독)
+    static final String SIGNAL_QUEUE = "/queue/signal";
 
-    @Autowired
-    private RoomRepository roomRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final UserSessionService userSessionService;
+    private final RoomMessageReader roomMessageReader;
+    // payload.type -> 중계 외 추가 처리 (예: game_state, score_report)
+    private final Map<String, RoomMessageHandler> handlers = new HashMap<>();
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    public SignalingController(SimpMessagingTemplate messagingTemplate,
+                               UserSessionService userSessionService,
+                               RoomMessageReader roomMessageReader,
+                               List<RoomMessageHandler> handlers) {
+        this.messagingTemplate = messagingTemplate;
+        this.userSessionService = userSessionService;
+        this.roomMessageReader = roomMessageReader;
+        for (RoomMessageHandler handler : handlers) {
+            this.handlers.put(handler.type(), handler);
+        }
+    }
 
     /**
      * 클라이언트가 "/app/room/{roomId}"로 메시지를 전송하면
-     * 1) payload를 "/topic/room/{roomId}"로 브로드캐스트
-     * 2) game_state & state==0 인 경우 DB의 roomState를 0으로 변경
+     * 1) target 이 있으면 그 사용자의 "/user/queue/signal" 로만 보냄
+     *    (WebRTC offer/answer/ICE 는 받는 사람이 한 명이므로 방 전체로 보내지 않음)
+     * 2) payload.type 에 등록된 핸들러가 있으면 먼저 실행 (game_state, round_end, score_report 등)
+     *    서버 상태가 바뀐 뒤에 클라이언트가 메시지를 받도록 중계보다 앞에서 처리
+     * 3) 핸들러가 막지 않으면 "/topic/room/{roomId}"로 브로드캐스트
+     *
+     * 본문은 역직렬화하지 않고 target 과 payload.type 만 streaming 으로 읽은 뒤 payload 바이트를 그대로 중계합니다.
+     * 본문 인코딩은 SEND 프레임의 content-type 을 따릅니다 (application/json 또는 application/cbor).
      */
     @MessageMapping("/room/{roomId}")
-    @Transactional
     public void broadcastRoomMessage(@DestinationVariable String roomId,
-                                     @Payload RoomActionMessage actionMessage,
+                                     @Payload byte[] body,
                                      StompHeaderAccessor headerAccessor) {
-        Object payload = actionMessage.getPayload();
         String sessionId = headerAccessor.getSessionId();
-
-        // 1) 받은 payload 그대로 브로드캐스트
-        messagingTemplate.convertAndSend("/topic/room/" + roomId, payload);
-        logger.info("Broadcasted to /topic/room/{} from session {}: {}", roomId, sessionId, payload);
-
-        // 2) payload를 Map<String,Object> 로 변환 (POJO, Map, JSON 문자열 모두 처리)
-        Map<String,Object> map;
+        RoomMessage message;
         try {
-            map = objectMapper.convertValue(
-                    payload,
-                    new TypeReference<Map<String,Object>>() {}
-            );
-        } catch (IllegalArgumentException e) {
-            logger.warn("Payload를 Map으로 변환 실패, state 체크 생략: {}", payload, e);
+            message = roomMessageReader.read(body, headerAccessor.getContentType());
+        } catch (IOException e) {
+            logger.warn("방 메시지를 읽지 못했습니다: roomId = {}, session = {}", roomId, sessionId, e);
+            return;
+        }
+        if (message.payload() == null) {
+            logger.warn("payload 가 없는 방 메시지: roomId = {}, session = {}", roomId, sessionId);
+            return;
+        }
+
+        // 1) 1:1 메시지는 대상 사용자에게만 전달
+        String target = message.target();
+        if (target != null && !target.isBlank()) {
+            sendToPeer(roomId, target, message, sessionId);
             return;
         }
 
-        // 3) type, state 추출
-        String type = (String) map.get("type");
-        Integer state = null;
-        Object stateObj = map.get("state");
-        if (stateObj instanceof Number) {
-            state = ((Number) stateObj).intValue();
-        } else if (stateObj instanceof String) {
-            try {
-                state = Integer.parseInt((String) stateObj);
-            } catch (NumberFormatException ignored) {}
+        // 2) type 별 추가 처리
+        RoomMessageHandler handler = message.type() == null ? null : handlers.get(message.type());
+        if (handler != null) {
+            Principal user = headerAccessor.getUser();
+            handler.handle(roomId, user == null ? null : user.getName(), message);
+            if (!handler.relay()) {
+                return;
+            }
         }
 
-        // 4) game_state && state == 0 이면 DB 업데이트
-        if ("game_state".equals(type) && state != null && state == 0) {
-            Long rid = Long.valueOf(roomId);
-            roomRepository.findById(rid).ifPresent(room -> {
-                room.setRoomState(0L);
-                roomRepository.save(room);
-                logger.info("Room {} 의 roomState를 0으로 변경했습니다.", roomId);
-            });
+        // 3) 받은 payload 그대로 브로드캐스트
+        messagingTemplate.send("/topic/room/" + roomId, relayMessage(message));
+        logger.debug("Broadcasted {} to /topic/room/{} from session {}", message.type(), roomId, sessionId);
+    }
+
+    // 같은 방에 있는 사용자에게만 전달 (다른 방 사용자에게 시그널링을 흘려보내지 않음)
+    private void sendToPeer(String roomId, String target, RoomMessage message, String sessionId) {
+        boolean inRoom = userSessionService.getSessionsOfUser(target).stream()
+                .map(userSessionService::getSession)
+                .anyMatch(session -> session != null && roomId.equals(session.getRoomId()));
+        if (!inRoom) {
+            logger.warn("Dropped signal to user {} not in room {} from session {}", target, roomId, sessionId);
+            return;
         }
+        messagingTemplate.send(messagingTemplate.getUserDestinationPrefix() + target + SIGNAL_QUEUE,
+                relayMessage(message));
+        logger.debug("Sent {} to user {} in room {} from session {}", message.type(), target, roomId, sessionId);
+    }
+
+    // 이미 인코딩된 payload 바이트를 converter 를 거치지 않고 그대로 보냄
+    // (받는 세션의 인코딩이 다르면 PayloadEncodingInterceptor 가 변환)
+    private static Message<byte[]> relayMessage(RoomMessage message) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(message.contentType());
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(message.payload(), accessor.getMessageHeaders());
     }
 }
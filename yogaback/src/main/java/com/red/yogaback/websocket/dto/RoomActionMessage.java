@@ -4,6 +4,8 @@ package com.red.yogaback.websocket.dto;
 public class RoomActionMessage {
     // 클라이언트가 전송하는 원시 데이터(payload)를 담기 위한 필드
     private Object payload;
+    // 받을 사용자 ID (WebRTC offer/answer/ICE 등). 없으면 방 전체에 브로드캐스트
+    private String target;
 
     // 기본 생성자: 프레임워크(예: Jackson)에서 역직렬화 시 필요할 수 있습니다.
     public RoomActionMessage() {}
@@ -23,6 +25,14 @@ public class RoomActionMessage {
         this.payload = payload;
     }
 
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
     /*
      * 개선방향:
      *  - 제네릭 타입 활용: Object 대신 <T> 제네릭을 사용하면 타입 안정성을 높일 수 있습니다.
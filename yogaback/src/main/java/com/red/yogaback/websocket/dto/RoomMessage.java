@@ -0,0 +1,14 @@
+package com.red.yogaback.websocket.dto;
+
+import org.springframework.util.MimeType;
+
+/**
+ * "/app/room/{roomId}" 로 들어온 메시지를 RoomMessageReader 가 나눈 결과.
+ *
+ * @param target      받을 사용자 ID (없으면 null, 방 전체 브로드캐스트)
+ * @param type        payload 의 type 필드 (없으면 null)
+ * @param payload     클라이언트가 보낸 payload 바이트 그대로 (다시 직렬화하지 않고 중계)
+ * @param contentType payload 인코딩 (application/json 또는 application/cbor)
+ */
+public record RoomMessage(String target, String type, byte[] payload, MimeType contentType) {
+}
@@ -0,0 +1,103 @@
+package com.red.yogaback.websocket.service;
+
+import com.red.yogaback.model.ClusterNode;
+import com.red.yogaback.repository.ClusterNodeRepository;
+import com.red.yogaback.websocket.config.NodeIdentity;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 살아 있는 서버 목록 관리 (websocket.routing.enabled 일 때만 동작).
+ *
+ * 동작:
+ *  - heartbeat-ms 마다 ClusterNode 테이블에 자신의 lastSeenAt 을 갱신하고,
+ *    node-ttl-ms 안에 갱신한 서버들을 RoomRouter 에 넘깁니다.
+ *  - 서버 구성이 바뀌어 이 서버가 더 이상 소유하지 않게 된 방의 연결은 1012(Service Restart)로 닫아
+ *    클라이언트가 새 소유 서버로 다시 접속하게 합니다. consistent hashing 이라 옮겨 가는 방은 대략 1/N 입니다.
+ *  - 정상 종료 시 자신을 지워 다른 서버가 바로 방을 넘겨받습니다. (비정상 종료면 node-ttl-ms 후)
+ */
+@Component
+public class ClusterMembership {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final ClusterNodeRepository clusterNodeRepository;
+    private final NodeIdentity self;
+    private final RoomRouter roomRouter;
+    private final LocalWebSocketSessions localWebSocketSessions;
+    private final UserSessionService userSessionService;
+    private final long nodeTtlMs;
+
+    public ClusterMembership(ClusterNodeRepository clusterNodeRepository,
+                             NodeIdentity self,
+                             RoomRouter roomRouter,
+                             LocalWebSocketSessions localWebSocketSessions,
+                             UserSessionService userSessionService,
+                             @Value("${websocket.routing.node-ttl-ms:15000}") long nodeTtlMs) {
+        this.clusterNodeRepository = clusterNodeRepository;
+        this.self = self;
+        this.roomRouter = roomRouter;
+        this.localWebSocketSessions = localWebSocketSessions;
+        this.userSessionService = userSessionService;
+        this.nodeTtlMs = nodeTtlMs;
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.routing.heartbeat-ms:5000}")
+    public void heartbeat() {
+        if (!roomRouter.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            clusterNodeRepository.save(ClusterNode.builder()
+                    .nodeId(self.getNodeId())
+                    .wsUrl(self.getWsUrl())
+                    .lastSeenAt(now)
+                    .build());
+            Map<String, String> liveNodes = new HashMap<>();
+            for (ClusterNode node : clusterNodeRepository.findByLastSeenAtGreaterThan(now - nodeTtlMs)) {
+                liveNodes.put(node.getNodeId(), node.getWsUrl());
+            }
+            liveNodes.put(self.getNodeId(), self.getWsUrl());
+            if (roomRouter.updateNodes(liveNodes)) {
+                handOffMovedRooms();
+            }
+        } catch (Exception e) {
+            // DB 장애 시 마지막으로 알던 서버 목록을 그대로 사용
+            logger.error("Cluster heartbeat failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // 다른 서버 소유가 된 방에 붙어 있는 이 서버의 연결을 닫음
+    private void handOffMovedRooms() {
+        int closed = 0;
+        for (String sessionId : localWebSocketSessions.sessionIds()) {
+            UserSession session = userSessionService.getSession(sessionId);
+            if (session == null || session.getRoomId() == null || session.getRoomId().isBlank()) {
+                continue;
+            }
+            if (!roomRouter.isLocal(session.getRoomId())) {
+                localWebSocketSessions.close(sessionId, CloseStatus.SERVICE_RESTARTED);
+                closed++;
+            }
+        }
+        if (closed > 0) {
+            logger.info("Handed off {} sessions of rooms now owned by other nodes", closed);
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (roomRouter.isEnabled()) {
+            clusterNodeRepository.deleteById(self.getNodeId());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.red.yogaback.websocket.service;
+
+import com.red.yogaback.service.RoomLeaderboards;
+import com.red.yogaback.service.RoomService;
+import com.red.yogaback.websocket.dto.RoomMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * game_state 메시지 처리.
+ *  - state == 0(게임 시작): 방장이 보낸 경우에만 방을 닫고 새 점수판을 만듭니다.
+ *    방장 확인과 닫기는 방 액터에서 실행되고 DB 에는 RoomStateWriter 가 모아서 반영하므로 inbound 스레드는 enqueue 만 합니다.
+ *  - 점수판의 라운드 전환/종료도 방장만 할 수 있습니다 (RoomLeaderboards 가 확인).
+ *  - state >= 1: 점수판의 라운드를 넘깁니다.
+ *  - state == -1(게임 종료): 최종 순위를 확정합니다 (DB 반영은 roomFlushExecutor).
+ */
+@Component
+public class GameStateHandler implements RoomMessageHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameStateHandler.class);
+
+    private final RoomMessageReader roomMessageReader;
+    private final RoomService roomService;
+    private final RoomLeaderboards roomLeaderboards;
+
+    public GameStateHandler(RoomMessageReader roomMessageReader, RoomService roomService,
+                            RoomLeaderboards roomLeaderboards) {
+        this.roomMessageReader = roomMessageReader;
+        this.roomService = roomService;
+        this.roomLeaderboards = roomLeaderboards;
+    }
+
+    @Override
+    public String type() {
+        return "game_state";
+    }
+
+    @Override
+    public void handle(String roomId, String userId, RoomMessage message) {
+        Long id = parseRoomId(roomId);
+        if (id == null) {
+            logger.warn("숫자가 아닌 roomId 의 game_state 는 무시합니다: {}", roomId);
+            return;
+        }
+        Integer state;
+        try {
+            state = roomMessageReader.readInt(message.payload(), message.contentType(), "state");
+        } catch (IOException e) {
+            logger.warn("game_state payload 의 state 를 읽지 못했습니다: roomId = {}", roomId, e);
+            return;
+        }
+        if (state == null) {
+            return;
+        }
+        if (state == -1) {
+            roomLeaderboards.finish(roomId, userId);
+            return;
+        }
+        if (state > 0) {
+            roomLeaderboards.startRound(roomId, userId, state);
+            return;
+        }
+        if (state != 0) {
+            return;
+        }
+        // 점수판은 방 액터가 방장임을 확인한 뒤 만듦 (액터 스레드에서 실행)
+        roomService.startGame(id, userId).thenAccept(started -> {
+            if (started) {
+                roomLeaderboards.start(roomId, userId);
+            } else {
+                logger.warn("방장이 아닌 사용자의 게임 시작을 무시합니다: roomId = {}, userId = {}", roomId, userId);
+            }
+        });
+    }
+
+    private Long parseRoomId(String roomId) {
+        try {
+            return Long.valueOf(roomId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
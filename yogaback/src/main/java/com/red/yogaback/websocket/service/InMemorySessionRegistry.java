@@ -0,0 +1,162 @@
+package com.red.yogaback.websocket.service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 이 서버(JVM)의 세션만 관리하는 레지스트리. 단일 서버 배포용 (websocket.session.registry=memory).
+ * 사용자/방 조회를 위해 userId, roomId 별 보조 인덱스를 함께 유지합니다.
+ * 만료 시각은 SessionTimingWheel 로 관리해, heartbeat 는 O(1) 재예약이고 claimExpired 는 만료된 세션만 봅니다.
+ */
+public class InMemorySessionRegistry implements SessionRegistry {
+
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byUser = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byRoom = new ConcurrentHashMap<>();
+
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final SessionTimingWheel wheel;
+
+    public InMemorySessionRegistry(long ttlMs, LongSupplier clock) {
+        this(ttlMs, 1000L, clock);
+    }
+
+    public InMemorySessionRegistry(long ttlMs, long tickMs, LongSupplier clock) {
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+        this.wheel = new SessionTimingWheel(ttlMs, tickMs, clock.getAsLong());
+    }
+
+    @Override
+    public void register(String sessionId, UserSession session) {
+        Entry entry = new Entry(session, clock.getAsLong() + ttlMs, new SessionTimingWheel.Timer(sessionId));
+        // 같은 세션의 인덱스/타이머 갱신이 섞이지 않도록 세션 키 단위로 처리
+        sessions.compute(sessionId, (id, previous) -> {
+            if (previous != null) {
+                unindex(id, previous.session);
+                wheel.cancel(previous.timer);
+            }
+            index(id, session);
+            wheel.schedule(entry.timer, entry.expiresAt);
+            return entry;
+        });
+    }
+
+    @Override
+    public UserSession get(String sessionId) {
+        Entry entry = sessions.get(sessionId);
+        return entry == null ? null : entry.session;
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        sessions.computeIfPresent(sessionId, (id, previous) -> {
+            unindex(id, previous.session);
+            wheel.cancel(previous.timer);
+            return null;
+        });
+    }
+
+    @Override
+    public void touch(String sessionId) {
+        Entry entry = sessions.get(sessionId);
+        if (entry != null) {
+            long expiresAt = clock.getAsLong() + ttlMs;
+            entry.expiresAt = expiresAt;
+            // 이미 claimExpired 로 넘긴 세션이면 wheel 이 무시 (remove 될 때까지 다시 넘기지 않음)
+            wheel.schedule(entry.timer, expiresAt);
+        }
+    }
+
+    @Override
+    public List<String> sessionsOfUser(String userId) {
+        return live(byUser.get(userId));
+    }
+
+    @Override
+    public List<String> sessionsInRoom(String roomId) {
+        return live(byRoom.get(roomId));
+    }
+
+    @Override
+    public Set<Long> activeRoomIds() {
+        long now = clock.getAsLong();
+        Set<Long> roomIds = new HashSet<>();
+        for (Map.Entry<String, Set<String>> room : byRoom.entrySet()) {
+            if (room.getValue().stream().anyMatch(id -> isLive(sessions.get(id), now))) {
+                try {
+                    roomIds.add(Long.valueOf(room.getKey()));
+                } catch (NumberFormatException ignored) {
+                    // 숫자가 아닌 roomId 는 방이 아님
+                }
+            }
+        }
+        return roomIds;
+    }
+
+    @Override
+    public List<String> claimExpired() {
+        return wheel.expire(clock.getAsLong());
+    }
+
+    private List<String> live(Set<String> sessionIds) {
+        if (sessionIds == null) {
+            return List.of();
+        }
+        long now = clock.getAsLong();
+        return sessionIds.stream()
+                .filter(id -> isLive(sessions.get(id), now))
+                .toList();
+    }
+
+    private boolean isLive(Entry entry, long now) {
+        return entry != null && entry.expiresAt > now;
+    }
+
+    private void index(String sessionId, UserSession session) {
+        add(byUser, session.getUserId(), sessionId);
+        add(byRoom, session.getRoomId(), sessionId);
+    }
+
+    private void unindex(String sessionId, UserSession session) {
+        delete(byUser, session.getUserId(), sessionId);
+        delete(byRoom, session.getRoomId(), sessionId);
+    }
+
+    private static void add(Map<String, Set<String>> index, String key, String sessionId) {
+        if (key != null && !key.isBlank()) {
+            // 빈 Set 제거(delete)와 엇갈리지 않도록 추가도 compute 안에서
+            index.compute(key, (k, ids) -> {
+                Set<String> target = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                target.add(sessionId);
+                return target;
+            });
+        }
+    }
+
+    private static void delete(Map<String, Set<String>> index, String key, String sessionId) {
+        if (key != null && !key.isBlank()) {
+            index.computeIfPresent(key, (k, ids) -> {
+                ids.remove(sessionId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static final class Entry {
+        private final UserSession session;
+        private volatile long expiresAt;
+        private final SessionTimingWheel.Timer timer;
+
+        private Entry(UserSession session, long expiresAt, SessionTimingWheel.Timer timer) {
+            this.session = session;
+            this.expiresAt = expiresAt;
+            this.timer = timer;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.red.yogaback.websocket.service;
+
+import com.red.yogaback.model.ConnectedSession;
+import com.red.yogaback.repository.ConnectedSessionRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * ConnectedSession 테이블을 쓰는 SessionStore. 모든 서버가 같은 DB 를 보므로 별도 인프라 없이 공유됩니다.
+ */
+public class JpaSessionStore implements SessionStore {
+
+    private final ConnectedSessionRepository repository;
+
+    public JpaSessionStore(ConnectedSessionRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    @Transactional
+    public void save(SessionRecord record) {
+        repository.save(ConnectedSession.from(record));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<SessionRecord> find(String sessionId) {
+        return repository.findById(sessionId).map(ConnectedSession::toRecord);
+    }
+
+    @Override
+    @Transactional
+    public void delete(String sessionId) {
+        repository.deleteBySessionId(sessionId);
+    }
+
+    @Override
+    @Transactional
+    public void extend(String sessionId, long expiresAt) {
+        repository.extend(sessionId, expiresAt);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findLiveByUserId(String userId, long now) {
+        return repository.findLiveSessionIdsByUserId(userId, now);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findLiveByRoomId(String roomId, long now) {
+        return repository.findLiveSessionIdsByRoomId(roomId, now);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<String> findLiveRoomIds(long now) {
+        return new HashSet<>(repository.findLiveRoomIds(now));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findExpired(long now, int limit) {
+        return repository.findExpiredSessionIds(now, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional
+    public boolean claimExpired(String sessionId, long now, long claimedUntil, String nodeId) {
+        return repository.claimExpired(sessionId, now, claimedUntil, nodeId) == 1;
+    }
+}
@@ -0,0 +1,48 @@
+package com.red.yogaback.websocket.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이 서버에 실제로 붙어 있는 WebSocket 세션 핸들. (WebSocketConfig 의 핸들러 데코레이터가 등록/해제)
+ * 서버 쪽에서 연결을 끊어야 할 때(예: 방 소유 서버 이동) 사용합니다.
+ */
+@Component
+public class LocalWebSocketSessions {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalWebSocketSessions.class);
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    public void add(WebSocketSession session) {
+        sessions.put(session.getId(), session);
+    }
+
+    public void remove(WebSocketSession session) {
+        sessions.remove(session.getId(), session);
+    }
+
+    public Set<String> sessionIds() {
+        return sessions.keySet();
+    }
+
+    public void close(String sessionId, CloseStatus status) {
+        WebSocketSession session = sessions.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            logger.warn("Failed to close session {}: {}", sessionId, e.getMessage());
+        }
+    }
+}
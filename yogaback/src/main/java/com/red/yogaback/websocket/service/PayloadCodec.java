@@ -0,0 +1,64 @@
+package com.red.yogaback.websocket.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * STOMP 메시지 본문 인코딩 (JSON / CBOR).
+ * 본문의 content-type 으로 streaming parser 를 고르고, 세션이 협상한 인코딩과 다르면 토큰 단위로 옮겨 씁니다.
+ */
+@Component
+public class PayloadCodec {
+
+    public static final MimeType APPLICATION_CBOR = new MimeType("application", "cbor");
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final CBORFactory cborFactory = new CBORFactory();
+
+    public static boolean isCbor(MimeType contentType) {
+        return contentType != null && APPLICATION_CBOR.equalsTypeAndSubtype(contentType);
+    }
+
+    public static boolean isJson(MimeType contentType) {
+        return contentType != null && MimeTypeUtils.APPLICATION_JSON.equalsTypeAndSubtype(contentType);
+    }
+
+    // content-type 이 없으면 기존 클라이언트와 같이 JSON 으로 취급
+    public JsonParser createParser(byte[] body, MimeType contentType) throws IOException {
+        return isCbor(contentType) ? cborFactory.createParser(body) : jsonFactory.createParser(body);
+    }
+
+    // STOMP 프레임 바이트 안의 본문 구간만 복사 없이 읽을 때
+    public JsonParser createParser(byte[] frame, int offset, int length, MimeType contentType) throws IOException {
+        return isCbor(contentType)
+                ? cborFactory.createParser(frame, offset, length)
+                : jsonFactory.createParser(frame, offset, length);
+    }
+
+    public byte[] toCbor(byte[] json) throws IOException {
+        return copy(jsonFactory, json, cborFactory);
+    }
+
+    public byte[] toJson(byte[] cbor) throws IOException {
+        return copy(cborFactory, cbor, jsonFactory);
+    }
+
+    private static byte[] copy(JsonFactory from, byte[] source, JsonFactory to) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(source.length + 16);
+        try (JsonParser parser = from.createParser(source);
+             JsonGenerator generator = to.createGenerator(out)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentStructure(parser);
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,23 @@
+package com.red.yogaback.websocket.service;
+
+import com.red.yogaback.websocket.dto.RoomMessage;
+
+/**
+ * payload.type 별로 중계 외에 서버가 따로 처리해야 하는 방 메시지 핸들러.
+ * 클라이언트 inbound 스레드에서 호출되므로 DB 작업은 직접 하지 말고 방 액터 등 다른 실행기로 넘겨야 합니다.
+ */
+public interface RoomMessageHandler {
+
+    // 처리할 payload.type
+    String type();
+
+    /**
+     * @param userId 보낸 사용자 (CONNECT 때 정한 Principal). 인증 정보가 없으면 null
+     */
+    void handle(String roomId, String userId, RoomMessage message);
+
+    // false 면 서버만 받고 방에 중계하지 않음 (예: score_report 는 leaderboard 로만 내보냄)
+    default boolean relay() {
+        return true;
+    }
+}
@@ -0,0 +1,132 @@
+package com.red.yogaback.websocket.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.red.yogaback.websocket.dto.RoomMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 방 메시지({"target": ..., "payload": {...}}) 를 streaming parser 로 한 번 훑어
+ * target, payload.type 과 payload 의 원본 바이트 구간만 꺼냅니다.
+ * Map/POJO 로 역직렬화하지 않으므로 대부분의 단순 중계 메시지는 토큰 스캔 + 바이트 복사 한 번으로 끝납니다.
+ * 본문이 CBOR(content-type: application/cbor) 이면 같은 방식으로 CBOR parser 를 쓰고, payload 도 CBOR 바이트 그대로 돌려줍니다.
+ */
+@Component
+public class RoomMessageReader {
+
+    private final PayloadCodec payloadCodec;
+
+    public RoomMessageReader(PayloadCodec payloadCodec) {
+        this.payloadCodec = payloadCodec;
+    }
+
+    public RoomMessage read(byte[] body, MimeType contentType) throws IOException {
+        boolean cbor = PayloadCodec.isCbor(contentType);
+        try (JsonParser parser = payloadCodec.createParser(body, contentType)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Room message must be a JSON object");
+            }
+            String target = null;
+            String type = null;
+            byte[] payload = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("target".equals(field)) {
+                    target = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                } else if ("payload".equals(field)) {
+                    if (value == JsonToken.VALUE_STRING && !cbor) {
+                        // JSON 문자열 payload 는 기존처럼 따옴표 없이 내용만 중계
+                        payload = parser.getText().getBytes(StandardCharsets.UTF_8);
+                        continue;
+                    }
+                    if (value == JsonToken.VALUE_NULL) {
+                        continue;
+                    }
+                    int start = (int) parser.currentTokenLocation().getByteOffset();
+                    if (value == JsonToken.START_OBJECT) {
+                        type = readType(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                    int end = (int) parser.currentLocation().getByteOffset();
+                    payload = Arrays.copyOfRange(body, start, end);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new RoomMessage(target, type, payload, cbor ? PayloadCodec.APPLICATION_CBOR : MimeTypeUtils.APPLICATION_JSON);
+        }
+    }
+
+    /**
+     * payload 의 최상위 정수 필드 하나를 읽습니다. 숫자 문자열("0")도 허용하고, 없거나 숫자가 아니면 null.
+     */
+    public Integer readInt(byte[] payload, MimeType contentType, String field) throws IOException {
+        try (JsonParser parser = payloadCodec.createParser(payload, contentType)) {
+            JsonToken value = seekField(parser, field);
+            if (value == JsonToken.VALUE_NUMBER_INT) {
+                return parser.getIntValue();
+            }
+            if (value == JsonToken.VALUE_STRING) {
+                try {
+                    return Integer.parseInt(parser.getText().trim());
+                } catch (NumberFormatException ignored) {
+                    return null;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * payload 의 최상위 실수 필드 하나를 읽습니다. 정수도 허용하고, 없거나 숫자가 아니면 null.
+     */
+    public Float readFloat(byte[] payload, MimeType contentType, String field) throws IOException {
+        try (JsonParser parser = payloadCodec.createParser(payload, contentType)) {
+            JsonToken value = seekField(parser, field);
+            if (value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NUMBER_FLOAT) {
+                return parser.getFloatValue();
+            }
+            return null;
+        }
+    }
+
+    // 최상위 field 의 값 토큰에 parser 를 세움. 없으면 null
+    private static JsonToken seekField(JsonParser parser, String field) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals(name)) {
+                return value;
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    // payload 객체의 최상위 "type" 만 읽고 나머지는 건너뜀 (END_OBJECT 까지 소비)
+    private String readType(JsonParser parser) throws IOException {
+        String type = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (type == null && "type".equals(field) && value == JsonToken.VALUE_STRING) {
+                type = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return type;
+    }
+}
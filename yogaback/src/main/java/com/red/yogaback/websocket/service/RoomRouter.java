@@ -0,0 +1,75 @@
+package com.red.yogaback.websocket.service;
+
+import com.red.yogaback.dto.respond.RoomRoute;
+import com.red.yogaback.websocket.config.NodeIdentity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 방 → 소유 서버 라우팅 (websocket.routing.enabled).
+ *
+ * 동작:
+ *  - 살아 있는 서버 목록(ClusterMembership 이 갱신)으로 ConsistentHashRing 을 만들고 roomId 의 소유 서버를 정합니다.
+ *  - 한 방의 WebSocket 연결이 모두 소유 서버에 모이므로 방 topic 팬아웃이 그 서버 안에서 끝납니다.
+ *  - 비활성화되어 있으면 모든 방을 이 서버가 맡습니다 (단일 서버).
+ */
+@Component
+public class RoomRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomRouter.class);
+
+    private final NodeIdentity self;
+    private final boolean enabled;
+    private final int virtualNodes;
+
+    private volatile ConsistentHashRing ring;
+    // nodeId -> 클라이언트가 접속할 WebSocket 주소
+    private volatile Map<String, String> nodeUrls;
+
+    public RoomRouter(NodeIdentity self,
+                      @Value("${websocket.routing.enabled:false}") boolean enabled,
+                      @Value("${websocket.routing.virtual-nodes:160}") int virtualNodes) {
+        this.self = self;
+        this.enabled = enabled;
+        this.virtualNodes = virtualNodes;
+        // 첫 heartbeat 전까지는 자기 자신만 있는 링
+        updateNodes(Map.of(self.getNodeId(), self.getWsUrl()));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 살아 있는 서버 목록 반영. 구성이 바뀐 경우에만 링을 다시 만들고 true 를 반환합니다.
+     */
+    public boolean updateNodes(Map<String, String> liveNodes) {
+        nodeUrls = Map.copyOf(liveNodes);
+        ConsistentHashRing current = ring;
+        if (current != null && current.nodes().equals(liveNodes.keySet())) {
+            return false;
+        }
+        ring = new ConsistentHashRing(liveNodes.keySet(), virtualNodes);
+        logger.info("Room routing ring rebuilt: nodes={}", liveNodes.keySet());
+        return true;
+    }
+
+    public RoomRoute route(String roomId) {
+        String owner = enabled ? ring.ownerOf(roomId) : null;
+        if (owner == null) {
+            owner = self.getNodeId();
+        }
+        return RoomRoute.builder()
+                .nodeId(owner)
+                .wsUrl(nodeUrls.getOrDefault(owner, self.getWsUrl()))
+                .build();
+    }
+
+    public boolean isLocal(String roomId) {
+        return !enabled || self.getNodeId().equals(route(roomId).getNodeId());
+    }
+}
@@ -0,0 +1,29 @@
+package com.red.yogaback.websocket.service;
+
+import com.red.yogaback.service.RoomLeaderboards;
+import com.red.yogaback.websocket.dto.RoomMessage;
+import org.springframework.stereotype.Component;
+
+/**
+ * round_end: 방장이 라운드 타이머가 끝났음을 알리면 서버 점수판의 라운드 정산을 예약합니다.
+ * 방장이 아닌 사용자가 보낸 round_end 는 점수판에서 무시합니다 (중계는 그대로).
+ */
+@Component
+public class RoundEndHandler implements RoomMessageHandler {
+
+    private final RoomLeaderboards roomLeaderboards;
+
+    public RoundEndHandler(RoomLeaderboards roomLeaderboards) {
+        this.roomLeaderboards = roomLeaderboards;
+    }
+
+    @Override
+    public String type() {
+        return "round_end";
+    }
+
+    @Override
+    public void handle(String roomId, String userId, RoomMessage message) {
+        roomLeaderboards.endRound(roomId, userId);
+    }
+}
@@ -0,0 +1,58 @@
+package com.red.yogaback.websocket.service;
+
+import com.red.yogaback.service.RoomLeaderboards;
+import com.red.yogaback.websocket.dto.RoomMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * score_report: 클라이언트의 라운드 점수(자세 유지 시간)를 서버 점수판에 반영합니다.
+ * 방에는 중계하지 않고, 점수는 RoomLeaderboards 의 leaderboard snapshot 으로만 나갑니다.
+ */
+@Component
+public class ScoreReportHandler implements RoomMessageHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoreReportHandler.class);
+
+    private final RoomMessageReader roomMessageReader;
+    private final RoomLeaderboards roomLeaderboards;
+
+    public ScoreReportHandler(RoomMessageReader roomMessageReader, RoomLeaderboards roomLeaderboards) {
+        this.roomMessageReader = roomMessageReader;
+        this.roomLeaderboards = roomLeaderboards;
+    }
+
+    @Override
+    public String type() {
+        return "score_report";
+    }
+
+    @Override
+    public boolean relay() {
+        return false;
+    }
+
+    @Override
+    public void handle(String roomId, String userId, RoomMessage message) {
+        // 점수 주인은 payload.fromPeerId 가 아니라 연결한 사용자
+        if (userId == null) {
+            return;
+        }
+        Float time;
+        Integer round;
+        try {
+            time = roomMessageReader.readFloat(message.payload(), message.contentType(), "time");
+            round = roomMessageReader.readInt(message.payload(), message.contentType(), "round");
+        } catch (IOException e) {
+            logger.warn("score_report payload 를 읽지 못했습니다: roomId = {}, userId = {}", roomId, userId, e);
+            return;
+        }
+        if (time == null || time.isNaN() || time.isInfinite()) {
+            return;
+        }
+        roomLeaderboards.report(roomId, userId, round, time);
+    }
+}
@@ -0,0 +1,22 @@
+package com.red.yogaback.websocket.service;
+
+/**
+ * SessionStore 에 저장되는 세션 한 건. nodeId 는 세션이 붙어 있는(또는 만료 정리를 맡은) 서버.
+ */
+public record SessionRecord(String sessionId,
+                            String nodeId,
+                            String userId,
+                            String roomId,
+                            String userNickName,
+                            String userProfile,
+                            long expiresAt) {
+
+    public static SessionRecord of(String sessionId, String nodeId, UserSession session, long expiresAt) {
+        return new SessionRecord(sessionId, nodeId, session.getUserId(), session.getRoomId(),
+                session.getUserNickName(), session.getUserProfile(), expiresAt);
+    }
+
+    public UserSession toUserSession() {
+        return new UserSession(userId, roomId, userNickName, userProfile);
+    }
+}
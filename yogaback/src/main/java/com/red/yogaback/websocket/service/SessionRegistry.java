@@ -0,0 +1,43 @@
+package com.red.yogaback.websocket.service;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * WebSocket 세션 레지스트리.
+ *
+ * 동작:
+ *  - 세션마다 만료 시각(TTL)을 두고, heartbeat 가 올 때마다 touch 로 연장합니다.
+ *  - 세션 ID, 사용자 ID, 방 ID 로 조회할 수 있습니다.
+ *  - 구현은 websocket.session.registry 로 선택합니다.
+ *    memory: 이 서버(JVM)의 세션만 보는 InMemorySessionRegistry (단일 서버)
+ *    shared: SessionStore 를 통해 모든 서버의 세션을 보는 SharedSessionRegistry (다중 서버)
+ */
+public interface SessionRegistry {
+
+    // 새 세션 등록 또는 기존 세션 정보 교체 (예: 방 구독 후 roomId 반영). TTL 도 새로 시작
+    void register(String sessionId, UserSession session);
+
+    // 등록된 세션, 없으면 null
+    UserSession get(String sessionId);
+
+    void remove(String sessionId);
+
+    // heartbeat 수신: 만료 시각 연장
+    void touch(String sessionId);
+
+    // 만료되지 않은 세션 중 해당 사용자의 세션 ID 목록
+    List<String> sessionsOfUser(String userId);
+
+    // 만료되지 않은 세션 중 해당 방을 구독한 세션 ID 목록
+    List<String> sessionsInRoom(String roomId);
+
+    // 만료되지 않은 세션이 하나라도 구독 중인 방 ID
+    Set<Long> activeRoomIds();
+
+    /**
+     * TTL 이 지난 세션을 이 서버가 정리하도록 가져옵니다.
+     * 여러 서버가 동시에 호출해도 한 세션은 한 서버에만 반환되며, 반환된 세션은 정리(remove)될 때까지 다시 반환되지 않습니다.
+     */
+    List<String> claimExpired();
+}
@@ -0,0 +1,35 @@
+package com.red.yogaback.websocket.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * SharedSessionRegistry 가 쓰는 저장소. 모든 서버가 같은 저장소를 보므로 다른 서버의 세션도 조회됩니다.
+ * 기본 구현은 DB 테이블을 쓰는 JpaSessionStore 이며, 다른 저장소(Redis 등)로 바꿀 수 있습니다.
+ */
+public interface SessionStore {
+
+    // sessionId 기준 upsert
+    void save(SessionRecord record);
+
+    Optional<SessionRecord> find(String sessionId);
+
+    void delete(String sessionId);
+
+    void extend(String sessionId, long expiresAt);
+
+    List<String> findLiveByUserId(String userId, long now);
+
+    List<String> findLiveByRoomId(String roomId, long now);
+
+    Set<String> findLiveRoomIds(long now);
+
+    List<String> findExpired(long now, int limit);
+
+    /**
+     * 만료된 세션을 nodeId 가 정리하도록 가져갑니다. 아직 만료 상태일 때만 만료 시각을 claimedUntil 로 미루고 true.
+     * 여러 서버가 동시에 시도해도 한 서버만 성공해야 합니다.
+     */
+    boolean claimExpired(String sessionId, long now, long claimedUntil, String nodeId);
+}
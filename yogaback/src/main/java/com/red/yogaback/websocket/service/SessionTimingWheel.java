@@ -0,0 +1,118 @@
+package com.red.yogaback.websocket.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 세션 만료 시각을 관리하는 hashed timing wheel.
+ *
+ * 동작:
+ *  - 시간을 tick-ms 단위 칸으로 나눈 원형 배열에, 만료 tick 에 해당하는 칸의 연결 리스트로 세션 타이머를 넣습니다.
+ *  - 재예약(heartbeat)은 리스트에서 떼어 다른 칸에 붙이는 O(1) 연산이며, 타이머 객체를 재사용하므로 할당이 없습니다.
+ *  - expire 는 지난 tick 의 칸만 보므로, 만료 시각이 된 세션만 건드립니다 (전체 세션 순회 없음).
+ *  - 칸 수는 TTL 을 한 바퀴 안에 담도록 잡으므로 보통 한 칸의 타이머는 모두 만료 대상입니다.
+ *    expire 가 오래 호출되지 않아 한 바퀴를 넘긴 타이머는 만료 tick 을 비교해 남겨 둡니다.
+ *  - 만료 시각 계산은 tick 올림이므로 만료는 최대 tick-ms 늦어질 수 있고, 이르게 만료되지는 않습니다.
+ */
+class SessionTimingWheel {
+
+    private final long tickMs;
+    private final Timer[] slots;
+    private final int mask;
+    // 마지막으로 처리한 tick
+    private long cursor;
+
+    SessionTimingWheel(long horizonMs, long tickMs, long now) {
+        this.tickMs = tickMs;
+        int size = Integer.highestOneBit((int) Math.max(1, (horizonMs + tickMs - 1) / tickMs + 1)) << 1;
+        this.slots = new Timer[size];
+        this.mask = size - 1;
+        this.cursor = now / tickMs;
+    }
+
+    /**
+     * deadline(millis) 에 만료되도록 예약합니다. 이미 예약된 타이머면 옮깁니다.
+     * expire 로 이미 넘긴 타이머는 다시 예약하지 않습니다.
+     */
+    synchronized void schedule(Timer timer, long deadline) {
+        if (timer.expired) {
+            return;
+        }
+        unlink(timer);
+        // 올림: tick 경계에서 처리될 때 deadline 이 이미 지났음을 보장
+        long tick = Math.max((deadline + tickMs - 1) / tickMs, cursor + 1);
+        timer.deadlineTick = tick;
+        link(timer, (int) (tick & mask));
+    }
+
+    synchronized void cancel(Timer timer) {
+        unlink(timer);
+    }
+
+    // now 까지 만료된 세션 ID. 넘긴 타이머는 cancel 되기 전까지 다시 넘기지 않음
+    synchronized List<String> expire(long now) {
+        long nowTick = now / tickMs;
+        List<String> expired = new ArrayList<>();
+        // 한 바퀴 이상 밀렸으면 모든 칸을 한 번씩만 봄
+        long from = Math.max(cursor + 1, nowTick - mask);
+        for (long tick = from; tick <= nowTick; tick++) {
+            Timer timer = slots[(int) (tick & mask)];
+            while (timer != null) {
+                Timer next = timer.next;
+                if (timer.deadlineTick <= nowTick) {
+                    unlink(timer);
+                    timer.expired = true;
+                    expired.add(timer.sessionId);
+                }
+                timer = next;
+            }
+        }
+        cursor = Math.max(cursor, nowTick);
+        return expired;
+    }
+
+    private void link(Timer timer, int slot) {
+        Timer head = slots[slot];
+        timer.slot = slot;
+        timer.prev = null;
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[slot] = timer;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.slot < 0) {
+            return;
+        }
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.slot = -1;
+    }
+
+    /**
+     * 세션 하나의 타이머. 세션 등록 시 한 번 만들고 heartbeat 마다 재사용합니다.
+     * 필드는 모두 wheel 의 lock 안에서만 읽고 씁니다.
+     */
+    static final class Timer {
+        private final String sessionId;
+        private long deadlineTick;
+        private int slot = -1;
+        private Timer prev;
+        private Timer next;
+        private boolean expired;
+
+        Timer(String sessionId) {
+            this.sessionId = sessionId;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.red.yogaback.websocket.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 모든 서버가 SessionStore 를 공유하는 레지스트리 (websocket.session.registry=shared).
+ *
+ * 동작:
+ *  - 다른 서버에 붙은 세션도 사용자/방으로 조회됩니다.
+ *  - heartbeat 마다 저장소에 쓰지 않도록, TTL 의 1/3 이 지난 경우에만 만료 시각을 연장합니다.
+ *  - 죽은 서버의 세션은 TTL 이 지나면 살아 있는 서버 중 하나가 claimExpired 로 가져가 정리합니다.
+ */
+public class SharedSessionRegistry implements SessionRegistry {
+
+    private final SessionStore store;
+    private final String nodeId;
+    private final long ttlMs;
+    private final long extendAfterMs;
+    private final int claimBatchSize;
+    private final LongSupplier clock;
+
+    // 이 서버가 마지막으로 만료 시각을 연장한 시각 (sessionId -> millis)
+    private final Map<String, Long> lastExtendedAt = new ConcurrentHashMap<>();
+
+    public SharedSessionRegistry(SessionStore store, String nodeId, long ttlMs, int claimBatchSize, LongSupplier clock) {
+        this.store = store;
+        this.nodeId = nodeId;
+        this.ttlMs = ttlMs;
+        this.extendAfterMs = ttlMs / 3;
+        this.claimBatchSize = claimBatchSize;
+        this.clock = clock;
+    }
+
+    @Override
+    public void register(String sessionId, UserSession session) {
+        long now = clock.getAsLong();
+        store.save(SessionRecord.of(sessionId, nodeId, session, now + ttlMs));
+        lastExtendedAt.put(sessionId, now);
+    }
+
+    @Override
+    public UserSession get(String sessionId) {
+        return store.find(sessionId).map(SessionRecord::toUserSession).orElse(null);
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        store.delete(sessionId);
+        lastExtendedAt.remove(sessionId);
+    }
+
+    @Override
+    public void touch(String sessionId) {
+        long now = clock.getAsLong();
+        Long last = lastExtendedAt.get(sessionId);
+        if (last != null && now - last < extendAfterMs) {
+            return;
+        }
+        store.extend(sessionId, now + ttlMs);
+        lastExtendedAt.put(sessionId, now);
+    }
+
+    @Override
+    public List<String> sessionsOfUser(String userId) {
+        return store.findLiveByUserId(userId, clock.getAsLong());
+    }
+
+    @Override
+    public List<String> sessionsInRoom(String roomId) {
+        return store.findLiveByRoomId(roomId, clock.getAsLong());
+    }
+
+    @Override
+    public Set<Long> activeRoomIds() {
+        Set<Long> roomIds = new HashSet<>();
+        for (String roomId : store.findLiveRoomIds(clock.getAsLong())) {
+            try {
+                roomIds.add(Long.valueOf(roomId));
+            } catch (NumberFormatException ignored) {
+                // 숫자가 아닌 roomId 는 방이 아님
+            }
+        }
+        return roomIds;
+    }
+
+    @Override
+    public List<String> claimExpired() {
+        long now = clock.getAsLong();
+        List<String> claimed = new ArrayList<>();
+        for (String sessionId : store.findExpired(now, claimBatchSize)) {
+            // 정리하는 동안 다른 서버가 다시 가져가지 않도록 TTL 만큼 미룸
+            if (store.claimExpired(sessionId, now, now + ttlMs, nodeId)) {
+                claimed.add(sessionId);
+            }
+        }
+        return claimed;
+    }
+}
@@ -4,16 +4,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.Set;
 
 @Service
 public class UserSessionService {
     // SLF4J 로거 초기화
     private static final Logger logger = LoggerFactory.getLogger(UserSessionService.class);
 
-    // sessionId -> UserSession 매핑 (동시성 보장 위해 ConcurrentHashMap 사용)
-    private final Map<String, UserSession> sessions = new ConcurrentHashMap<>();
+    // sessionId -> UserSession 매핑. 단일 서버면 JVM 메모리, 다중 서버면 공유 저장소 (SessionRegistryConfig 참고)
+    private final SessionRegistry sessionRegistry;
+
+    public UserSessionService(SessionRegistry sessionRegistry) {
+        this.sessionRegistry = sessionRegistry;
+    }
 
     /**
      * 새로운 세션을 등록합니다.
@@ -26,7 +30,7 @@ public class UserSessionService {
      *  - 세션 수명 주기(만료 시간) 관리가 필요하다면, 타임아웃 스케줄러나 만료 검사 로직을 추가할 수 있습니다.
      */
     public void addSession(String sessionId, UserSession userSession) {
-        sessions.put(sessionId, userSession);
+        sessionRegistry.register(sessionId, userSession);
         logger.info("Session added: {} for user {}", sessionId, userSession.getUserId());
     }
 
@@ -41,7 +45,7 @@ public class UserSessionService {
      *  - 캐시 미스 발생 시 로깅 또는 모니터링 이벤트를 발생시킬 수 있습니다.
      */
     public UserSession getSession(String sessionId) {
-        return sessions.get(sessionId);
+        return sessionRegistry.get(sessionId);
     }
 
     /**
@@ -54,10 +58,28 @@ public class UserSessionService {
      *  - 제거 이벤트를 발행하여 다른 컴포넌트가 후속 처리를 할 수 있도록 할 수 있습니다.
      */
     public void removeSession(String sessionId) {
-        sessions.remove(sessionId);
+        sessionRegistry.remove(sessionId);
         logger.info("Session removed: {}", sessionId);
     }
 
+    /**
+     * 세션 하나라도 구독 중인 방 ID 목록을 반환합니다. (RoomReaper 가 주기적으로 호출)
+     * shared 레지스트리면 다른 서버에 붙은 세션도 포함됩니다.
+     */
+    public Set<Long> activeRoomIds() {
+        return sessionRegistry.activeRoomIds();
+    }
+
+    // 해당 사용자의 세션 ID 목록 (다른 기기/탭, shared 면 다른 서버 포함)
+    public List<String> getSessionsOfUser(String userId) {
+        return sessionRegistry.sessionsOfUser(userId);
+    }
+
+    // 해당 방을 구독 중인 세션 ID 목록
+    public List<String> getSessionsInRoom(String roomId) {
+        return sessionRegistry.sessionsInRoom(roomId);
+    }
+
     /*
      * 추가 개선방향:
      * 1. 동시성 사용 통계 수집:
@@ -0,0 +1,35 @@
+package com.red.yogaback.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LobbyCursorTest {
+
+    @Test
+    void 문자열로_바꿨다가_다시_읽으면_같은_커서() {
+        LobbyCursor cursor = LobbyCursor.of(1_700_000_000_000L, 42L);
+
+        assertThat(cursor.toString()).isEqualTo("1700000000000_42");
+        assertThat(LobbyCursor.parse(cursor.toString())).isEqualTo(cursor);
+        // createdAt 이 없으면 0
+        assertThat(LobbyCursor.parse(LobbyCursor.of(null, 7L).toString())).isEqualTo(new LobbyCursor(0L, 7L));
+    }
+
+    @Test
+    void 비어_있으면_첫_페이지_형식이_틀리면_예외() {
+        assertThat(LobbyCursor.parse(null)).isNull();
+        assertThat(LobbyCursor.parse(" ")).isNull();
+        assertThatThrownBy(() -> LobbyCursor.parse("abc")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LobbyCursor.parse("1_x")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void createdAt_이_같으면_roomId_순서() {
+        assertThat(new LobbyCursor(2L, 1L).isAfter(new LobbyCursor(1L, 9L))).isTrue();
+        assertThat(new LobbyCursor(1L, 2L).isAfter(new LobbyCursor(1L, 1L))).isTrue();
+        assertThat(new LobbyCursor(1L, 1L).isAfter(new LobbyCursor(1L, 1L))).isFalse();
+        assertThat(new LobbyCursor(1L, 1L).isAfter(null)).isTrue();
+    }
+}
@@ -0,0 +1,186 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.dto.request.RoomRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LobbyUpdateCoalescerTest {
+
+    @Mock
+    private SseEmitterService sseEmitterService;
+    @Mock
+    private TaskScheduler scheduler;
+
+    private final AtomicLong clock = new AtomicLong();
+    // 예약된 flush. 시계를 옮길 때 시각이 된 것만 실행
+    private final List<ScheduledFlush> scheduled = new ArrayList<>();
+    private LobbyUpdateCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        when(scheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            ScheduledFlush flush = new ScheduledFlush(invocation.getArgument(0),
+                    ((Instant) invocation.getArgument(1)).toEpochMilli());
+            scheduled.add(flush);
+            return flush;
+        });
+        coalescer = new LobbyUpdateCoalescer(sseEmitterService, scheduler, new SimpleMeterRegistry(),
+                100L, 300L, clock::get);
+    }
+
+    @Test
+    void 윈도우_안의_변경은_방마다_마지막_상태_하나로_합친다() {
+        coalescer.roomUpdated(room(1L, 1));
+        advanceTo(50L);
+        coalescer.roomUpdated(room(1L, 2));
+        coalescer.roomUpdated(room(2L, 1));
+
+        // 변경이 들어오면 윈도우가 now + window 로 늦춰짐
+        advanceTo(149L);
+        verifyNoInteractions(sseEmitterService);
+
+        advanceTo(150L);
+        verify(sseEmitterService).publishRoomUpdated(argThat(room -> room.getRoomId() == 1L && room.getRoomCount() == 2));
+        verify(sseEmitterService).publishRoomUpdated(argThat(room -> room.getRoomId() == 2L));
+        verifyNoMoreInteractions(sseEmitterService);
+    }
+
+    @Test
+    void 변경이_계속_들어와도_첫_변경_후_max_latency_안에_보낸다() {
+        for (long now = 0L; now <= 240L; now += 80L) {
+            advanceTo(now);
+            coalescer.roomUpdated(room(1L, (int) now));
+        }
+
+        advanceTo(299L);
+        verifyNoInteractions(sseEmitterService);
+
+        advanceTo(300L);
+        verify(sseEmitterService).publishRoomUpdated(argThat(room -> room.getRoomCount() == 240));
+
+        // 보낸 뒤의 변경은 새 윈도우에서 다시 모음
+        advanceTo(320L);
+        coalescer.roomUpdated(room(1L, 320));
+        advanceTo(419L);
+        verifyNoMoreInteractions(sseEmitterService);
+        advanceTo(420L);
+        verify(sseEmitterService).publishRoomUpdated(argThat(room -> room.getRoomCount() == 320));
+    }
+
+    @Test
+    void 추가된_뒤_바로_삭제된_방은_보내지_않는다() {
+        coalescer.roomAdded(room(1L, 1));
+        coalescer.roomRemoved(1L);
+
+        advanceTo(100L);
+
+        verifyNoInteractions(sseEmitterService);
+    }
+
+    @Test
+    void 변경된_뒤_삭제된_방은_삭제만_보낸다() {
+        coalescer.roomUpdated(room(1L, 2));
+        coalescer.roomRemoved(1L);
+
+        advanceTo(100L);
+
+        verify(sseEmitterService).publishRoomRemoved(1L);
+        verifyNoMoreInteractions(sseEmitterService);
+    }
+
+    @Test
+    void 추가된_뒤_변경된_방은_최신_상태로_추가만_보낸다() {
+        coalescer.roomAdded(room(1L, 1));
+        coalescer.roomUpdated(room(1L, 3));
+
+        advanceTo(100L);
+
+        verify(sseEmitterService).publishRoomAdded(argThat(room -> room.getRoomCount() == 3));
+        verifyNoMoreInteractions(sseEmitterService);
+    }
+
+    private void advanceTo(long now) {
+        clock.set(now);
+        for (ScheduledFlush flush : new ArrayList<>(scheduled)) {
+            if (!flush.cancelled && flush.dueAt <= now) {
+                scheduled.remove(flush);
+                flush.task.run();
+            }
+        }
+    }
+
+    private static RoomRequest room(Long roomId, int roomCount) {
+        return RoomRequest.builder()
+                .roomId(roomId)
+                .roomName("요가" + roomId)
+                .roomMax(6)
+                .roomCount(roomCount)
+                .createdAt(roomId)
+                .build();
+    }
+
+    private static final class ScheduledFlush implements ScheduledFuture<Object> {
+        private final Runnable task;
+        private final long dueAt;
+        private boolean cancelled;
+
+        private ScheduledFlush(Runnable task, long dueAt) {
+            this.task = task;
+            this.dueAt = dueAt;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            cancelled = true;
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return cancelled;
+        }
+
+        @Override
+        public Object get() {
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) {
+            return null;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return 0L;
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.model.Room;
+import com.red.yogaback.repository.RoomRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RoomActorsTest {
+
+    private static final Long ROOM_ID = 1L;
+    private static final int ROOM_MAX = 6;
+
+    @Mock
+    private RoomRepository roomRepository;
+    @Mock
+    private RoomStateWriter roomStateWriter;
+
+    private final ExecutorService actorPool = Executors.newFixedThreadPool(4);
+    private RoomActors roomActors;
+
+    // write-behind 에 마지막으로 넘어간 room_state (DB 에 반영되었다고 봄)
+    private final AtomicLong dbState = new AtomicLong(1L);
+
+    @BeforeEach
+    void setUp() {
+        roomActors = new RoomActors(actorPool::execute, roomStateWriter, roomRepository, new SimpleMeterRegistry(), 64);
+        when(roomRepository.findById(ROOM_ID)).thenAnswer(invocation -> Optional.of(Room.builder()
+                .roomId(ROOM_ID)
+                .roomMax(ROOM_MAX)
+                .roomCount(0)
+                .roomState(dbState.get())
+                .build()));
+        doAnswer(invocation -> {
+            RoomState.Snapshot snapshot = invocation.getArgument(0);
+            dbState.set(snapshot.roomState());
+            return null;
+        }).when(roomStateWriter).enqueue(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        actorPool.shutdownNow();
+    }
+
+    @Test
+    void 수백개의_메시지가_동시에_와도_같은_방은_한번에_하나씩_처리된다() throws Exception {
+        int messages = 500;
+        // 액터 안에서만 접근하므로 동기화 없이도 빠지는 값이 없어야 함
+        int[] handled = new int[1];
+        ExecutorService callers = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < messages; i++) {
+            CompletableFuture<Integer> result = new CompletableFuture<>();
+            results.add(result);
+            callers.execute(() -> {
+                try {
+                    start.await();
+                    roomActors.submit(ROOM_ID, state -> ++handled[0]).whenComplete((count, e) -> result.complete(count));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        callers.shutdown();
+
+        assertThat(roomActors.submit(ROOM_ID, state -> handled[0]).get(1, TimeUnit.SECONDS)).isEqualTo(messages);
+        // 방 상태는 처음 한 번만 DB 에서 읽음
+        verify(roomRepository, times(1)).findById(ROOM_ID);
+        // 닫히지 않았으므로 write-behind 로 넘기지 않음
+        verify(roomStateWriter, never()).enqueue(any());
+    }
+
+    @Test
+    void 같은_방의_변경은_도착_순서대로_처리된다() throws Exception {
+        List<Integer> observed = new ArrayList<>();
+        for (int i = 0; i < ROOM_MAX; i++) {
+            int order = i;
+            roomActors.submit(ROOM_ID, state -> observed.add(order));
+        }
+        roomActors.submit(ROOM_ID, RoomState::close).get(1, TimeUnit.SECONDS);
+
+        assertThat(observed).containsExactly(0, 1, 2, 3, 4, 5);
+        awaitDbState(0L);
+    }
+
+    @Test
+    void 닫힌_방은_다시_닫히지_않고_새_액터도_닫힌_상태를_읽는다() throws Exception {
+        // 닫힌 뒤 액터가 정리되어도 새 액터는 DB 에 반영된 닫힌 상태를 읽는다
+        assertThat(roomActors.submit(ROOM_ID, RoomState::close).get(1, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+
+        assertThat(roomActors.submit(ROOM_ID, RoomState::isOpen).get(1, TimeUnit.SECONDS)).isFalse();
+        assertThat(roomActors.submit(ROOM_ID, RoomState::close).get(1, TimeUnit.SECONDS)).isFalse();
+        verify(roomStateWriter, times(1)).enqueue(any());
+    }
+
+    private void awaitDbState(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (dbState.get() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(dbState.get()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,74 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.dto.request.RoomRequest;
+import com.red.yogaback.model.Pose;
+import com.red.yogaback.model.Room;
+import com.red.yogaback.model.RoomCoursePose;
+import com.red.yogaback.repository.RoomCoursePoseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomCourseCacheTest {
+
+    @Mock
+    private RoomCoursePoseRepository roomCoursePoseRepository;
+
+    private RoomCourseCache roomCourseCache;
+
+    @BeforeEach
+    void setUp() {
+        roomCourseCache = new RoomCourseCache(new ConcurrentMapCacheManager(RoomCourseCache.CACHE_NAME), roomCoursePoseRepository);
+    }
+
+    @Test
+    void 캐시에_없는_방들은_한번의_쿼리로_채운다() {
+        roomCourseCache.put(1L, List.of(RoomRequest.PoseDetail.builder().poseId(10L).build()));
+        // 다른 stubbing 안에서 mock 을 만들면 UnfinishedStubbingException 이므로 먼저 만들어 둠
+        List<RoomCoursePose> course = List.of(coursePose(2L, 21L, 1), coursePose(2L, 20L, 0));
+        when(roomCoursePoseRepository.findByRoom_RoomIdIn(Set.of(2L, 3L))).thenReturn(course);
+
+        Map<Long, List<RoomRequest.PoseDetail>> result = roomCourseCache.getAll(List.of(1L, 2L, 3L));
+
+        assertThat(result.get(1L)).extracting(RoomRequest.PoseDetail::getPoseId).containsExactly(10L);
+        assertThat(result.get(2L)).extracting(RoomRequest.PoseDetail::getPoseId).containsExactly(20L, 21L);
+        assertThat(result.get(3L)).isEmpty();
+        verify(roomCoursePoseRepository, times(1)).findByRoom_RoomIdIn(any());
+
+        // 두 번째 조회는 모두 캐시 hit
+        roomCourseCache.getAll(List.of(1L, 2L, 3L));
+        verifyNoMoreInteractions(roomCoursePoseRepository);
+    }
+
+    @Test
+    void 방이_닫히면_evict_후_다시_조회한다() {
+        roomCourseCache.put(1L, List.of(RoomRequest.PoseDetail.builder().poseId(10L).build()));
+        roomCourseCache.evict(1L);
+        when(roomCoursePoseRepository.findByRoom_RoomIdIn(Set.of(1L))).thenReturn(List.of());
+
+        assertThat(roomCourseCache.get(1L)).isEmpty();
+        verify(roomCoursePoseRepository).findByRoom_RoomIdIn(Set.of(1L));
+    }
+
+    private RoomCoursePose coursePose(Long roomId, Long poseId, int order) {
+        Pose pose = mock(Pose.class);
+        when(pose.getPoseId()).thenReturn(poseId);
+        return RoomCoursePose.builder()
+                .room(Room.builder().roomId(roomId).build())
+                .pose(pose)
+                .roomOrderIndex(order)
+                .build();
+    }
+}
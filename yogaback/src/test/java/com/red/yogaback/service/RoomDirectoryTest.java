@@ -0,0 +1,77 @@
+package com.red.yogaback.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomDirectoryTest {
+
+    private final RoomDirectory directory = new RoomDirectory();
+
+    @Test
+    void 인원_갱신은_정렬_목록과_검색에_같은_항목으로_반영된다() {
+        directory.put(entry(1L, "아침 요가", 1));
+        directory.put(entry(2L, "저녁 요가", 1));
+
+        RoomDirectory.Entry updated = directory.updateRoomCount(1L, 3);
+
+        assertThat(updated.roomCount()).isEqualTo(3);
+        assertThat(directory.page("", null, 10)).extracting(RoomDirectory.Entry::roomCount).containsExactly(3, 1);
+        assertThat(directory.search("아침")).containsExactly(updated);
+    }
+
+    @Test
+    void 삭제된_방은_인원_갱신으로_되살아나지_않는다() {
+        directory.put(entry(1L, "아침 요가", 1));
+
+        assertThat(directory.remove(1L)).isNotNull();
+
+        assertThat(directory.updateRoomCount(1L, 2)).isNull();
+        assertThat(directory.get(1L)).isNull();
+        assertThat(directory.page("", null, 10)).isEmpty();
+        assertThat(directory.search("요가")).isEmpty();
+        assertThat(directory.remove(1L)).isNull();
+    }
+
+    @Test
+    void 인원_갱신과_삭제가_엇갈려도_세_구조가_일치한다() throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            for (long roomId = 1; roomId <= 200; roomId++) {
+                directory.put(entry(roomId, "요가" + roomId, 1));
+                CountDownLatch start = new CountDownLatch(1);
+                long id = roomId;
+                Future<?> updates = workers.submit(() -> {
+                    start.await();
+                    for (int count = 2; count <= 50; count++) {
+                        directory.updateRoomCount(id, count);
+                    }
+                    return null;
+                });
+                Future<?> removal = workers.submit(() -> {
+                    start.await();
+                    directory.remove(id);
+                    return null;
+                });
+                start.countDown();
+                updates.get();
+                removal.get();
+            }
+
+            assertThat(directory.size()).isZero();
+            assertThat(directory.page("", null, 1000)).isEmpty();
+            assertThat(directory.search("요가")).isEmpty();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static RoomDirectory.Entry entry(Long roomId, String roomName, int roomCount) {
+        return new RoomDirectory.Entry(roomId, roomName, 6, roomCount, false, 1L, "host", roomId);
+    }
+}
@@ -0,0 +1,218 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.dto.request.RoomRequest;
+import com.red.yogaback.model.RoomRank;
+import com.red.yogaback.repository.RoomRankRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomLeaderboardsTest {
+
+    private static final String HOST = "1";
+
+    @Mock
+    private SimpMessageSendingOperations messagingTemplate;
+    @Mock
+    private RoomRankWriter rankWriter;
+    @Mock
+    private RoomCourseCache roomCourseCache;
+    @Mock
+    private RoomRankRepository roomRankRepository;
+
+    private final AtomicLong clock = new AtomicLong();
+    private RoomLeaderboards leaderboards;
+
+    @BeforeEach
+    void setUp() {
+        // DB 반영은 호출 스레드에서 바로 실행
+        leaderboards = new RoomLeaderboards(messagingTemplate, rankWriter, roomCourseCache, roomRankRepository, Runnable::run,
+                new SimpleMeterRegistry(), 1000L, 600_000L, clock::get);
+    }
+
+    @Test
+    void 바뀐_방만_tick_마다_snapshot_하나를_보낸다() {
+        leaderboards.start("10", HOST);
+        leaderboards.report("10", "1", 0, 3.0f);
+        leaderboards.report("10", "2", 0, 5.0f);
+        leaderboards.report("10", "1", 0, 6.0f);
+
+        leaderboards.tick();
+        leaderboards.tick();
+
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+        Map<String, Object> snapshot = lastSnapshot();
+        assertThat(snapshot).containsEntry("_type_", "leaderboard").containsEntry("round", 0);
+        assertThat(ranks(snapshot)).extracting(rank -> rank.get("id")).containsExactly("1", "2");
+    }
+
+    @Test
+    void 다른_라운드의_점수는_무시한다() {
+        leaderboards.start("10", HOST);
+        leaderboards.report("10", "1", 1, 3.0f);
+        leaderboards.tick();
+
+        assertThat(ranks(lastSnapshot())).isEmpty();
+    }
+
+    @Test
+    void round_end_후_유예_시간이_지나면_정산한다() {
+        leaderboards.start("10", HOST);
+        leaderboards.report("10", "1", 0, 3.0f);
+        leaderboards.report("10", "2", 0, 5.0f);
+        leaderboards.report("10", "3", 0, 5.0f);
+        leaderboards.endRound("10", HOST);
+
+        // 유예 시간 안에 도착한 점수는 반영
+        clock.set(500L);
+        leaderboards.report("10", "1", 0, 6.0f);
+        leaderboards.tick();
+        assertThat(lastSnapshot()).containsEntry("roundOver", false);
+
+        clock.set(1000L);
+        leaderboards.tick();
+        Map<String, Object> settled = lastSnapshot();
+        assertThat(settled).containsEntry("roundOver", true);
+        // 동점이면 userId 오름차순, 점수는 10 - index * 3
+        assertThat(ranks(settled)).extracting(rank -> rank.get("id"), rank -> rank.get("total"))
+                .containsExactly(tuple("1", 10), tuple("2", 7), tuple("3", 4));
+
+        // 정산 후 도착한 점수는 무시
+        leaderboards.report("10", "3", 0, 9.0f);
+        leaderboards.finish("10", HOST);
+        assertThat(leaderboards.finalRank(10L, 3L).totalScore()).isEqualTo(4);
+    }
+
+    @Test
+    void 게임이_끝나면_최종_snapshot_을_보내고_순위를_한번에_저장한다() {
+        leaderboards.start("10", HOST);
+        leaderboards.report("10", "1", 0, 3.0f);
+        leaderboards.report("10", "2", 0, 5.0f);
+        leaderboards.endRound("10", HOST);
+        clock.set(1000L);
+        leaderboards.startRound("10", HOST, 1);
+        leaderboards.report("10", "1", 1, 8.0f);
+        leaderboards.endRound("10", HOST);
+
+        // 정산 대기 중이어도 게임 종료 시 바로 정산
+        leaderboards.finish("10", HOST);
+
+        assertThat(lastSnapshot()).containsEntry("finished", true);
+        ArgumentCaptor<RoomLeaderboard.Result> result = ArgumentCaptor.forClass(RoomLeaderboard.Result.class);
+        verify(rankWriter).write(eq(10L), result.capture());
+        assertThat(result.getValue().roundRanks()).containsEntry(0, Map.of("2", 1, "1", 2))
+                .containsEntry(1, Map.of("1", 1, "2", 2));
+        // 1: 7 + 10, 2: 10 + 7 → 동점이면 userId 오름차순
+        assertThat(result.getValue().totals()).containsEntry("1", 17).containsEntry("2", 17);
+        assertThat(result.getValue().totalRanks()).containsEntry("1", 1).containsEntry("2", 2);
+        assertThat(leaderboards.finalRank(10L, 2L)).isEqualTo(new RoomLeaderboards.FinalRank(2, 17));
+
+        // 두 번 끝나도 한 번만 저장
+        leaderboards.finish("10", HOST);
+        verify(rankWriter, times(1)).write(any(), any());
+    }
+
+    @Test
+    void 방장이_아닌_사용자는_라운드를_끝내거나_게임을_끝낼_수_없다() {
+        leaderboards.start("10", HOST);
+        leaderboards.report("10", "1", 0, 3.0f);
+        leaderboards.report("10", "2", 0, 5.0f);
+
+        leaderboards.endRound("10", "2");
+        leaderboards.startRound("10", "2", 1);
+        leaderboards.finish("10", "2");
+        clock.set(1000L);
+        leaderboards.tick();
+
+        assertThat(lastSnapshot()).containsEntry("round", 0).containsEntry("roundOver", false).containsEntry("finished", false);
+        verifyNoInteractions(rankWriter);
+    }
+
+    @Test
+    void 시작하지_않은_방의_메시지는_점수판을_만들지_않는다() {
+        leaderboards.report("10", "1", 0, 3.0f);
+        leaderboards.startRound("10", HOST, 1);
+        leaderboards.endRound("10", HOST);
+        leaderboards.finish("10", HOST);
+        leaderboards.tick();
+
+        verifyNoInteractions(messagingTemplate, rankWriter);
+        // 점수판이 없으므로 저장된 결과를 읽음
+        assertThat(leaderboards.finalRank(10L, 1L)).isNull();
+    }
+
+    @Test
+    void 포즈_기록_순위는_코스에서_그_포즈의_라운드로_찾는다() {
+        when(roomCourseCache.get(10L)).thenReturn(List.of(
+                RoomRequest.PoseDetail.builder().poseId(100L).build(),
+                RoomRequest.PoseDetail.builder().poseId(200L).build()));
+        leaderboards.start("10", HOST);
+        leaderboards.report("10", "1", 0, 3.0f);
+        leaderboards.report("10", "2", 0, 5.0f);
+        leaderboards.endRound("10", HOST);
+        clock.set(1000L);
+        leaderboards.tick();
+
+        assertThat(leaderboards.poseRanking(10L, 1L, 100L)).isEqualTo(2);
+        assertThat(leaderboards.poseRanking(10L, 2L, 100L)).isEqualTo(1);
+        // 아직 시작하지 않은 라운드의 포즈
+        assertThat(leaderboards.poseRanking(10L, 1L, 200L)).isNull();
+        assertThat(leaderboards.poseRanking(20L, 1L, 100L)).isNull();
+    }
+
+    @Test
+    void 게임이_끝나기_전에는_최종_순위를_돌려주지_않는다() {
+        leaderboards.start("10", HOST);
+        leaderboards.report("10", "1", 0, 3.0f);
+        leaderboards.endRound("10", HOST);
+        clock.set(1000L);
+        leaderboards.tick();
+
+        assertThat(leaderboards.finalRank(10L, 1L)).isNull();
+        // 이 노드에 점수판이 있으면 저장된 결과를 읽지 않음
+        verifyNoInteractions(roomRankRepository);
+    }
+
+    @Test
+    void 점수판이_없는_노드는_저장된_최종_결과를_읽는다() {
+        when(roomRankRepository.findByRoomIdAndUserIdAndRoundIndex(20L, 1L, RoomRank.TOTAL_ROUND))
+                .thenReturn(Optional.of(RoomRank.builder().roomId(20L).userId(1L)
+                        .roundIndex(RoomRank.TOTAL_ROUND).ranking(1).totalScore(20).build()));
+        when(roomRankRepository.findFirstByRoomIdAndUserIdAndPoseIdOrderByRoundIndexDesc(20L, 1L, 100L))
+                .thenReturn(Optional.of(RoomRank.builder().roomId(20L).userId(1L)
+                        .roundIndex(1).poseId(100L).ranking(2).build()));
+
+        assertThat(leaderboards.finalRank(20L, 1L)).isEqualTo(new RoomLeaderboards.FinalRank(1, 20));
+        assertThat(leaderboards.poseRanking(20L, 1L, 100L)).isEqualTo(2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> lastSnapshot() {
+        ArgumentCaptor<Map<String, Object>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(messagingTemplate, atLeastOnce()).convertAndSend(eq("/topic/room/10"), captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> ranks(Map<String, Object> snapshot) {
+        return (List<Map<String, Object>>) snapshot.get("ranks");
+    }
+}
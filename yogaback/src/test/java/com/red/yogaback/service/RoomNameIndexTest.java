@@ -0,0 +1,47 @@
+package com.red.yogaback.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomNameIndexTest {
+
+    private RoomNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RoomNameIndex();
+        index.add(1L, "요가 교실");
+        index.add(2L, "아침 요가");
+        index.add(3L, "Morning Yoga");
+        index.add(4L, "필라테스");
+    }
+
+    @Test
+    void 부분문자열_검색_테스트() {
+        assertThat(index.search("요가")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("가")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("yoga")).containsExactly(3L);
+        assertThat(index.search("")).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        assertThat(index.search("없는 방")).isEmpty();
+    }
+
+    @Test
+    void 초성_검색_테스트() {
+        assertThat(index.search("ㅇㄱ")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("요ㄱ")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("ㅍㄹㅌㅅ")).containsExactly(4L);
+        assertThat(RoomNameIndex.matches("요가 교실", "ㅇㄱ ㄱㅅ")).isTrue();
+    }
+
+    @Test
+    void 방_종료_및_이름변경_반영_테스트() {
+        index.remove(1L);
+        index.add(2L, "저녁 필라테스");
+
+        assertThat(index.search("ㅇㄱ")).isEmpty();
+        assertThat(index.search("필라")).containsExactlyInAnyOrder(2L, 4L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+}
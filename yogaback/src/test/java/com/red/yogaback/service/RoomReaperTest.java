@@ -0,0 +1,83 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.websocket.service.RoomRouter;
+import com.red.yogaback.websocket.service.UserSessionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomReaperTest {
+
+    private static final long IDLE_MS = 1000L;
+
+    @Mock
+    private UserSessionService userSessionService;
+    @Mock
+    private RoomService roomService;
+    @Mock
+    private RoomRouter roomRouter;
+
+    private final RoomDirectory roomDirectory = new RoomDirectory();
+    private RoomReaper roomReaper;
+
+    @BeforeEach
+    void setUp() {
+        roomReaper = new RoomReaper(roomDirectory, userSessionService, roomService, roomRouter, new SimpleMeterRegistry(), IDLE_MS);
+        when(roomRouter.isLocal(anyString())).thenReturn(true);
+        roomDirectory.put(entry(1L, 0L));
+        roomDirectory.put(entry(2L, 0L));
+    }
+
+    @Test
+    void 세션_없는_상태가_idle_동안_이어진_방만_닫는다() {
+        when(userSessionService.activeRoomIds()).thenReturn(Set.of(2L));
+        when(roomService.closeRoom(1L)).thenReturn(CompletableFuture.completedFuture(true));
+
+        roomReaper.reap(5000L);
+        verify(roomService, never()).closeRoom(anyLong());
+
+        roomReaper.reap(5000L + IDLE_MS);
+        verify(roomService).closeRoom(1L);
+        verify(roomService, never()).closeRoom(2L);
+    }
+
+    @Test
+    void 중간에_세션이_다시_붙으면_처음부터_다시_센다() {
+        when(userSessionService.activeRoomIds()).thenReturn(Set.of(), Set.of(1L, 2L), Set.of());
+
+        roomReaper.reap(5000L);
+        roomReaper.reap(5500L);
+        roomReaper.reap(6000L);
+
+        verify(roomService, never()).closeRoom(anyLong());
+    }
+
+    @Test
+    void 다른_서버가_소유한_방은_닫지_않는다() {
+        // in-memory 레지스트리는 다른 서버에 붙은 참가자를 모르므로 소유 서버만 판단
+        when(userSessionService.activeRoomIds()).thenReturn(Set.of());
+        when(roomRouter.isLocal("1")).thenReturn(false);
+        when(roomService.closeRoom(2L)).thenReturn(CompletableFuture.completedFuture(true));
+
+        roomReaper.reap(5000L);
+        roomReaper.reap(5000L + IDLE_MS);
+
+        verify(roomService, never()).closeRoom(1L);
+        verify(roomService).closeRoom(2L);
+    }
+
+    private RoomDirectory.Entry entry(Long roomId, Long createdAt) {
+        return new RoomDirectory.Entry(roomId, "room" + roomId, 6, 1, false, 1L, "host", createdAt);
+    }
+}
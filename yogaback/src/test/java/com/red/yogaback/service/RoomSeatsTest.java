@@ -0,0 +1,144 @@
+package com.red.yogaback.service;
+
+import com.red.yogaback.model.Room;
+import com.red.yogaback.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RoomSeatsTest {
+
+    private static final Long ROOM_ID = 1L;
+    private static final int ROOM_MAX = 6;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    private RoomSeats roomSeats;
+
+    // DB 의 room_count. 조건부 UPDATE 를 원자적으로 흉내냄
+    private final AtomicInteger dbCount = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        roomSeats = new RoomSeats(roomRepository);
+        when(roomRepository.findById(ROOM_ID)).thenAnswer(invocation -> Optional.of(Room.builder()
+                .roomId(ROOM_ID)
+                .roomMax(ROOM_MAX)
+                .roomCount(dbCount.get())
+                .roomState(1L)
+                .build()));
+        when(roomRepository.incrementRoomCount(ROOM_ID)).thenAnswer(invocation -> {
+            while (true) {
+                int current = dbCount.get();
+                if (current >= ROOM_MAX) {
+                    return 0;
+                }
+                if (dbCount.compareAndSet(current, current + 1)) {
+                    return 1;
+                }
+            }
+        });
+        when(roomRepository.decrementRoomCount(ROOM_ID)).thenAnswer(invocation -> {
+            while (true) {
+                int current = dbCount.get();
+                if (current <= 0) {
+                    return 0;
+                }
+                if (dbCount.compareAndSet(current, current - 1)) {
+                    return 1;
+                }
+            }
+        });
+    }
+
+    @Test
+    void 수백명이_동시에_입장해도_최대_인원을_넘지_않는다() throws InterruptedException {
+        int joins = 500;
+        AtomicInteger admitted = concurrentJoins(joins);
+
+        assertThat(admitted.get()).isEqualTo(ROOM_MAX);
+        assertThat(dbCount.get()).isEqualTo(ROOM_MAX);
+        assertThat(roomSeats.count(ROOM_ID)).isEqualTo(ROOM_MAX);
+        // 만석 이후 요청은 메모리 CAS 에서 거절되어 DB 까지 가지 않음
+        verify(roomRepository, atMost(joins / 10)).incrementRoomCount(ROOM_ID);
+    }
+
+    @Test
+    void 다른_노드가_먼저_채운_좌석은_DB_조건부_UPDATE_가_막는다() throws InterruptedException {
+        roomSeats.count(ROOM_ID); // 빈 방 상태로 메모리 카운터 적재
+        dbCount.set(ROOM_MAX - 2); // 이 노드가 모르는 사이 다른 노드에서 4명 입장
+
+        AtomicInteger admitted = concurrentJoins(300);
+
+        assertThat(admitted.get()).isEqualTo(2);
+        assertThat(dbCount.get()).isEqualTo(ROOM_MAX);
+    }
+
+    @Test
+    void 두_노드가_동시에_예약해도_DB_조건부_UPDATE_가_최대_인원을_지킨다() throws InterruptedException {
+        // 노드마다 RoomSeats(메모리 카운터)는 따로, DB 는 하나
+        RoomSeats otherNode = new RoomSeats(roomRepository);
+
+        AtomicInteger admitted = concurrentJoins(400, roomSeats, otherNode);
+
+        assertThat(admitted.get()).isEqualTo(ROOM_MAX);
+        assertThat(dbCount.get()).isEqualTo(ROOM_MAX);
+    }
+
+    @Test
+    void 나가면_자리가_생기고_0명_아래로는_내려가지_않는다() {
+        assertThat(roomSeats.tryReserve(ROOM_ID)).isTrue();
+
+        assertThat(roomSeats.release(ROOM_ID)).isEqualTo(0);
+        assertThat(roomSeats.release(ROOM_ID)).isEqualTo(-1);
+        assertThat(dbCount.get()).isZero();
+    }
+
+    private AtomicInteger concurrentJoins(int joins) throws InterruptedException {
+        return concurrentJoins(joins, roomSeats);
+    }
+
+    // 요청을 노드들에 번갈아 보냄
+    private AtomicInteger concurrentJoins(int joins, RoomSeats... nodes) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(joins);
+        AtomicInteger admitted = new AtomicInteger();
+        for (int i = 0; i < joins; i++) {
+            RoomSeats node = nodes[i % nodes.length];
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    if (node.tryReserve(ROOM_ID)) {
+                        admitted.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        return admitted;
+    }
+}
@@ -0,0 +1,92 @@
+package com.red.yogaback.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoomStateWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private RoomStateWriter roomStateWriter;
+
+    @BeforeEach
+    void setUp() {
+        // size 도달 flush 는 호출 스레드에서 바로 실행
+        roomStateWriter = new RoomStateWriter(jdbcTemplate, Runnable::run, new SimpleMeterRegistry(), 3);
+    }
+
+    @Test
+    void 같은_방의_변경은_마지막_값만_한번에_반영한다() {
+        roomStateWriter.enqueue(new RoomState.Snapshot(1L, 1L));
+        roomStateWriter.enqueue(new RoomState.Snapshot(1L, 0L));
+        roomStateWriter.enqueue(new RoomState.Snapshot(2L, 0L));
+
+        roomStateWriter.flush();
+
+        List<Object[]> args = captureBatch();
+        assertThat(args).hasSize(2);
+        assertThat(args).anySatisfy(row -> assertThat(row).containsExactly(0L, 1L));
+        assertThat(args).anySatisfy(row -> assertThat(row).containsExactly(0L, 2L));
+        assertThat(roomStateWriter.isPending(1L)).isFalse();
+    }
+
+    @Test
+    void batch_size_만큼_쌓이면_주기를_기다리지_않고_반영한다() {
+        roomStateWriter.enqueue(new RoomState.Snapshot(1L, 0L));
+        roomStateWriter.enqueue(new RoomState.Snapshot(2L, 0L));
+        verifyNoInteractions(jdbcTemplate);
+
+        roomStateWriter.enqueue(new RoomState.Snapshot(3L, 0L));
+
+        assertThat(captureBatch()).hasSize(3);
+    }
+
+    @Test
+    void 반영에_실패하면_남겨두었다가_종료시_다시_반영한다() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("db down"))
+                .thenReturn(new int[]{1});
+        roomStateWriter.enqueue(new RoomState.Snapshot(1L, 0L));
+
+        roomStateWriter.flush();
+        assertThat(roomStateWriter.isPending(1L)).isTrue();
+
+        roomStateWriter.flushOnShutdown();
+        assertThat(roomStateWriter.isPending(1L)).isFalse();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void 이미_닫힌_방은_다시_열지_않는다() {
+        roomStateWriter.enqueue(new RoomState.Snapshot(1L, 1L));
+
+        roomStateWriter.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), anyList());
+        assertThat(sql.getValue()).endsWith("WHERE room_id = ? AND room_state <> 0");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> captureBatch() {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        return captor.getValue();
+    }
+}
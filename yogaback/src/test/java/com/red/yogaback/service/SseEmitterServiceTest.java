@@ -0,0 +1,285 @@
+package com.red.yogaback.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.red.yogaback.dto.request.RoomRequest;
+import com.red.yogaback.dto.respond.LobbyPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseEmitterServiceTest {
+
+    private static final Pattern SNAPSHOT_ID = Pattern.compile("id:(\\d+)\nevent:snapshot");
+    private static final Pattern ROOM_COUNT = Pattern.compile("\"roomCount\":(\\d+)");
+    private static final Pattern RETRY = Pattern.compile("retry:(\\d+)");
+
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final List<Long> timeouts = new ArrayList<>();
+    private final AtomicLong clock = new AtomicLong();
+    // 전송 워커 대신 호출 스레드에서 바로 전송
+    private final SseEmitterService service = newService(Runnable::run, 64, SseEmitterService.OverflowPolicy.DISCONNECT);
+
+    @Test
+    void 방_구성이_그대로면_놓친_delta_만_재전송한다() {
+        LobbyPage page = page(null, room(1L, 1), room(2L, 1));
+        long lastEventId = snapshotId(subscribe(null, page));
+
+        service.publishRoomUpdated(room(2L, 2));
+        String replay = subscribe(lastEventId, page);
+
+        assertThat(replay).doesNotContain("event:snapshot").contains("event:room_updated");
+    }
+
+    @Test
+    void 앞쪽_방이_사라지면_다음_방이_당겨지므로_snapshot_을_보낸다() {
+        long lastEventId = snapshotId(subscribe(null, page("3_2", room(1L, 1), room(2L, 1))));
+
+        service.publishRoomRemoved(1L);
+        // 다시 계산한 페이지에는 클라이언트가 본 적 없는 3번 방이 들어옴
+        String replay = subscribe(lastEventId, page("4_3", room(2L, 1), room(3L, 1)));
+
+        assertThat(replay).contains("event:snapshot").contains("\"roomId\":3");
+        assertThat(replay).doesNotContain("event:room_removed");
+    }
+
+    @Test
+    void 재전송_버퍼로_이어_붙일_수_없으면_snapshot_을_보낸다() {
+        LobbyPage page = page(null, room(1L, 1));
+        long lastEventId = snapshotId(subscribe(null, page));
+
+        assertThat(subscribe(lastEventId + 100, page)).contains("event:snapshot");
+    }
+
+    @Test
+    void 큐가_넘친_느린_구독자는_snapshot_으로_다시_맞추고_다른_구독자는_영향이_없다() throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try {
+            SseEmitterService resyncService = newService(workers::execute, 4, SseEmitterService.OverflowPolicy.RESYNC);
+            AtomicReference<LobbyPage> current = new AtomicReference<>(page(null, room(1L, 1)));
+            resyncService.subscribe("", null, 2, null, current::get);
+            RecordingEmitter slow = emitters.get(0);
+            resyncService.subscribe("", null, 2, null, current::get);
+            RecordingEmitter fast = emitters.get(1);
+            await(() -> slow.sent().contains("event:snapshot") && fast.sent().contains("event:snapshot"));
+
+            // 느린 구독자의 소켓 쓰기가 막힌 동안 이벤트가 큐 크기보다 많이 쌓임
+            CountDownLatch unblock = new CountDownLatch(1);
+            slow.gate = unblock;
+            for (int count = 2; count <= 10; count++) {
+                current.set(page(null, room(1L, count)));
+                resyncService.publishRoomUpdated(room(1L, count));
+                int expected = count;
+                await(() -> roomCounts(fast).contains(expected));
+            }
+            unblock.countDown();
+            await(() -> roomCounts(slow).contains(10));
+
+            // 빠른 구독자는 모든 delta 를 순서대로 받음
+            assertThat(roomCounts(fast)).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+            // 느린 구독자는 끊긴 delta 대신 마지막 상태의 snapshot 을 받고 계속 구독
+            String lastFrame = slow.sent().substring(slow.sent().lastIndexOf("id:"));
+            assertThat(lastFrame).contains("event:snapshot").contains("\"roomCount\":10");
+            assertThat(roomCounts(slow)).hasSizeLessThan(10);
+
+            resyncService.publishRoomUpdated(room(1L, 11));
+            await(() -> slow.sent().contains("\"roomCount\":11"));
+            assertThat(slow.sent().substring(slow.sent().lastIndexOf("id:"))).contains("event:room_updated");
+        } finally {
+            emitters.forEach(emitter -> emitter.gate = null);
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    void disconnect_정책이면_큐가_넘친_구독자만_끊는다() {
+        // 워커를 돌리지 않아 두 구독자 모두 큐에 쌓이기만 함
+        List<Runnable> pending = new ArrayList<>();
+        SseEmitterService queued = newService(pending::add, 4, SseEmitterService.OverflowPolicy.DISCONNECT);
+        queued.subscribe("", null, 2, null, () -> page(null, room(1L, 1)));
+        RecordingEmitter slow = emitters.get(0);
+        queued.subscribe("", null, 2, null, () -> page(null, room(2L, 1)));
+        RecordingEmitter other = emitters.get(1);
+
+        // retry + snapshot 이 이미 들어 있으므로 1번 방 구독자의 큐만 넘침
+        for (int count = 2; count <= 4; count++) {
+            queued.publishRoomUpdated(room(1L, count));
+        }
+        queued.publishRoomUpdated(room(2L, 2));
+        new ArrayList<>(pending).forEach(Runnable::run);
+
+        assertThat(slow.completed).isTrue();
+        assertThat(other.completed).isFalse();
+        assertThat(roomCounts(other)).containsExactly(1, 2);
+    }
+
+    @Test
+    void 대기_중인_이벤트가_없으면_heartbeat_주석을_보낸다() {
+        String initial = subscribe(null, page(null, room(1L, 1)));
+
+        service.heartbeat();
+
+        String sent = emitters.get(0).sent();
+        assertThat(sent.substring(initial.length())).isEqualTo(":ping\n\n");
+        assertThat(emitters.get(0).completed).isFalse();
+    }
+
+    @Test
+    void 전송이_stall_timeout_이상_멈춘_구독자는_heartbeat_에서_끊는다() {
+        // 워커를 돌리지 않아 초기 이벤트가 큐에 남은 채로 전송이 멈춘 상태
+        List<Runnable> pending = new ArrayList<>();
+        SseEmitterService stalled = newService(pending::add, 64, SseEmitterService.OverflowPolicy.DISCONNECT);
+        stalled.subscribe("", null, 2, null, () -> page(null, room(1L, 1)));
+        RecordingEmitter emitter = emitters.get(0);
+
+        clock.set(45_000L);
+        stalled.heartbeat();
+        assertThat(emitter.completed).isFalse();
+
+        clock.set(45_001L);
+        stalled.heartbeat();
+        assertThat(emitter.completed).isTrue();
+
+        // 끊긴 구독자에게는 더 이상 적재하지 않음
+        stalled.publishRoomUpdated(room(1L, 2));
+        new ArrayList<>(pending).forEach(Runnable::run);
+        assertThat(emitter.sent()).isEmpty();
+    }
+
+    @Test
+    void 연결_timeout_과_재접속_지연에_구독자마다_jitter_를_더한다() {
+        SseEmitterService jittered = new SseEmitterService(Runnable::run, new ObjectMapper(), new SimpleMeterRegistry(),
+                1024, 64, SseEmitterService.OverflowPolicy.DISCONNECT, 60_000L, 30_000L, 2000L, 8000L, 45_000L,
+                clock::get) {
+            @Override
+            SseEmitter createEmitter() {
+                // timeout 은 실제 emitter 에서 읽고, 전송 내용은 기록용 emitter 로 받음
+                timeouts.add(super.createEmitter().getTimeout());
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+
+        for (int i = 0; i < 50; i++) {
+            jittered.subscribe("", null, 2, null, () -> page(null, room(1L, 1)));
+        }
+
+        assertThat(timeouts).hasSize(50).allSatisfy(timeout -> assertThat(timeout).isBetween(60_000L, 90_000L));
+        assertThat(Set.copyOf(timeouts)).hasSizeGreaterThan(1);
+        List<Long> retries = emitters.stream().map(emitter -> retryOf(emitter.sent())).toList();
+        assertThat(retries).allSatisfy(retry -> assertThat(retry).isBetween(2000L, 10_000L));
+        assertThat(Set.copyOf(retries)).hasSizeGreaterThan(1);
+    }
+
+    private SseEmitterService newService(TaskExecutor executor, int queueCapacity, SseEmitterService.OverflowPolicy policy) {
+        return new SseEmitterService(executor, new ObjectMapper(), new SimpleMeterRegistry(), 1024, queueCapacity, policy,
+                60_000L, 0L, 2000L, 0L, 45_000L, clock::get) {
+            @Override
+            SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private String subscribe(Long lastEventId, LobbyPage page) {
+        service.subscribe("", null, 2, lastEventId, () -> page);
+        return emitters.get(emitters.size() - 1).sent();
+    }
+
+    private static long retryOf(String sent) {
+        Matcher matcher = RETRY.matcher(sent);
+        assertThat(matcher.find()).isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static List<Integer> roomCounts(RecordingEmitter emitter) {
+        List<Integer> counts = new ArrayList<>();
+        Matcher matcher = ROOM_COUNT.matcher(emitter.sent());
+        while (matcher.find()) {
+            counts.add(Integer.parseInt(matcher.group(1)));
+        }
+        return counts;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(5L);
+        }
+    }
+
+    private static long snapshotId(String sent) {
+        Matcher matcher = SNAPSHOT_ID.matcher(sent);
+        assertThat(matcher.find()).isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static LobbyPage page(String nextCursor, RoomRequest... rooms) {
+        return LobbyPage.builder().rooms(List.of(rooms)).nextCursor(nextCursor).build();
+    }
+
+    private static RoomRequest room(Long roomId, int roomCount) {
+        return RoomRequest.builder()
+                .roomId(roomId)
+                .roomName("요가" + roomId)
+                .roomMax(6)
+                .roomCount(roomCount)
+                .createdAt(roomId)
+                .build();
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final StringBuilder sent = new StringBuilder();
+        private volatile boolean completed;
+        // 설정되면 열릴 때까지 쓰기가 막힘 (느린 소켓 흉내)
+        private volatile CountDownLatch gate;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            CountDownLatch current = gate;
+            if (current != null) {
+                try {
+                    current.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            synchronized (sent) {
+                for (DataWithMediaType item : items) {
+                    sent.append(new String((byte[]) item.getData(), StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        private String sent() {
+            synchronized (sent) {
+                return sent.toString();
+            }
+        }
+    }
+}
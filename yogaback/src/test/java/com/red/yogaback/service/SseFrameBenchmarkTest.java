@@ -0,0 +1,142 @@
+package com.red.yogaback.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.red.yogaback.dto.request.RoomRequest;
+import com.red.yogaback.dto.respond.LobbyEvent;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 브로드캐스트 1회당 비용 비교
+ *  - 기존: 구독자마다 SseEventBuilder + Jackson 직렬화
+ *  - 변경: SseFrame 으로 한 번 직렬화 후 같은 바이트를 구독자 수만큼 write
+ *
+ * ./gradlew benchmark
+ */
+@Tag("benchmark")
+class SseFrameBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int ROUNDS = 50;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    @Test
+    void 구독자수별_브로드캐스트_비용_비교() throws IOException {
+        LobbyEvent event = sampleEvent();
+
+        for (int i = 0; i < WARMUP; i++) {
+            perSubscriber(event, 10);
+            shared(event, 10);
+        }
+
+        long[] perSubscriberAlloc = new long[3];
+        long[] sharedAlloc = new long[3];
+        int[] subscriberCounts = {10, 100, 1000};
+        for (int i = 0; i < subscriberCounts.length; i++) {
+            int n = subscriberCounts[i];
+            Result before = measure(() -> perSubscriber(event, n));
+            Result after = measure(() -> shared(event, n));
+            perSubscriberAlloc[i] = before.bytesPerRound;
+            sharedAlloc[i] = after.bytesPerRound;
+            System.out.printf("subscribers=%5d | per-subscriber: %8d us, %10d B | shared frame: %8d us, %10d B%n",
+                    n, before.nanosPerRound / 1000, before.bytesPerRound,
+                    after.nanosPerRound / 1000, after.bytesPerRound);
+        }
+
+        // 공유 프레임은 구독자가 100배 늘어도 할당량이 거의 그대로여야 함
+        assertThat(sharedAlloc[2]).isLessThan(perSubscriberAlloc[2] / 10);
+        assertThat(sharedAlloc[2]).isLessThan(sharedAlloc[0] * 5 + 64 * 1024);
+    }
+
+    // 기존 방식: 구독자마다 이벤트 빌드 + 직렬화
+    private void perSubscriber(LobbyEvent event, int subscribers) throws IOException {
+        for (int i = 0; i < subscribers; i++) {
+            for (ResponseBodyEmitter.DataWithMediaType item : SseEmitter.event()
+                    .id(String.valueOf(event.getSeq()))
+                    .name(event.getType())
+                    .data(event)
+                    .reconnectTime(1000L)
+                    .build()) {
+                if (item.getData() instanceof String text) {
+                    sink.write(text.getBytes());
+                } else {
+                    objectMapper.writeValue(sink, item.getData());
+                }
+            }
+        }
+    }
+
+    // 변경 방식: 한 번 인코딩 후 공유
+    private void shared(LobbyEvent event, int subscribers) throws IOException {
+        SseFrame frame = SseFrame.of(String.valueOf(event.getSeq()), event.getType(), event, 1000L, objectMapper);
+        for (int i = 0; i < subscribers; i++) {
+            frame.writeTo(sink);
+        }
+    }
+
+    private Result measure(Round round) throws IOException {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocStart = mx.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            round.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = mx.getThreadAllocatedBytes(threadId) - allocStart;
+        return new Result(elapsed / ROUNDS, allocated / ROUNDS);
+    }
+
+    private LobbyEvent sampleEvent() {
+        List<RoomRequest.PoseDetail> poses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            poses.add(RoomRequest.PoseDetail.builder()
+                    .poseId((long) i)
+                    .poseName("요가 자세 " + i)
+                    .poseDescription("자세 설명 ".repeat(20))
+                    .poseImg("https://example.com/pose/" + i + ".png")
+                    .poseLevel(i % 3)
+                    .poseVideo("https://example.com/pose/" + i + ".mp4")
+                    .setPoseId(1)
+                    .poseAnimation("https://example.com/pose/" + i + ".json")
+                    .userOrderIndex(i)
+                    .build());
+        }
+        RoomRequest room = RoomRequest.builder()
+                .roomId(1L)
+                .roomMax(6)
+                .roomCount(3)
+                .userId(1L)
+                .userNickname("테스트 계정 닉네임")
+                .roomName("아침 요가")
+                .hasPassword(false)
+                .pose(poses)
+                .build();
+        return LobbyEvent.builder()
+                .seq(1L)
+                .type("room_updated")
+                .roomId(1L)
+                .room(room)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface Round {
+        void run() throws IOException;
+    }
+
+    private record Result(long nanosPerRound, long bytesPerRound) {
+    }
+}
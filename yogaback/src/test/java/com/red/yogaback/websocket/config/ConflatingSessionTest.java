@@ -0,0 +1,206 @@
+package com.red.yogaback.websocket.config;
+
+import com.red.yogaback.websocket.service.PayloadCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConflatingSessionTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // drain 작업은 테스트가 직접 실행
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private final List<String> sent = new ArrayList<>();
+    private final WebSocketSession delegate = mock(WebSocketSession.class);
+    private OutboundConflation conflation;
+    private WebSocketSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(delegate.getId()).thenReturn("s1");
+        doAnswer(invocation -> {
+            WebSocketMessage<?> message = invocation.getArgument(0);
+            sent.add(((TextMessage) message).getPayload());
+            return null;
+        }).when(delegate).sendMessage(any());
+        conflation = new OutboundConflation(true, "/topic/**",
+                "leaderboard,user_ready|user_not_ready:fromPeerId", 15_000L, 1024,
+                new PayloadCodec(), meterRegistry, tasks::add);
+        session = conflation.decorate(delegate);
+    }
+
+    @Test
+    void 같은_키의_상태_메시지는_마지막_것만_보내고_나머지는_순서대로_보낸다() throws Exception {
+        session.sendMessage(frame("/topic/room/1", "{\"type\":\"leaderboard\",\"round\":0}"));
+        session.sendMessage(frame("/topic/room/1", "{\"type\":\"offer\",\"sdp\":\"a\"}"));
+        session.sendMessage(frame("/topic/room/1", "{\"type\":\"user_ready\",\"fromPeerId\":\"1\"}"));
+        session.sendMessage(frame("/topic/room/1", "{\"type\":\"user_ready\",\"fromPeerId\":\"2\"}"));
+        session.sendMessage(frame("/topic/room/1", "{\"type\":\"user_not_ready\",\"fromPeerId\":\"1\"}"));
+        session.sendMessage(frame("/topic/room/1", "{\"type\":\"leaderboard\",\"round\":1}"));
+        session.sendMessage(frame("/topic/room/1", "{\"type\":\"answer\",\"sdp\":\"b\"}"));
+
+        // drain 은 하나만 예약됨
+        assertThat(tasks).hasSize(1);
+        tasks.poll().run();
+
+        // 대체된 프레임은 빠지고, 새 프레임은 들어온 자리(큐 끝)에서 나감
+        assertThat(sent).extracting(ConflatingSessionTest::body).containsExactly(
+                "{\"type\":\"offer\",\"sdp\":\"a\"}",
+                "{\"type\":\"user_ready\",\"fromPeerId\":\"2\"}",
+                "{\"type\":\"user_not_ready\",\"fromPeerId\":\"1\"}",
+                "{\"type\":\"leaderboard\",\"round\":1}",
+                "{\"type\":\"answer\",\"sdp\":\"b\"}");
+        assertThat(meterRegistry.get("websocket.outbound.conflated").tag("rule", "leaderboard").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("websocket.outbound.conflated").tag("rule", "user_ready|user_not_ready")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void 목적지가_다르면_따로_남기고_패턴_밖_목적지는_병합하지_않는다() throws Exception {
+        session.sendMessage(frame("/topic/room/1", "{\"type\":\"leaderboard\",\"round\":0}"));
+        session.sendMessage(frame("/topic/room/2", "{\"type\":\"leaderboard\",\"round\":0}"));
+        session.sendMessage(frame("/user/queue/x", "{\"type\":\"leaderboard\",\"round\":0}"));
+        session.sendMessage(frame("/user/queue/x", "{\"type\":\"leaderboard\",\"round\":1}"));
+        tasks.poll().run();
+
+        assertThat(sent).hasSize(4);
+    }
+
+    @Test
+    void 발신_큐가_한도를_넘으면_세션을_닫고_남은_프레임을_버린다() throws Exception {
+        String padding = "x".repeat(300);
+        for (int i = 0; i < 3; i++) {
+            session.sendMessage(frame("/topic/room/1", "{\"type\":\"offer\",\"sdp\":\"" + padding + "\"}"));
+        }
+
+        verify(delegate).close(CloseStatus.SESSION_NOT_RELIABLE);
+        tasks.poll().run();
+        verify(delegate, never()).sendMessage(any());
+
+        // 닫힌 뒤 들어온 프레임도 버림
+        session.sendMessage(frame("/topic/room/1", "{\"type\":\"offer\"}"));
+        assertThat(meterRegistry.get("websocket.outbound.dropped").tag("reason", "buffer_size").counter().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("websocket.outbound.dropped").tag("reason", "closed").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void 큐에_남은_프레임을_보낸_뒤_닫는다() throws Exception {
+        session.sendMessage(frame("/topic/room/1", "{\"type\":\"offer\"}"));
+        session.close(CloseStatus.NORMAL);
+        verify(delegate, never()).close(any());
+
+        tasks.poll().run();
+
+        assertThat(sent).hasSize(1);
+        verify(delegate).close(CloseStatus.NORMAL);
+    }
+
+    @Test
+    void 보내는_중인_프레임이_한도를_넘겨_멈춰_있으면_기다리지_않고_닫는다() throws Exception {
+        // 보내기 한도 0: 보내는 중이면 바로 한도 초과
+        OutboundConflation conflation = new OutboundConflation(true, "/topic/**", "leaderboard", 0L, 1024,
+                new PayloadCodec(), meterRegistry, tasks::add);
+        WebSocketSession stalledDelegate = mock(WebSocketSession.class);
+        when(stalledDelegate.getId()).thenReturn("s2");
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            unblock.await();
+            return null;
+        }).when(stalledDelegate).sendMessage(any());
+        WebSocketSession stalled = conflation.decorate(stalledDelegate);
+        stalled.sendMessage(frame("/topic/room/1", "{\"type\":\"offer\"}"));
+        stalled.sendMessage(frame("/topic/room/1", "{\"type\":\"answer\"}"));
+
+        Thread drainer = new Thread(tasks.poll());
+        drainer.start();
+        assertThat(sending.await(1, TimeUnit.SECONDS)).isTrue();
+        stalled.close(CloseStatus.NORMAL);
+
+        // 첫 프레임 전송이 끝나기 전에 닫히고, 남은 프레임은 버림
+        verify(stalledDelegate).close(CloseStatus.NORMAL);
+        assertThat(meterRegistry.get("websocket.outbound.dropped").tag("reason", "send_time").counter().count())
+                .isEqualTo(1);
+        unblock.countDown();
+        drainer.join(1000);
+        verify(stalledDelegate, times(1)).sendMessage(any());
+    }
+
+    @Test
+    void 병합_키는_구독자마다_payload_를_다시_읽지_않고_헤더로_붙인다() throws Exception {
+        PayloadCodec payloadCodec = spy(new PayloadCodec());
+        ChannelInterceptor outbound = new OutboundConflation(true, "/topic/**", "leaderboard", 15_000L, 1024,
+                payloadCodec, meterRegistry, tasks::add).outbound();
+        // simple broker 처럼 구독자마다 메시지는 따로, payload 는 공유
+        byte[] payload = "{\"type\":\"leaderboard\",\"round\":0}".getBytes(StandardCharsets.UTF_8);
+        List<Message<?>> stamped = new ArrayList<>();
+        for (String sessionId : List.of("s1", "s2", "s3")) {
+            stamped.add(outbound.preSend(message(sessionId, "/topic/room/1", payload), null));
+        }
+
+        verify(payloadCodec, times(1)).createParser(any(byte[].class), anyInt(), anyInt(), any());
+        assertThat(stamped).allSatisfy(message -> assertThat(SimpMessageHeaderAccessor
+                .getFirstNativeHeader(OutboundConflation.KEY_HEADER, message.getHeaders())).isEqualTo("leaderboard/"));
+
+        // 규칙에 없는 메시지는 그대로
+        Message<?> offer = message("s1", "/topic/room/1", "{\"type\":\"offer\"}".getBytes(StandardCharsets.UTF_8));
+        assertThat(outbound.preSend(offer, null)).isSameAs(offer);
+        assertThat(SimpMessageHeaderAccessor.getFirstNativeHeader(OutboundConflation.KEY_HEADER, offer.getHeaders()))
+                .isNull();
+    }
+
+    private static Message<byte[]> message(String sessionId, String destination, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    // 발신 인터셉터가 붙이는 conflation-key 헤더까지 포함한 프레임
+    private TextMessage frame(String destination, String body) {
+        String key = conflation.conflationKey(destination, body.getBytes(StandardCharsets.UTF_8),
+                MimeTypeUtils.APPLICATION_JSON);
+        return new TextMessage("MESSAGE\ndestination:" + destination
+                + "\ncontent-type:application/json\nsubscription:sub-0\nmessage-id:1\n"
+                + (key == null ? "" : OutboundConflation.KEY_HEADER + ":" + key + "\n")
+                + "\n" + body + "\u0000");
+    }
+
+    private static String body(String frame) {
+        return frame.substring(frame.indexOf("\n\n") + 2, frame.length() - 1);
+    }
+}
@@ -0,0 +1,41 @@
+package com.red.yogaback.websocket.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DestinationRulesTest {
+
+    @Test
+    void 먼저_맞는_패턴을_쓰고_없으면_fallback() {
+        DestinationRules<String> rules = new DestinationRules<>(List.of("/topic/room/1", "/topic/**"),
+                Function.identity(), null);
+
+        assertThat(rules.ruleFor("/topic/room/1")).isEqualTo("/topic/room/1");
+        assertThat(rules.ruleFor("/topic/room/2")).isEqualTo("/topic/**");
+        assertThat(rules.ruleFor("/queue/x")).isNull();
+        assertThat(rules.ruleFor(null)).isNull();
+    }
+
+    @Test
+    void 캐시가_상한에_닿으면_비운다() {
+        DestinationRules<String> rules = new DestinationRules<>(List.of("/topic/**"), Function.identity(), null);
+
+        for (int i = 0; i < DestinationRules.MAX_CACHED_DESTINATIONS; i++) {
+            rules.ruleFor("/topic/room/" + i);
+        }
+        assertThat(rules.cachedDestinations()).isEqualTo(DestinationRules.MAX_CACHED_DESTINATIONS);
+
+        assertThat(rules.ruleFor("/topic/room/new")).isEqualTo("/topic/**");
+        assertThat(rules.cachedDestinations()).isEqualTo(1);
+    }
+
+    @Test
+    void 쉼표_목록은_공백과_빈_항목을_정리한다() {
+        assertThat(DestinationRules.parseList(" /topic/**, ,/app/**=1.0 ,")).containsExactly("/topic/**", "/app/**=1.0");
+        assertThat(DestinationRules.parseList("")).isEmpty();
+    }
+}
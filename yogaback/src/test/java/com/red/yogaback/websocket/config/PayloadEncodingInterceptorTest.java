@@ -0,0 +1,103 @@
+package com.red.yogaback.websocket.config;
+
+import com.red.yogaback.websocket.service.PayloadCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadEncodingInterceptorTest {
+
+    private static final byte[] JSON = "{\"type\":\"user_ready\",\"isReady\":true}".getBytes(StandardCharsets.UTF_8);
+
+    private final PayloadCodec codec = new PayloadCodec();
+    private final PayloadEncodingInterceptor interceptor = new PayloadEncodingInterceptor(codec);
+
+    @Test
+    void CONNECT_에서_CBOR_를_받겠다고_한_세션에만_CBOR_로_보낸다() throws Exception {
+        connect("cbor-session", "application/cbor, application/json");
+        connect("json-session", null);
+
+        Message<?> toCbor = interceptor.preSend(outbound("cbor-session", JSON, MimeTypeUtils.APPLICATION_JSON), null);
+        Message<?> toJson = interceptor.preSend(outbound("json-session", JSON, MimeTypeUtils.APPLICATION_JSON), null);
+
+        assertThat(contentType(toCbor)).isEqualTo(PayloadCodec.APPLICATION_CBOR);
+        assertThat(codec.toJson((byte[]) toCbor.getPayload())).isEqualTo(JSON);
+        assertThat(toJson.getPayload()).isSameAs(JSON);
+    }
+
+    @Test
+    void CBOR_발신자의_메시지는_기존_JSON_세션에_JSON_으로_보낸다() throws Exception {
+        connect("json-session", null);
+        byte[] cbor = codec.toCbor(JSON);
+
+        Message<?> message = interceptor.preSend(outbound("json-session", cbor, PayloadCodec.APPLICATION_CBOR), null);
+
+        assertThat(contentType(message)).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+        assertThat(message.getPayload()).isEqualTo(JSON);
+    }
+
+    @Test
+    void 같은_브로드캐스트는_한_번만_변환한다() {
+        connect("a", "application/cbor");
+        connect("b", "application/cbor");
+
+        Message<?> first = interceptor.preSend(outbound("a", JSON, MimeTypeUtils.APPLICATION_JSON), null);
+        Message<?> second = interceptor.preSend(outbound("b", JSON, MimeTypeUtils.APPLICATION_JSON), null);
+
+        assertThat(second.getPayload()).isSameAs(first.getPayload());
+    }
+
+    @Test
+    void DISCONNECT_후에는_세션_인코딩을_잊는다() {
+        connect("a", "application/cbor");
+        SimpMessageHeaderAccessor disconnect = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT);
+        disconnect.setSessionId("a");
+        interceptor.inbound().preSend(MessageBuilder.createMessage(new byte[0], disconnect.getMessageHeaders()), null);
+
+        assertThat(interceptor.isCbor("a")).isFalse();
+    }
+
+    @Test
+    void CBOR_본문_프레임만_바이너리로_보낸다() {
+        byte[] cborFrame = "MESSAGE\ndestination:/topic/room/1\ncontent-type:application/cbor\ncontent-length:3\n\n¡\u0000\u0000"
+                .getBytes(StandardCharsets.ISO_8859_1);
+        byte[] jsonFrame = "MESSAGE\ndestination:/topic/room/1\ncontent-type:application/json\n\n{\"content-type:application/cbor\":1}\u0000"
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThat(BinaryFrameSession.hasCborBody(cborFrame)).isTrue();
+        assertThat(BinaryFrameSession.hasCborBody(jsonFrame)).isFalse();
+        assertThat(BinaryFrameSession.hasCborBody("\n".getBytes(StandardCharsets.UTF_8))).isFalse();
+    }
+
+    private void connect(String sessionId, String acceptContentType) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        if (acceptContentType != null) {
+            accessor.setNativeHeader(PayloadEncodingInterceptor.ACCEPT_CONTENT_TYPE, acceptContentType);
+        }
+        interceptor.inbound().preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+    }
+
+    private static Message<byte[]> outbound(String sessionId, byte[] payload, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/topic/room/1");
+        accessor.setContentType(contentType);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    private static Object contentType(Message<?> message) {
+        return message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+    }
+}
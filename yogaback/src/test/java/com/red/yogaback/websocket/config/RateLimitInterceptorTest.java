@@ -0,0 +1,72 @@
+package com.red.yogaback.websocket.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitInterceptorTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(true,
+            "MESSAGE:/app/room/**=2:3", "MESSAGE:/app/room/**=4:5", "drop",
+            new StaticListableBeanFactory().getBeanProvider(SimpMessagingTemplate.class), meterRegistry, nanos::get);
+
+    @Test
+    void 세션_버스트를_넘으면_버리고_초당_허용량만큼_다시_채운다() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(interceptor.preSend(send("s1", "/app/room/1"), null)).isNotNull();
+        }
+        assertThat(interceptor.preSend(send("s1", "/app/room/1"), null)).isNull();
+        // 다른 세션은 자기 bucket
+        assertThat(interceptor.preSend(send("s2", "/app/room/1"), null)).isNotNull();
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(interceptor.preSend(send("s1", "/app/room/1"), null)).isNotNull();
+        assertThat(interceptor.preSend(send("s1", "/app/room/1"), null)).isNull();
+
+        assertThat(meterRegistry.get("websocket.rate_limit.rejected").tag("scope", "session").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void 방_전체_허용량은_세션들이_나눠_쓴다() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(interceptor.preSend(send("s" + i, "/app/room/1"), null)).isNotNull();
+        }
+        assertThat(interceptor.preSend(send("s9", "/app/room/1"), null)).isNull();
+        assertThat(interceptor.preSend(send("s9", "/app/room/2"), null)).isNotNull();
+
+        assertThat(meterRegistry.get("websocket.rate_limit.rejected").tag("scope", "room").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void 규칙이_없는_프레임과_목적지는_제한하지_않는다() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(interceptor.preSend(send("s1", "/app/other"), null)).isNotNull();
+            assertThat(interceptor.preSend(message(SimpMessageType.HEARTBEAT, "s1", null), null)).isNotNull();
+        }
+    }
+
+    private Message<byte[]> send(String sessionId, String destination) {
+        return message(SimpMessageType.MESSAGE, sessionId, destination);
+    }
+
+    private Message<byte[]> message(SimpMessageType type, String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,208 @@
+package com.red.yogaback.websocket.config;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebServerApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * websocket.broker.mode=relay 에서 서로 다른 두 서버(node)에 붙은 세션끼리 메시지가 오가는지 확인한다.
+ * 외부 브로커 대신 내장 Artemis(STOMP acceptor)를 띄우므로 오프라인에서도 실행된다.
+ */
+class StompBrokerRelayTest {
+
+    private static EmbeddedActiveMQ broker;
+    private static int brokerPort;
+
+    private AnnotationConfigServletWebServerApplicationContext nodeA;
+    private AnnotationConfigServletWebServerApplicationContext nodeB;
+    private WebSocketStompClient stompClient;
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        brokerPort = freePort();
+        broker = new EmbeddedActiveMQ().setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                // /topic 은 multicast(방 topic), /queue 는 anycast(/user/queue 가 변환된 세션별 queue)
+                .addAcceptorConfiguration("stomp", "tcp://127.0.0.1:" + brokerPort
+                        + "?protocols=STOMP;multicastPrefix=/topic/;anycastPrefix=/queue/"));
+        broker.start();
+    }
+
+    @AfterAll
+    static void stopBroker() throws Exception {
+        broker.stop();
+    }
+
+    @BeforeEach
+    void startNodes() throws Exception {
+        nodeA = startNode();
+        nodeB = startNode();
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new StringMessageConverter());
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void 다른_서버에서_보낸_방_topic_메시지를_받는다() throws Exception {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        StompSession session = connect(nodeB, "alice");
+        subscribe(session, "/topic/room/1", received);
+
+        nodeA.getBean(SimpMessagingTemplate.class).convertAndSend("/topic/room/1", "hello");
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("hello");
+        session.disconnect();
+    }
+
+    @Test
+    void 다른_서버에_붙은_사용자에게_user_queue_로_보낸다() throws Exception {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        StompSession session = connect(nodeB, "alice");
+        subscribe(session, "/user/queue/signal", received);
+
+        // nodeA 에는 alice 세션이 없으므로 unresolved user destination broadcast 를 통해 nodeB 가 전달
+        nodeA.getBean(SimpMessagingTemplate.class).convertAndSendToUser("alice", "/queue/signal", "offer");
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("offer");
+        session.disconnect();
+    }
+
+    private AnnotationConfigServletWebServerApplicationContext startNode() throws InterruptedException {
+        AnnotationConfigServletWebServerApplicationContext context = new AnnotationConfigServletWebServerApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                "server.port", "0",
+                "test.broker.port", String.valueOf(brokerPort))));
+        context.register(Node.class);
+        context.refresh();
+        // relay 의 시스템 연결이 맺어지기 전 메시지는 버려지므로 브로커 연결까지 대기
+        StompBrokerRelayMessageHandler relay = context.getBean(StompBrokerRelayMessageHandler.class);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!relay.isBrokerAvailable() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(relay.isBrokerAvailable()).isTrue();
+        return context;
+    }
+
+    private StompSession connect(AnnotationConfigServletWebServerApplicationContext node, String user) throws Exception {
+        String url = "ws://127.0.0.1:" + node.getWebServer().getPort() + "/ws?user=" + user;
+        StompSession session = stompClient.connectAsync(url, new StompSessionHandlerAdapter() {
+        }).get(5, TimeUnit.SECONDS);
+        session.setAutoReceipt(true);
+        return session;
+    }
+
+    // 브로커에 구독이 등록된(RECEIPT) 뒤에 반환
+    private void subscribe(StompSession session, String destination, BlockingQueue<String> received) throws InterruptedException {
+        CountDownLatch subscribed = new CountDownLatch(1);
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((String) payload);
+            }
+        }).addReceiptTask(subscribed::countDown);
+        assertThat(subscribed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * 서버 한 대. 실제 WebSocketConfig 의 인증/세션 인터셉터는 DB 가 필요하므로 빼고 브로커 설정만 그대로 쓴다.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @EnableWebSocketMessageBroker
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebSocketServletAutoConfiguration.class
+    })
+    static class Node implements WebSocketMessageBrokerConfigurer {
+
+        private final StompBrokerConfigurer stompBrokerConfigurer;
+        private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+
+        Node(@Value("${test.broker.port}") int brokerPort) {
+            this.stompBrokerConfigurer = new StompBrokerConfigurer("relay", "127.0.0.1", brokerPort,
+                    "guest", "guest", "guest", "guest", "", 10_000);
+            taskScheduler.setPoolSize(1);
+            taskScheduler.setDaemon(true);
+            taskScheduler.initialize();
+        }
+
+        @Override
+        public void configureMessageBroker(MessageBrokerRegistry config) {
+            stompBrokerConfigurer.configure(config, taskScheduler);
+            config.setApplicationDestinationPrefixes("/app");
+        }
+
+        @Override
+        public void registerStompEndpoints(StompEndpointRegistry registry) {
+            registry.addEndpoint("/ws").setHandshakeHandler(new DefaultHandshakeHandler() {
+                // 테스트에서는 ?user= 로 사용자 지정
+                @Override
+                protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler,
+                                                  Map<String, Object> attributes) {
+                    String user = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("user");
+                    return () -> user;
+                }
+            });
+        }
+    }
+}
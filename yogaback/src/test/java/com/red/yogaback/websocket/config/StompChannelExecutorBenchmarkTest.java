@@ -0,0 +1,143 @@
+package com.red.yogaback.websocket.config;
+
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.broker.OrderedMessageChannelDecorator;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * clientInboundChannel 실행 방식 비교 (처리량, p99 지연)
+ *  - platform: Spring 기본 채널 풀 (코어 수 x 2 스레드)
+ *  - virtual : 프레임마다 가상 스레드 (websocket.channel.executor=virtual)
+ *
+ * 세션 200개가 50ms 마다 한 프레임씩 보내고, 그중 10% 는 JPA 저장처럼 커넥션 풀(Hikari 기본 10개)을 잡고 20ms 블로킹한다.
+ * 나머지(heartbeat, ICE 중계 등)는 바로 끝나는 프레임이다. 실제 설정처럼 세션별 순서 보장(preserve-order)을 켠 채로 측정한다.
+ *
+ * ./gradlew benchmark
+ */
+@Tag("benchmark")
+class StompChannelExecutorBenchmarkTest {
+
+    private static final int SESSIONS = 200;
+    private static final int ROUNDS = 100;
+    private static final long ROUND_INTERVAL_MS = 50;
+    private static final int DB_CONNECTIONS = 10;
+    private static final long DB_CALL_MS = 20;
+
+    @Test
+    void 실행_방식별_처리량과_p99_지연_비교() throws Exception {
+        int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(poolSize);
+        pool.setThreadNamePrefix("bench-inbound-");
+        pool.initialize();
+
+        Result platform = run(pool);
+        pool.shutdown();
+        Result virtual = run(new VirtualThreadTaskExecutor("bench-inbound-"));
+
+        System.out.printf("platform (%d threads): %s%n", poolSize, platform);
+        System.out.printf("virtual              : %s%n", virtual);
+
+        assertThat(platform.outOfOrder()).isZero();
+        assertThat(virtual.outOfOrder()).isZero();
+    }
+
+    private Result run(Executor executor) throws InterruptedException {
+        int total = SESSIONS * ROUNDS;
+        long[] latencies = new long[total];
+        AtomicIntegerArray lastSeq = new AtomicIntegerArray(SESSIONS);
+        AtomicInteger outOfOrder = new AtomicInteger();
+        Semaphore connections = new Semaphore(DB_CONNECTIONS);
+        CountDownLatch done = new CountDownLatch(total);
+
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel(executor);
+        OrderedMessageChannelDecorator.configureInterceptor(channel, true);
+        channel.subscribe(message -> {
+            Frame frame = (Frame) message.getPayload();
+            if (frame.db()) {
+                connections.acquireUninterruptibly();
+                try {
+                    Thread.sleep(DB_CALL_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    connections.release();
+                }
+            }
+            if (lastSeq.getAndSet(frame.session(), frame.seq()) != frame.seq() - 1) {
+                outOfOrder.incrementAndGet();
+            }
+            latencies[frame.session() * ROUNDS + frame.seq()] = System.nanoTime() - frame.sentAt();
+            done.countDown();
+        });
+
+        // StompSubProtocolHandler 처럼 세션마다 순서 보장 decorator 하나
+        MessageChannel[] sessions = new MessageChannel[SESSIONS];
+        for (int s = 0; s < SESSIONS; s++) {
+            lastSeq.set(s, -1);
+            sessions[s] = new OrderedMessageChannelDecorator(channel, LogFactory.getLog(getClass()));
+        }
+
+        long start = System.nanoTime();
+        for (int seq = 0; seq < ROUNDS; seq++) {
+            long roundStart = System.nanoTime();
+            for (int s = 0; s < SESSIONS; s++) {
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+                accessor.setSessionId("session-" + s);
+                accessor.setLeaveMutable(true);
+                Frame frame = new Frame(s, seq, (s + seq) % 10 == 0, System.nanoTime());
+                sessions[s].send(MessageBuilder.createMessage(frame, accessor.getMessageHeaders()));
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - roundStart);
+            Thread.sleep(Math.max(0, ROUND_INTERVAL_MS - elapsedMs));
+        }
+        assertThat(done.await(60, TimeUnit.SECONDS)).isTrue();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] light = new long[total - total / 10];
+        int n = 0;
+        for (int s = 0; s < SESSIONS; s++) {
+            for (int seq = 0; seq < ROUNDS; seq++) {
+                if ((s + seq) % 10 != 0) {
+                    light[n++] = latencies[s * ROUNDS + seq];
+                }
+            }
+        }
+        return new Result(total / seconds, p99(latencies), p99(Arrays.copyOf(light, n)), outOfOrder.get());
+    }
+
+    private static double p99(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1e6;
+    }
+
+    private record Frame(int session, int seq, boolean db, long sentAt) {
+    }
+
+    private record Result(double throughput, double p99Ms, double p99LightMs, int outOfOrder) {
+
+        @Override
+        public String toString() {
+            return String.format("%,8.0f msg/s, p99 %7.2f ms (DB 없는 프레임 p99 %7.2f ms), 순서 어긋남 %d",
+                    throughput, p99Ms, p99LightMs, outOfOrder);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.red.yogaback.websocket.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StompTracingInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void 패턴별_비율로_고른_프레임의_크기와_지연을_기록한다() {
+        StompTracingInterceptor tracing = new StompTracingInterceptor(true,
+                "/topic/room/**=1.0, /app/**=0", 0, 16, meterRegistry);
+        ExecutorSubscribableChannel channel = channel(tracing);
+
+        channel.send(message("/topic/room/1", "{\"type\":\"ice\"}"));
+        channel.send(message("/app/room/1", "{\"type\":\"ice\"}"));
+        channel.send(message(null, ""));
+        tracing.flush();
+
+        assertThat(meterRegistry.get("websocket.trace.payload").tag("destination", "/topic/room/**")
+                .summary().totalAmount()).isEqualTo(14);
+        assertThat(meterRegistry.get("websocket.trace.latency").tag("direction", "outbound")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("websocket.trace.payload").tag("destination", "/app/**").summary()).isNull();
+        assertThat(meterRegistry.find("websocket.trace.payload").tag("destination", "default").summary()).isNull();
+    }
+
+    @Test
+    void 구독_핸들러가_여럿이어도_크기는_한번만_지연은_핸들러마다_기록한다() {
+        StompTracingInterceptor tracing = new StompTracingInterceptor(true, "/app/**=1.0", 0, 16, meterRegistry);
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel();
+        channel.addInterceptor(tracing.inbound());
+        // clientInboundChannel 처럼 핸들러 두 개가 같은 프레임을 받음
+        channel.subscribe(message -> {
+        });
+        channel.subscribe(message -> {
+        });
+
+        channel.send(message("/app/room/1", "{\"type\":\"ice\"}"));
+        tracing.flush();
+
+        assertThat(meterRegistry.get("websocket.trace.payload").tag("direction", "inbound")
+                .summary().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("websocket.trace.payload").tag("direction", "inbound")
+                .summary().totalAmount()).isEqualTo(14);
+        assertThat(meterRegistry.get("websocket.trace.latency").tag("direction", "inbound")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void 문자열_payload_는_UTF8_바이트_수로_기록한다() {
+        StompTracingInterceptor tracing = new StompTracingInterceptor(true, "/topic/**=1.0", 0, 16, meterRegistry);
+        ExecutorSubscribableChannel channel = channel(tracing);
+
+        channel.send(textMessage("/topic/room/1", "요가"));
+        channel.send(textMessage("/topic/room/1", "yoga"));
+        tracing.flush();
+
+        // 같은 규칙의 기록은 하나의 meter 에 누적
+        assertThat(meterRegistry.get("websocket.trace.payload").summary().totalAmount()).isEqualTo(10);
+        assertThat(meterRegistry.get("websocket.trace.latency").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void 버퍼가_차면_버리고_센다() {
+        StompTracingInterceptor tracing = new StompTracingInterceptor(true, "/topic/**=1.0", 0, 2, meterRegistry);
+        ExecutorSubscribableChannel channel = channel(tracing);
+
+        for (int i = 0; i < 5; i++) {
+            channel.send(message("/topic/room/1", "x"));
+        }
+        tracing.flush();
+
+        assertThat(meterRegistry.get("websocket.trace.latency").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("websocket.trace.dropped").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void 목적지별_규칙은_먼저_맞는_패턴을_쓴다() {
+        StompTracingInterceptor tracing = new StompTracingInterceptor(true,
+                "/topic/room/1=0.5,/topic/**=0.1", 0.2, 16, meterRegistry);
+
+        assertThat(tracing.ruleFor("/topic/room/1").rate()).isEqualTo(0.5);
+        assertThat(tracing.ruleFor("/topic/room/2").rate()).isEqualTo(0.1);
+        assertThat(tracing.ruleFor("/queue/x").rate()).isEqualTo(0.2);
+        assertThat(tracing.ruleFor(null).pattern()).isEqualTo("default");
+    }
+
+    private ExecutorSubscribableChannel channel(StompTracingInterceptor tracing) {
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel();
+        channel.addInterceptor(tracing.outbound());
+        channel.subscribe(message -> {
+        });
+        return channel;
+    }
+
+    private Message<String> textMessage(String destination, String body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("session-1");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+    }
+
+    private Message<byte[]> message(String destination, String body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("session-1");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(body.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
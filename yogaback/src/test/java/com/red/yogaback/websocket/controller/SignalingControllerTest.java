@@ -0,0 +1,161 @@
+package com.red.yogaback.websocket.controller;
+
+import com.red.yogaback.websocket.dto.RoomMessage;
+import com.red.yogaback.websocket.service.InMemorySessionRegistry;
+import com.red.yogaback.websocket.service.PayloadCodec;
+import com.red.yogaback.websocket.service.RoomMessageHandler;
+import com.red.yogaback.websocket.service.RoomMessageReader;
+import com.red.yogaback.websocket.service.UserSession;
+import com.red.yogaback.websocket.service.UserSessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SignalingControllerTest {
+
+    private final List<Message<?>> sent = new ArrayList<>();
+    private final List<RoomMessage> gameStates = new ArrayList<>();
+    private final List<String> scoreReporters = new ArrayList<>();
+    private SignalingController signalingController;
+
+    @BeforeEach
+    void setUp() {
+        UserSessionService userSessionService =
+                new UserSessionService(new InMemorySessionRegistry(60_000L, System::currentTimeMillis));
+        userSessionService.addSession("s1", new UserSession("1", "10", "alice", ""));
+        userSessionService.addSession("s2", new UserSession("2", "10", "bob", ""));
+        userSessionService.addSession("s3", new UserSession("3", "20", "carol", ""));
+
+        RoomMessageHandler gameStateHandler = new RoomMessageHandler() {
+            @Override
+            public String type() {
+                return "game_state";
+            }
+
+            @Override
+            public void handle(String roomId, String userId, RoomMessage message) {
+                // 핸들러는 중계보다 먼저 실행
+                assertThat(sent).isEmpty();
+                gameStates.add(message);
+            }
+        };
+        RoomMessageHandler scoreReportHandler = new RoomMessageHandler() {
+            @Override
+            public String type() {
+                return "score_report";
+            }
+
+            @Override
+            public boolean relay() {
+                return false;
+            }
+
+            @Override
+            public void handle(String roomId, String userId, RoomMessage message) {
+                scoreReporters.add(userId);
+            }
+        };
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> sent.add(message));
+        signalingController = new SignalingController(messagingTemplate, userSessionService,
+                new RoomMessageReader(new PayloadCodec()), List.of(gameStateHandler, scoreReportHandler));
+    }
+
+    @Test
+    void target_이_있으면_그_사용자_queue_로만_보낸다() {
+        String offer = "{\"type\":\"offer\",\"fromPeerId\":\"1\",\"toPeerId\":\"2\",\"sdp\":\"v=0\"}";
+
+        send("10", "{\"target\":\"2\",\"payload\":" + offer + "}");
+
+        assertThat(sent).hasSize(1);
+        assertThat(destination(sent.get(0))).isEqualTo("/user/2/queue/signal");
+        assertThat(body(sent.get(0))).isEqualTo(offer);
+    }
+
+    @Test
+    void 다른_방_사용자에게는_보내지_않는다() {
+        send("10", "{\"target\":\"3\",\"payload\":{\"type\":\"offer\",\"fromPeerId\":\"1\",\"toPeerId\":\"3\"}}");
+
+        assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void target_이_없으면_payload_를_그대로_방_topic_으로_브로드캐스트한다() {
+        String ready = "{ \"type\" : \"user_ready\", \"fromPeerId\":\"1\", \"isReady\":true }";
+
+        send("10", "{\"payload\":" + ready + "}");
+
+        assertThat(sent).hasSize(1);
+        assertThat(destination(sent.get(0))).isEqualTo("/topic/room/10");
+        assertThat(body(sent.get(0))).isEqualTo(ready);
+        assertThat(gameStates).isEmpty();
+    }
+
+    @Test
+    void 등록된_type_은_핸들러를_거쳐_중계한다() {
+        send("10", "{\"payload\":{\"type\":\"game_state\",\"state\":0,\"fromPeerId\":\"1\"}}");
+
+        assertThat(sent).hasSize(1);
+        assertThat(gameStates).extracting(RoomMessage::type).containsExactly("game_state");
+    }
+
+    @Test
+    void 중계하지_않는_핸들러의_메시지는_서버만_받는다() {
+        send("10", "{\"payload\":{\"type\":\"score_report\",\"round\":0,\"time\":3.5,\"fromPeerId\":\"1\"}}");
+
+        assertThat(sent).isEmpty();
+        assertThat(scoreReporters).containsExactly("1");
+    }
+
+    @Test
+    void CBOR_로_보낸_메시지는_CBOR_그대로_중계한다() throws Exception {
+        PayloadCodec codec = new PayloadCodec();
+        byte[] body = codec.toCbor("{\"payload\":{\"type\":\"user_ready\",\"fromPeerId\":\"1\"}}".getBytes(StandardCharsets.UTF_8));
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setSessionId("s1");
+        accessor.setContentType(PayloadCodec.APPLICATION_CBOR);
+        signalingController.broadcastRoomMessage("10", body, accessor);
+
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(PayloadCodec.APPLICATION_CBOR);
+        assertThat(new String(codec.toJson((byte[]) sent.get(0).getPayload()), StandardCharsets.UTF_8))
+                .isEqualTo("{\"type\":\"user_ready\",\"fromPeerId\":\"1\"}");
+    }
+
+    @Test
+    void 읽을_수_없는_메시지는_버린다() {
+        send("10", "not json");
+        send("10", "{\"target\":\"2\"}");
+
+        assertThat(sent).isEmpty();
+    }
+
+    private void send(String roomId, String body) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setSessionId("s1");
+        accessor.setUser(() -> "1");
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        signalingController.broadcastRoomMessage(roomId, body.getBytes(StandardCharsets.UTF_8), accessor);
+    }
+
+    private static String destination(Message<?> message) {
+        return SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+    }
+
+    private static String body(Message<?> message) {
+        return new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,108 @@
+package com.red.yogaback.websocket.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.red.yogaback.websocket.dto.RoomActionMessage;
+import com.red.yogaback.websocket.dto.RoomMessage;
+import com.red.yogaback.websocket.service.PayloadCodec;
+import com.red.yogaback.websocket.service.RoomMessageReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 방 메시지 1건 처리 비용 비교 (스레드 하나 = 코어 하나 기준 초당 메시지 수)
+ *  - 기존: RoomActionMessage 로 역직렬화 → payload 재직렬화(브로드캐스트) → TypeReference 로 Map 변환 후 type/state 확인
+ *  - 변경: RoomMessageReader 로 target/type 만 streaming 으로 읽고 payload 바이트를 그대로 중계
+ *
+ * ./gradlew benchmark
+ */
+@Tag("benchmark")
+class SignalingDispatchBenchmarkTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int MESSAGES = 500_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RoomMessageReader reader = new RoomMessageReader(new PayloadCodec());
+    // 실제 방 트래픽과 비슷하게 ICE 후보가 대부분이고 SDP 는 크고 드묾
+    private final byte[][] samples = samples();
+
+    // JIT 가 결과를 버리지 않도록 누적
+    private long sink;
+
+    @Test
+    void 초당_처리_메시지_수_비교() throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            sink += mapDispatch(samples[i % samples.length]);
+            sink += streamingDispatch(samples[i % samples.length]);
+        }
+
+        double before = throughput(true);
+        double after = throughput(false);
+        System.out.printf("map dispatch      : %,12.0f msg/s/core%n", before);
+        System.out.printf("streaming dispatch: %,12.0f msg/s/core (x%.1f)%n", after, after / before);
+        System.out.println("sink=" + sink);
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    private double throughput(boolean map) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            byte[] body = samples[i % samples.length];
+            sink += map ? mapDispatch(body) : streamingDispatch(body);
+        }
+        return MESSAGES / ((System.nanoTime() - start) / 1e9);
+    }
+
+    // 기존 SignalingController 경로
+    private int mapDispatch(byte[] body) throws IOException {
+        RoomActionMessage actionMessage = objectMapper.readValue(body, RoomActionMessage.class);
+        byte[] relayed = objectMapper.writeValueAsBytes(actionMessage.getPayload());
+        Map<String, Object> map = objectMapper.convertValue(actionMessage.getPayload(),
+                new TypeReference<Map<String, Object>>() {});
+        Object type = map.get("type");
+        if ("game_state".equals(type)) {
+            Object state = map.get("state");
+            return relayed.length + (state instanceof Number number ? number.intValue() : 0);
+        }
+        return relayed.length;
+    }
+
+    // 변경된 경로
+    private int streamingDispatch(byte[] body) throws IOException {
+        RoomMessage message = reader.read(body, MimeTypeUtils.APPLICATION_JSON);
+        if ("game_state".equals(message.type())) {
+            Integer state = reader.readInt(message.payload(), message.contentType(), "state");
+            return message.payload().length + (state == null ? 0 : state);
+        }
+        return message.payload().length;
+    }
+
+    private static byte[][] samples() {
+        String sdp = ("v=0\\r\\no=- 4611731400430051336 2 IN IP4 127.0.0.1\\r\\ns=-\\r\\nt=0 0\\r\\n"
+                + "a=group:BUNDLE 0\\r\\na=extmap-allow-mixed\\r\\nm=application 9 UDP/DTLS/SCTP webrtc-datachannel\\r\\n"
+                + "c=IN IP4 0.0.0.0\\r\\na=ice-ufrag:abcd\\r\\na=ice-pwd:abcdefghijklmnopqrstuvwx\\r\\n"
+                + "a=fingerprint:sha-256 12:34:56:78:9A:BC:DE:F0:12:34:56:78:9A:BC:DE:F0:12:34:56:78:9A:BC:DE:F0\\r\\n")
+                .repeat(6);
+        String ice = "{\"target\":\"2\",\"payload\":{\"type\":\"ice_candidate\",\"fromPeerId\":\"1\",\"toPeerId\":\"2\","
+                + "\"candidate\":{\"sdpMid\":\"0\",\"sdpMLineIndex\":0,"
+                + "\"sdp\":\"candidate:842163049 1 udp 1677729535 203.0.113.7 46154 typ srflx raddr 10.0.2.15 rport 46154 generation 0\"}}}";
+        String offer = "{\"target\":\"2\",\"payload\":{\"type\":\"offer\",\"fromPeerId\":\"1\",\"toPeerId\":\"2\",\"sdp\":\"" + sdp + "\"}}";
+        String ready = "{\"payload\":{\"type\":\"user_ready\",\"fromPeerId\":\"1\",\"isReady\":true}}";
+        String gameState = "{\"payload\":{\"type\":\"game_state\",\"fromPeerId\":\"1\",\"state\":3}}";
+        String[] mix = {ice, ice, ice, ice, ice, ice, ice, offer, ready, gameState};
+        byte[][] samples = new byte[mix.length][];
+        for (int i = 0; i < mix.length; i++) {
+            samples[i] = mix[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return samples;
+    }
+}
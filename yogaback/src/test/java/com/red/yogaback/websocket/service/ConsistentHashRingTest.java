@@ -0,0 +1,62 @@
+package com.red.yogaback.websocket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final int ROOMS = 10_000;
+    private static final int VIRTUAL_NODES = 160;
+
+    @Test
+    void 방이_서버들에_고르게_나뉜다() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int roomId = 1; roomId <= ROOMS; roomId++) {
+            counts.merge(ring.ownerOf(String.valueOf(roomId)), 1, Integer::sum);
+        }
+
+        // 평균 2500 에서 크게 벗어나지 않음
+        assertThat(counts).hasSize(4);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(2000, 3000));
+    }
+
+    @Test
+    void 서버가_추가되면_새_서버_몫만_옮겨간다() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+
+        int moved = 0;
+        for (int roomId = 1; roomId <= ROOMS; roomId++) {
+            String key = String.valueOf(roomId);
+            String previousOwner = before.ownerOf(key);
+            String owner = after.ownerOf(key);
+            if (!owner.equals(previousOwner)) {
+                moved++;
+                // 옮겨 간 방은 모두 새 서버로
+                assertThat(owner).isEqualTo("d");
+            }
+        }
+        // 약 1/4
+        assertThat(moved).isBetween(ROOMS / 5, ROOMS * 3 / 10);
+    }
+
+    @Test
+    void 서버가_빠지면_그_서버의_방만_옮겨간다() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b"), VIRTUAL_NODES);
+
+        for (int roomId = 1; roomId <= ROOMS; roomId++) {
+            String key = String.valueOf(roomId);
+            if (!before.ownerOf(key).equals("c")) {
+                assertThat(after.ownerOf(key)).isEqualTo(before.ownerOf(key));
+            }
+        }
+    }
+}
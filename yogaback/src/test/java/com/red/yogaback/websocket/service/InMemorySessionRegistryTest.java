@@ -0,0 +1,46 @@
+package com.red.yogaback.websocket.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemorySessionRegistryTest {
+
+    private static final long TTL_MS = 60_000L;
+
+    private final AtomicLong clock = new AtomicLong(0L);
+    private final InMemorySessionRegistry registry = new InMemorySessionRegistry(TTL_MS, clock::get);
+
+    @Test
+    void 방을_구독하면_방_인덱스가_바뀐다() {
+        registry.register("s1", new UserSession("1", "", "alice", ""));
+        assertThat(registry.activeRoomIds()).isEmpty();
+
+        registry.register("s1", new UserSession("1", "10", "alice", ""));
+        registry.register("s1", new UserSession("1", "11", "alice", ""));
+
+        assertThat(registry.sessionsInRoom("10")).isEmpty();
+        assertThat(registry.sessionsInRoom("11")).containsExactly("s1");
+        assertThat(registry.sessionsOfUser("1")).containsExactly("s1");
+
+        registry.remove("s1");
+        assertThat(registry.sessionsOfUser("1")).isEmpty();
+        assertThat(registry.activeRoomIds()).isEmpty();
+    }
+
+    @Test
+    void heartbeat_가_끊긴_세션은_한번만_만료로_넘긴다() {
+        registry.register("s1", new UserSession("1", "10", "alice", ""));
+        registry.register("s2", new UserSession("2", "10", "bob", ""));
+
+        clock.addAndGet(TTL_MS - 1);
+        registry.touch("s2");
+        clock.addAndGet(1);
+
+        assertThat(registry.claimExpired()).containsExactly("s1");
+        assertThat(registry.claimExpired()).isEmpty();
+        assertThat(registry.sessionsInRoom("10")).containsExactly("s2");
+    }
+}
@@ -0,0 +1,87 @@
+package com.red.yogaback.websocket.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 테스트용 SessionStore. 여러 SharedSessionRegistry(서버)가 하나의 인스턴스를 공유해 클러스터를 흉내 낸다.
+ */
+class InMemorySessionStore implements SessionStore {
+
+    private final Map<String, SessionRecord> records = new ConcurrentHashMap<>();
+    int extendCalls;
+
+    @Override
+    public void save(SessionRecord record) {
+        records.put(record.sessionId(), record);
+    }
+
+    @Override
+    public Optional<SessionRecord> find(String sessionId) {
+        return Optional.ofNullable(records.get(sessionId));
+    }
+
+    @Override
+    public void delete(String sessionId) {
+        records.remove(sessionId);
+    }
+
+    @Override
+    public void extend(String sessionId, long expiresAt) {
+        extendCalls++;
+        records.computeIfPresent(sessionId, (id, r) -> new SessionRecord(
+                id, r.nodeId(), r.userId(), r.roomId(), r.userNickName(), r.userProfile(), expiresAt));
+    }
+
+    @Override
+    public List<String> findLiveByUserId(String userId, long now) {
+        return records.values().stream()
+                .filter(r -> userId.equals(r.userId()) && r.expiresAt() > now)
+                .map(SessionRecord::sessionId)
+                .toList();
+    }
+
+    @Override
+    public List<String> findLiveByRoomId(String roomId, long now) {
+        return records.values().stream()
+                .filter(r -> roomId.equals(r.roomId()) && r.expiresAt() > now)
+                .map(SessionRecord::sessionId)
+                .toList();
+    }
+
+    @Override
+    public Set<String> findLiveRoomIds(long now) {
+        return records.values().stream()
+                .filter(r -> r.roomId() != null && !r.roomId().isBlank() && r.expiresAt() > now)
+                .map(SessionRecord::roomId)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public List<String> findExpired(long now, int limit) {
+        return records.values().stream()
+                .filter(r -> r.expiresAt() <= now)
+                .sorted(Comparator.comparingLong(SessionRecord::expiresAt))
+                .limit(limit)
+                .map(SessionRecord::sessionId)
+                .toList();
+    }
+
+    @Override
+    public boolean claimExpired(String sessionId, long now, long claimedUntil, String nodeId) {
+        boolean[] claimed = {false};
+        records.computeIfPresent(sessionId, (id, r) -> {
+            if (r.expiresAt() > now) {
+                return r;
+            }
+            claimed[0] = true;
+            return new SessionRecord(id, nodeId, r.userId(), r.roomId(), r.userNickName(), r.userProfile(), claimedUntil);
+        });
+        return claimed[0];
+    }
+}
@@ -0,0 +1,69 @@
+package com.red.yogaback.websocket.service;
+
+import com.red.yogaback.websocket.dto.RoomMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomMessageReaderTest {
+
+    private final RoomMessageReader reader = new RoomMessageReader(new PayloadCodec());
+
+    @Test
+    void payload_의_최상위_type_만_읽고_원본_바이트를_그대로_돌려준다() throws Exception {
+        String payload = "{\"data\":{\"type\":\"nested\"},\"type\":\"ice_candidate\",\"candidate\":\"candidate:1 1 udp 2122260223 \\\"x\\\"\"}";
+
+        RoomMessage message = reader.read(json("{\"payload\":" + payload + ",\"target\":\"7\"}"), MimeTypeUtils.APPLICATION_JSON);
+
+        assertThat(message.type()).isEqualTo("ice_candidate");
+        assertThat(message.target()).isEqualTo("7");
+        assertThat(new String(message.payload(), StandardCharsets.UTF_8)).isEqualTo(payload);
+    }
+
+    @Test
+    void 한글이_섞인_payload_도_바이트_구간을_정확히_자른다() throws Exception {
+        String payload = "{\"type\":\"user_joined\",\"userNickName\":\"요가왕\"}";
+
+        RoomMessage message = reader.read(json("{\"payload\":" + payload + "}"), MimeTypeUtils.APPLICATION_JSON);
+
+        assertThat(message.target()).isNull();
+        assertThat(new String(message.payload(), StandardCharsets.UTF_8)).isEqualTo(payload);
+    }
+
+    @Test
+    void 정수_필드는_숫자와_숫자_문자열_모두_읽는다() throws Exception {
+        assertThat(reader.readInt(json("{\"type\":\"game_state\",\"state\":0}"), MimeTypeUtils.APPLICATION_JSON, "state")).isZero();
+        assertThat(reader.readInt(json("{\"state\":\"3\"}"), MimeTypeUtils.APPLICATION_JSON, "state")).isEqualTo(3);
+        assertThat(reader.readInt(json("{\"state\":\"end\"}"), MimeTypeUtils.APPLICATION_JSON, "state")).isNull();
+        assertThat(reader.readInt(json("{\"round\":{\"state\":0}}"), MimeTypeUtils.APPLICATION_JSON, "state")).isNull();
+    }
+
+    @Test
+    void 실수_필드는_정수도_읽는다() throws Exception {
+        assertThat(reader.readFloat(json("{\"type\":\"score_report\",\"time\":3.5}"), MimeTypeUtils.APPLICATION_JSON, "time")).isEqualTo(3.5f);
+        assertThat(reader.readFloat(json("{\"time\":4}"), MimeTypeUtils.APPLICATION_JSON, "time")).isEqualTo(4f);
+        assertThat(reader.readFloat(json("{\"time\":\"fast\"}"), MimeTypeUtils.APPLICATION_JSON, "time")).isNull();
+    }
+
+    @Test
+    void CBOR_본문도_같은_방식으로_읽고_payload_를_CBOR_로_돌려준다() throws Exception {
+        PayloadCodec codec = new PayloadCodec();
+        String payload = "{\"type\":\"game_state\",\"state\":0,\"fromPeerId\":\"1\"}";
+        byte[] body = codec.toCbor(json("{\"target\":null,\"payload\":" + payload + "}"));
+
+        RoomMessage message = reader.read(body, PayloadCodec.APPLICATION_CBOR);
+
+        assertThat(message.type()).isEqualTo("game_state");
+        assertThat(message.target()).isNull();
+        assertThat(message.contentType()).isEqualTo(PayloadCodec.APPLICATION_CBOR);
+        assertThat(new String(codec.toJson(message.payload()), StandardCharsets.UTF_8)).isEqualTo(payload);
+        assertThat(reader.readInt(message.payload(), PayloadCodec.APPLICATION_CBOR, "state")).isZero();
+    }
+
+    private static byte[] json(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
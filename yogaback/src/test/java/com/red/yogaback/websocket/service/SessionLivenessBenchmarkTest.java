@@ -0,0 +1,197 @@
+package com.red.yogaback.websocket.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 세션 5만 개의 heartbeat / 만료 점검 비용 비교
+ *  - 기존: heartbeat 는 만료 시각 갱신, 만료 점검은 10초마다 전체 세션 순회
+ *  - 변경: InMemorySessionRegistry (SessionTimingWheel) — heartbeat 는 칸 이동, 만료 점검은 지난 칸만
+ *
+ * 가상 시계로 10분을 흉내 낸다. 세션은 10초마다 heartbeat 를 보내고, 1% 는 처음부터 heartbeat 가 끊긴다.
+ *
+ * ./gradlew benchmark
+ */
+@Tag("benchmark")
+class SessionLivenessBenchmarkTest {
+
+    private static final int SESSIONS = 50_000;
+    private static final long TTL_MS = 60_000L;
+    private static final long HEARTBEAT_MS = 10_000L;
+    private static final long CHECK_MS = 10_000L;
+    private static final long DURATION_MS = 600_000L;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final String[] sessionIds = new String[SESSIONS];
+
+    @Test
+    void 하트비트와_만료_점검_비용_비교() {
+        for (int i = 0; i < SESSIONS; i++) {
+            sessionIds[i] = "session-" + i;
+        }
+        // JIT 워밍업
+        simulate(new ScanRegistry(new AtomicLong()), new AtomicLong());
+        AtomicLong warmupClock = new AtomicLong();
+        simulate(new WheelRegistry(new InMemorySessionRegistry(TTL_MS, warmupClock::get)), warmupClock);
+
+        AtomicLong scanClock = new AtomicLong();
+        Result scan = simulate(new ScanRegistry(scanClock), scanClock);
+        AtomicLong wheelClock = new AtomicLong();
+        Result wheel = simulate(new WheelRegistry(new InMemorySessionRegistry(TTL_MS, wheelClock::get)), wheelClock);
+
+        System.out.printf("full scan   : %s%n", scan);
+        System.out.printf("timing wheel: %s%n", wheel);
+
+        assertThat(wheel.expired()).isEqualTo(scan.expired()).isEqualTo(SESSIONS / 100);
+        assertThat(wheel.checkNanos()).isLessThan(scan.checkNanos());
+        // heartbeat 재예약은 할당 없음 (측정 오차 정도만 허용)
+        assertThat(wheel.bytesPerHeartbeat()).isLessThan(1.0);
+    }
+
+    private Result simulate(Registry registry, AtomicLong clock) {
+        for (int i = 0; i < SESSIONS; i++) {
+            registry.register(sessionIds[i]);
+        }
+        long heartbeats = 0;
+        long heartbeatNanos = 0;
+        long heartbeatBytes = 0;
+        long checkNanos = 0;
+        int checks = 0;
+        int expired = 0;
+        // 1초 단위로 진행: 매 초 1/10 의 세션이 heartbeat
+        for (long now = 1_000L; now <= DURATION_MS; now += 1_000L) {
+            clock.set(now);
+            int group = (int) ((now / 1_000L) % (HEARTBEAT_MS / 1_000L));
+            long bytes = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = group; i < SESSIONS; i += 10) {
+                // 1% 는 끊긴 세션
+                if (i % 100 != 0) {
+                    registry.touch(sessionIds[i]);
+                    heartbeats++;
+                }
+            }
+            heartbeatNanos += System.nanoTime() - start;
+            heartbeatBytes += THREADS.getCurrentThreadAllocatedBytes() - bytes;
+
+            if (now % CHECK_MS == 0) {
+                start = System.nanoTime();
+                List<String> claimed = registry.claimExpired();
+                checkNanos += System.nanoTime() - start;
+                checks++;
+                for (String sessionId : claimed) {
+                    registry.remove(sessionId);
+                }
+                expired += claimed.size();
+            }
+        }
+        return new Result(heartbeatNanos / (double) heartbeats, heartbeatBytes / (double) heartbeats,
+                checkNanos, checkNanos / (double) checks, expired);
+    }
+
+    private interface Registry {
+        void register(String sessionId);
+
+        void touch(String sessionId);
+
+        void remove(String sessionId);
+
+        List<String> claimExpired();
+    }
+
+    private record WheelRegistry(InMemorySessionRegistry registry) implements Registry {
+
+        @Override
+        public void register(String sessionId) {
+            registry.register(sessionId, new UserSession("1", "10", "user", ""));
+        }
+
+        @Override
+        public void touch(String sessionId) {
+            registry.touch(sessionId);
+        }
+
+        @Override
+        public void remove(String sessionId) {
+            registry.remove(sessionId);
+        }
+
+        @Override
+        public List<String> claimExpired() {
+            return registry.claimExpired();
+        }
+    }
+
+    // 변경 전 InMemorySessionRegistry 의 만료 처리
+    private static final class ScanRegistry implements Registry {
+
+        private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+        private final AtomicLong clock;
+
+        private ScanRegistry(AtomicLong clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public void register(String sessionId) {
+            sessions.put(sessionId, new Entry(clock.get() + TTL_MS));
+        }
+
+        @Override
+        public void touch(String sessionId) {
+            Entry entry = sessions.get(sessionId);
+            if (entry != null) {
+                entry.expiresAt = clock.get() + TTL_MS;
+            }
+        }
+
+        @Override
+        public void remove(String sessionId) {
+            sessions.remove(sessionId);
+        }
+
+        @Override
+        public List<String> claimExpired() {
+            long now = clock.get();
+            List<String> expired = new ArrayList<>();
+            for (Map.Entry<String, Entry> session : sessions.entrySet()) {
+                Entry entry = session.getValue();
+                if (!entry.claimed && entry.expiresAt <= now) {
+                    entry.claimed = true;
+                    expired.add(session.getKey());
+                }
+            }
+            return expired;
+        }
+
+        private static final class Entry {
+            private volatile long expiresAt;
+            private volatile boolean claimed;
+
+            private Entry(long expiresAt) {
+                this.expiresAt = expiresAt;
+            }
+        }
+    }
+
+    private record Result(double nanosPerHeartbeat, double bytesPerHeartbeat,
+                          long checkNanos, double nanosPerCheck, int expired) {
+
+        @Override
+        public String toString() {
+            return String.format("heartbeat %6.1f ns/op, %5.2f B/op | 만료 점검 %,10.0f ns/회 (합계 %,d ns), 만료 %d",
+                    nanosPerHeartbeat, bytesPerHeartbeat, nanosPerCheck, checkNanos, expired);
+        }
+    }
+}
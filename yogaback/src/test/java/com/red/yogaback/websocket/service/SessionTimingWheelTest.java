@@ -0,0 +1,51 @@
+package com.red.yogaback.websocket.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionTimingWheelTest {
+
+    private final SessionTimingWheel wheel = new SessionTimingWheel(60_000L, 1_000L, 0L);
+
+    @Test
+    void 재예약한_타이머는_새_만료_시각까지_남는다() {
+        SessionTimingWheel.Timer s1 = new SessionTimingWheel.Timer("s1");
+        SessionTimingWheel.Timer s2 = new SessionTimingWheel.Timer("s2");
+        wheel.schedule(s1, 60_000L);
+        wheel.schedule(s2, 60_000L);
+
+        wheel.schedule(s2, 90_500L);
+
+        assertThat(wheel.expire(59_999L)).isEmpty();
+        assertThat(wheel.expire(60_000L)).containsExactly("s1");
+        // 올림이므로 90_500 은 91_000 에 만료
+        assertThat(wheel.expire(90_999L)).isEmpty();
+        assertThat(wheel.expire(91_000L)).containsExactly("s2");
+    }
+
+    @Test
+    void 만료로_넘긴_타이머는_다시_예약되지_않고_취소된_타이머는_넘기지_않는다() {
+        SessionTimingWheel.Timer s1 = new SessionTimingWheel.Timer("s1");
+        SessionTimingWheel.Timer s2 = new SessionTimingWheel.Timer("s2");
+        wheel.schedule(s1, 10_000L);
+        wheel.schedule(s2, 10_000L);
+        wheel.cancel(s2);
+
+        assertThat(wheel.expire(10_000L)).containsExactly("s1");
+        wheel.schedule(s1, 70_000L);
+        assertThat(wheel.expire(200_000L)).isEmpty();
+    }
+
+    @Test
+    void 한_바퀴_넘게_밀려도_만료되지_않은_타이머는_남긴다() {
+        SessionTimingWheel.Timer early = new SessionTimingWheel.Timer("early");
+        SessionTimingWheel.Timer late = new SessionTimingWheel.Timer("late");
+        // 칸이 64개이므로 tick 5 와 tick 133 은 같은 칸
+        wheel.schedule(early, 5_000L);
+        wheel.schedule(late, 133_000L);
+
+        assertThat(wheel.expire(70_000L)).containsExactly("early");
+        assertThat(wheel.expire(133_000L)).containsExactly("late");
+    }
+}
@@ -0,0 +1,70 @@
+package com.red.yogaback.websocket.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SharedSessionRegistryTest {
+
+    private static final long TTL_MS = 60_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private InMemorySessionStore store;
+    private SharedSessionRegistry nodeA;
+    private SharedSessionRegistry nodeB;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemorySessionStore();
+        nodeA = new SharedSessionRegistry(store, "node-a", TTL_MS, 100, clock::get);
+        nodeB = new SharedSessionRegistry(store, "node-b", TTL_MS, 100, clock::get);
+    }
+
+    @Test
+    void 다른_서버에_붙은_세션도_사용자와_방으로_조회된다() {
+        nodeA.register("s1", new UserSession("1", "10", "alice", ""));
+        nodeB.register("s2", new UserSession("2", "10", "bob", ""));
+        nodeB.register("s3", new UserSession("1", "", "alice", ""));
+
+        assertThat(nodeA.sessionsInRoom("10")).containsExactlyInAnyOrder("s1", "s2");
+        assertThat(nodeB.sessionsOfUser("1")).containsExactlyInAnyOrder("s1", "s3");
+        assertThat(nodeA.activeRoomIds()).containsExactly(10L);
+        assertThat(nodeB.get("s1").getUserNickName()).isEqualTo("alice");
+    }
+
+    @Test
+    void heartbeat_는_TTL_의_3분의_1마다만_저장소에_쓴다() {
+        nodeA.register("s1", new UserSession("1", "10", "alice", ""));
+
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(1_000L);
+            nodeA.touch("s1");
+        }
+        assertThat(store.extendCalls).isZero();
+
+        clock.addAndGet(TTL_MS / 3);
+        nodeA.touch("s1");
+        assertThat(store.extendCalls).isEqualTo(1);
+    }
+
+    @Test
+    void 죽은_서버의_세션은_만료후_한_서버만_가져가_정리한다() {
+        nodeA.register("s1", new UserSession("1", "10", "alice", ""));
+        clock.addAndGet(TTL_MS);
+
+        // 만료된 세션은 조회에서 빠짐
+        assertThat(nodeB.sessionsInRoom("10")).isEmpty();
+        assertThat(nodeB.activeRoomIds()).isEmpty();
+
+        assertThat(nodeB.claimExpired()).containsExactly("s1");
+        assertThat(nodeA.claimExpired()).isEmpty();
+        // 정리(DISCONNECT 처리) 중에도 세션 정보는 남아 있음
+        assertThat(nodeB.get("s1")).isNotNull();
+
+        nodeB.remove("s1");
+        assertThat(nodeA.get("s1")).isNull();
+    }
+}